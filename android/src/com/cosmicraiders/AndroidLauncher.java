@@ -11,6 +11,9 @@ public class AndroidLauncher extends AndroidApplication {
 	protected void onCreate (Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
 		AndroidApplicationConfiguration config = new AndroidApplicationConfiguration();
-		initialize(new CosmicRaiders(), config);
+		// the game logic runs on its own thread, so it uses a second core
+		CosmicRaiders game = new CosmicRaiders(null, new SimulationThread());
+		game.setParallelExecutor(new ForkJoinExecutor());
+		initialize(game, config);
 	}
 }
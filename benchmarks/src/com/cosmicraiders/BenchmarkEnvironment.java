@@ -0,0 +1,100 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Shared setup for all benchmarks.
+ * Starts the libGDX headless backend, replaces the missing OpenGL context with the NoOpGL of the headless module
+ * so that AssetSet can create real (but empty) textures, and fills simulations with entities.
+ */
+public final class BenchmarkEnvironment {
+
+    private static boolean initialized;
+
+    private BenchmarkEnvironment() {
+    }
+
+    /**
+     * Starts the headless backend and loads all assets. Only does something on the first call.
+     */
+    public static synchronized void init() {
+        if (initialized) return;
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1;
+        new HeadlessApplication(new ApplicationAdapter() {}, config);
+        Gdx.gl = Gdx.gl20 = new NoOpGL();
+        AssetSet.load();
+        initialized = true;
+    }
+
+    /**
+     * Constructs a simulation in godmode, so collisions with the fighter never end the round.
+     * @param clock the clock of the simulation
+     * @return the new simulation
+     */
+    public static GameSimulation newSimulation(SteppedClock clock) {
+        ConfigSet configSet = new ConfigSet();
+        configSet.setGodMode(true);
+        return new GameSimulation(configSet, clock, new ManualInputSource());
+    }
+
+    /**
+     * Adds the given number of asteroids, fighter lasers, alien lasers, power ups and explosions to a simulation.
+     * Fighter lasers are placed in the lower half of the screen and everything else in the upper half,
+     * so the collision tests find candidates but no hits, like in most frames of a real game.
+     * A fixed seed keeps the positions identical between runs.
+     * @param simulation the simulation to fill
+     * @param count how many entities of each type are added
+     */
+    public static void populate(GameSimulation simulation, int count) {
+        MathUtils.random.setSeed(42);
+        ConfigSet configSet = simulation.getConfigSet();
+        EntityFactory factory = simulation.getEntityFactory();
+        float width = configSet.getResolutionX();
+        float height = configSet.getResolutionY();
+        float upperHalf = height / 2 + configSet.getAsteroidDiameter();
+
+        for (int i = 0; i < count; i++) {
+            float radius = configSet.getAsteroidDiameter() / 2 * MathUtils.random(1.0f, 2.0f);
+            factory.createAsteroid(MathUtils.random(0, width), MathUtils.random(upperHalf, height), radius);
+            simulation.getFighterLasers().add(MathUtils.random(0, width), MathUtils.random(0, height / 2 - configSet.getFighterLaserSize() - 20));
+            simulation.getAlienLasers().add(MathUtils.random(0, width), MathUtils.random(upperHalf, height));
+            factory.createPowerUp(MathUtils.random(0, width), MathUtils.random(upperHalf, height));
+            simulation.getExplosions().explode(Explosions.Kind.ASTEROID, MathUtils.random(0, width), MathUtils.random(upperHalf, height), 100);
+        }
+    }
+
+    /**
+     * Adds the given number of fighter lasers to the lower half of the screen, where they do not hit anything.
+     * @param simulation the simulation to fill
+     * @param count how many lasers are added
+     */
+    public static void populateFighterLasers(GameSimulation simulation, int count) {
+        MathUtils.random.setSeed(42);
+        ConfigSet configSet = simulation.getConfigSet();
+        for (int i = 0; i < count; i++) {
+            simulation.getFighterLasers().add(MathUtils.random(0, configSet.getResolutionX()),
+                    MathUtils.random(0, configSet.getResolutionY() / 2 - configSet.getFighterLaserSize() - 20));
+        }
+    }
+
+    /**
+     * Adds the given number of aliens to the top of the screen. The AlienFleet takes them on as loose aliens,
+     * so it does not send a wave while they are alive.
+     * @param simulation the simulation to fill
+     * @param count how many aliens are added
+     */
+    public static void populateAliens(GameSimulation simulation, int count) {
+        ConfigSet configSet = simulation.getConfigSet();
+        float height = configSet.getAlienSize() * EntityFactory.ALIEN_ASPECT_RATIO;
+        for (int i = 0; i < count; i++) {
+            simulation.getEntityFactory().createAlien(
+                    MathUtils.random(configSet.getPadding(), configSet.getResolutionX() - configSet.getAlienSize() - configSet.getPadding()),
+                    MathUtils.random(configSet.getResolutionY() / 2 + height, configSet.getResolutionY() - height));
+        }
+    }
+}
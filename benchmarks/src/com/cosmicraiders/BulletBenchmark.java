@@ -0,0 +1,83 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the alien bullets with the given number of live bullets.
+ * Bullets which leave the screen or hit the fighter are replaced by a radial burst from the middle of the screen
+ * in every tick, so the count stays the same and the batched emission is part of the measurement.
+ * A whole 60 Hz tick of the simulation with 10000 bullets has to stay within a budget of 4 ms (4000 us).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulletBenchmark {
+
+    @Param({"1000", "10000"})
+    public int bulletCount;
+
+    private SteppedClock clock;
+    private GameSimulation simulation;
+    private BulletStore bullets;
+    private final IntArray hits = new IntArray();
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        MathUtils.random.setSeed(42);
+        clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        bullets = simulation.getAlienBullets();
+        // spread the bullets over the screen before measuring
+        for (int i = 0; i < 300; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * One tick of the whole simulation, including moving the bullets, removing the ones which left the screen
+     * and testing the fighter against the ones near it.
+     */
+    @Benchmark
+    public void tick() {
+        refill();
+        clock.step(1 / 60f);
+        simulation.update();
+    }
+
+    /**
+     * Only what the bullets cost in a tick: refilling, the move, the removal of the bullets which left the screen
+     * and the hit test of the fighter.
+     */
+    @Benchmark
+    public IntArray moveAndHitTest() {
+        refill();
+        ConfigSet configSet = simulation.getConfigSet();
+        bullets.move(1 / 60f);
+        bullets.cull(configSet.getResolutionX(), configSet.getResolutionY());
+        Rectangle fighter = simulation.getFighter();
+        bullets.findHits(fighter, hits);
+        return hits;
+    }
+
+    private void refill() {
+        int missing = bulletCount - bullets.size();
+        if (missing <= 0) return;
+        ConfigSet configSet = simulation.getConfigSet();
+        BulletPattern burst = new BulletPattern(BulletPattern.Type.SPIRAL, missing, MathUtils.random(0.5f, 1.5f), 360, 7);
+        burst.emit(bullets, configSet.getResolutionX() / 2f, configSet.getResolutionY() / 2f, configSet.getAlienBulletSpeed(),
+                0, 0, bullets.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.cosmicraiders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one frame of the CollisionSystem: rebuilding the broad phase and both collision passes.
+ * Runs once with the grid broad phase and once with the brute force tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    @Param({"true", "false"})
+    public boolean broadPhase;
+
+    private CollisionSystem collisionSystem;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        GameSimulation simulation = BenchmarkEnvironment.newSimulation(new SteppedClock(0));
+        simulation.getConfigSet().setBroadPhaseEnabled(broadPhase);
+        BenchmarkEnvironment.populate(simulation, entityCount);
+        BenchmarkEnvironment.populateAliens(simulation, Math.min(entityCount, 100));
+        collisionSystem = simulation.getCollisionSystem();
+    }
+
+    @Benchmark
+    public void collide() {
+        collisionSystem.update(0);
+    }
+}
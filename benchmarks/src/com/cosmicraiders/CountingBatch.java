@@ -0,0 +1,255 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * A Batch which draws nothing, but counts sprites and render calls the same way SpriteBatch would:
+ * a render call happens whenever the texture changes, the vertex buffer is full or the batch ends.
+ * This allows measuring the CPU cost of the Painter and its draw call count without a GPU.
+ */
+public class CountingBatch implements Batch {
+    /**
+     * the number of sprites SpriteBatch can hold by default before it has to flush
+     */
+    private static final int SIZE = 1000;
+
+    private final Color color = new Color(1, 1, 1, 1);
+    private final Matrix4 projectionMatrix = new Matrix4();
+    private final Matrix4 transformMatrix = new Matrix4();
+    private Texture lastTexture;
+    private int pendingSprites;
+    private boolean drawing;
+    private boolean blending = true;
+    private int blendSrcFunc = GL20.GL_SRC_ALPHA;
+    private int blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+
+    /**
+     * sprites drawn since the last resetCounters()
+     */
+    public long sprites;
+    /**
+     * render calls since the last resetCounters()
+     */
+    public long renderCalls;
+    /**
+     * texture switches since the last resetCounters()
+     */
+    public long textureSwitches;
+
+    public void resetCounters() {
+        sprites = 0;
+        renderCalls = 0;
+        textureSwitches = 0;
+    }
+
+    private void sprite(Texture texture) {
+        if (texture != lastTexture) {
+            flush();
+            textureSwitches++;
+            lastTexture = texture;
+        } else if (pendingSprites == SIZE) {
+            flush();
+        }
+        pendingSprites++;
+        sprites++;
+    }
+
+    @Override
+    public void begin() {
+        drawing = true;
+        lastTexture = null;
+    }
+
+    @Override
+    public void end() {
+        flush();
+        drawing = false;
+    }
+
+    @Override
+    public void flush() {
+        if (pendingSprites == 0) return;
+        renderCalls++;
+        pendingSprites = 0;
+    }
+
+    @Override
+    public void setColor(Color tint) {
+        color.set(tint);
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(color, packedColor);
+    }
+
+    @Override
+    public float getPackedColor() {
+        return color.toFloatBits();
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth, int srcHeight, boolean flipX, boolean flipY) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        sprite(texture);
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+        sprite(region.getTexture());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        sprite(region.getTexture());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation) {
+        sprite(region.getTexture());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height, float scaleX, float scaleY, float rotation, boolean clockwise) {
+        sprite(region.getTexture());
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+        sprite(region.getTexture());
+    }
+
+    @Override
+    public void disableBlending() {
+        flush();
+        blending = false;
+    }
+
+    @Override
+    public void enableBlending() {
+        flush();
+        blending = true;
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+        setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        if (srcFuncColor != blendSrcFunc || dstFuncColor != blendDstFunc) flush();
+        blendSrcFunc = srcFuncColor;
+        blendDstFunc = dstFuncColor;
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return blendSrcFunc;
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return blendDstFunc;
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return blendSrcFunc;
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return blendDstFunc;
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return projectionMatrix;
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return transformMatrix;
+    }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        projectionMatrix.set(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        transformMatrix.set(transform);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+        flush();
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return null;
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return blending;
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,118 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how 1000 homing rockets find their targets among 1000 asteroids and aliens.
+ * homingSystem is what the HomingSystem does in every tick: rebuilding the TargetIndex and one nearest query per rocket.
+ * bruteForce finds the same targets by scanning all targets for every rocket, which the index replaces.
+ * kNearest and radius measure the other queries of the index, one per rocket.
+ * The entities are spread over the whole screen and nothing moves, so every invocation does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HomingBenchmark {
+    private static final int TARGET_TYPES = EntityType.ASTEROID.getBit() | EntityType.ALIEN.getBit();
+
+    @Param({"1000"})
+    public int rocketCount;
+
+    @Param({"1000"})
+    public int targetCount;
+
+    private GameSimulation simulation;
+    private ImmutableArray<Entity> rockets;
+    private ImmutableArray<Entity> targets;
+    private final IntArray found = new IntArray();
+    private final float[] distances2 = new float[8];
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        MathUtils.random.setSeed(42);
+        SteppedClock clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        ConfigSet configSet = simulation.getConfigSet();
+        EntityFactory factory = simulation.getEntityFactory();
+        for (int i = 0; i < targetCount; i++) {
+            float x = MathUtils.random(0, configSet.getResolutionX());
+            float y = MathUtils.random(0, configSet.getResolutionY());
+            if (i % 2 == 0) {
+                factory.createAsteroid(x, y, configSet.getAsteroidDiameter() / 2);
+            } else {
+                factory.createAlien(x, y);
+            }
+        }
+        for (int i = 0; i < rocketCount; i++) {
+            factory.createRocket(MathUtils.random(0, configSet.getResolutionX()), MathUtils.random(0, configSet.getResolutionY()));
+        }
+        rockets = simulation.getEngine().getEntitiesFor(Family.all(RocketComponent.class).get());
+        targets = simulation.getEngine().getEntitiesFor(Family.all(BoundsComponent.class, TypeComponent.class).get());
+        // one tick of time, so the rockets turn, but the clock is not stepped further
+        clock.step(1 / 60f);
+        simulation.getHomingSystem().updateTargetIndex();
+    }
+
+    @Benchmark
+    public void homingSystem() {
+        simulation.getHomingSystem().update(1 / 60f);
+    }
+
+    @Benchmark
+    public void bruteForce(Blackhole blackhole) {
+        for (int r = 0; r < rockets.size(); r++) {
+            PositionComponent rocket = Mappers.position.get(rockets.get(r));
+            Entity best = null;
+            float bestDistance2 = Float.MAX_VALUE;
+            for (int t = 0; t < targets.size(); t++) {
+                Entity target = targets.get(t);
+                if ((Mappers.type.get(target).type.getBit() & TARGET_TYPES) == 0) continue;
+                BoundsComponent bounds = Mappers.bounds.get(target);
+                float dx = (bounds.getMinX() + bounds.getMaxX()) / 2 - rocket.x;
+                float dy = (bounds.getMinY() + bounds.getMaxY()) / 2 - rocket.y;
+                float distance2 = dx * dx + dy * dy;
+                if (distance2 < bestDistance2) {
+                    bestDistance2 = distance2;
+                    best = target;
+                }
+            }
+            blackhole.consume(best);
+        }
+    }
+
+    @Benchmark
+    public void kNearest(Blackhole blackhole) {
+        TargetIndex index = simulation.getTargetIndex();
+        for (int r = 0; r < rockets.size(); r++) {
+            PositionComponent rocket = Mappers.position.get(rockets.get(r));
+            index.nearest(rocket.x, rocket.y, distances2.length, Float.MAX_VALUE, TARGET_TYPES, found, distances2);
+            blackhole.consume(found.size);
+        }
+    }
+
+    @Benchmark
+    public void radius(Blackhole blackhole) {
+        TargetIndex index = simulation.getTargetIndex();
+        for (int r = 0; r < rockets.size(); r++) {
+            PositionComponent rocket = Mappers.position.get(rockets.get(r));
+            index.within(rocket.x, rocket.y, 200, TARGET_TYPES, found);
+            blackhole.consume(found.size);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cosmicraiders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one frame of the fighter lasers in their LaserStore: moving them, testing them against
+ * the asteroids and aliens of a normal game, and drawing them into a CountingBatch.
+ * The lasers stay in the lower half of the screen and never hit anything.
+ * At 60 frames per second a frame has 16,667 microseconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LaserStoreBenchmark {
+
+    @Param({"1000", "20000"})
+    public int laserCount;
+
+    private GameSimulation simulation;
+    private CountingBatch batch;
+    private Painter painter;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        SteppedClock clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        BenchmarkEnvironment.populate(simulation, 20);
+        BenchmarkEnvironment.populateFighterLasers(simulation, laserCount);
+        clock.step(0);
+        batch = new CountingBatch();
+        painter = new Painter(batch, null, simulation);
+    }
+
+    @Benchmark
+    public void move() {
+        simulation.getFighterLasers().move(0, simulation.getConfigSet().getResolutionY());
+    }
+
+    @Benchmark
+    public void collide() {
+        simulation.getCollisionSystem().updateBroadPhase();
+        simulation.getCollisionSystem().handleLaserCollisions(simulation.getFighterLasers());
+    }
+
+    @Benchmark
+    public void frame() {
+        move();
+        collide();
+        batch.begin();
+        painter.renderObjects(1);
+        batch.end();
+    }
+}
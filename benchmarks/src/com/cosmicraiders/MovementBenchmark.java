@@ -0,0 +1,45 @@
+package com.cosmicraiders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one frame of the MovementSystem: steering the aliens and moving all entities.
+ * The clock is stepped with a delta of 0, so the entities do the full amount of work
+ * but stay where they are and never leave the screen during the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovementBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private GameSimulation simulation;
+    private MovementSystem movementSystem;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        SteppedClock clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        BenchmarkEnvironment.populate(simulation, entityCount);
+        BenchmarkEnvironment.populateAliens(simulation, entityCount);
+        clock.step(0);
+        movementSystem = simulation.getMovementSystem();
+    }
+
+    @Benchmark
+    public void moveAll() {
+        movementSystem.update(0);
+    }
+}
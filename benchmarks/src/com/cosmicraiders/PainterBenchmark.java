@@ -0,0 +1,61 @@
+package com.cosmicraiders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Painter.renderObjects() against a CountingBatch.
+ * This is the CPU side of rendering: iterating the entities and batching their sprites.
+ * The render calls per frame are printed at the end of each iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PainterBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private CountingBatch batch;
+    private Painter painter;
+    private long frames;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        GameSimulation simulation = BenchmarkEnvironment.newSimulation(new SteppedClock(0));
+        BenchmarkEnvironment.populate(simulation, entityCount);
+        BenchmarkEnvironment.populateAliens(simulation, entityCount);
+        batch = new CountingBatch();
+        painter = new Painter(batch, null, simulation);
+    }
+
+    @Benchmark
+    public void renderObjects() {
+        batch.begin();
+        painter.renderObjects(1);
+        batch.end();
+        frames++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (frames > 0) {
+            System.out.println("  render calls per frame: " + batch.renderCalls / frames
+                    + ", texture switches per frame: " + batch.textureSwitches / frames
+                    + ", sprites per frame: " + batch.sprites / frames);
+        }
+        batch.resetCounters();
+        frames = 0;
+    }
+}
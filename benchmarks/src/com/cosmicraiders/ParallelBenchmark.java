@@ -0,0 +1,63 @@
+package com.cosmicraiders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serial and the parallel path of the MovementSystem, of the impact prediction and of the laser collisions
+ * with a ForkJoinExecutor. In the parallel runs the threshold is 0, so every loop is split.
+ * The fighter lasers stay in the lower half of the screen and never hit anything.
+ * predict is what the game runs by default, collide only runs when the impact prediction is switched off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelBenchmark {
+
+    @Param({"1000", "20000", "100000"})
+    public int laserCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private GameSimulation simulation;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        SteppedClock clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        simulation.setParallelExecutor(new ForkJoinExecutor());
+        simulation.getConfigSet().setParallelThreshold(parallel ? 0 : Integer.MAX_VALUE);
+        BenchmarkEnvironment.populate(simulation, 1000);
+        BenchmarkEnvironment.populateFighterLasers(simulation, laserCount);
+        clock.step(0);
+    }
+
+    @Benchmark
+    public void move() {
+        simulation.getMovementSystem().update(0);
+    }
+
+    /**
+     * Predicts the impacts of all lasers again, as if they had all just been fired.
+     */
+    @Benchmark
+    public void predict() {
+        simulation.getImpactScheduler().rebuild();
+    }
+
+    @Benchmark
+    public void collide() {
+        simulation.getCollisionSystem().updateBroadPhase();
+        simulation.getCollisionSystem().handleLaserCollisions(simulation.getFighterLasers());
+    }
+}
@@ -0,0 +1,65 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one frame of the TimerWheel with the given number of aliens, i.e. the spawns of asteroids, the shots of the aliens
+ * and their turns. Every invocation advances the game time by one 60 Hz frame. All aliens have pending timers,
+ * but only the ones which are due cost anything.
+ * Whatever was spawned is removed and recycled right away, so the engine keeps its size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpawnerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private SteppedClock clock;
+    private GameSimulation simulation;
+    private TimerWheel timers;
+    private ImmutableArray<Entity> entities;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        BenchmarkEnvironment.populateAliens(simulation, entityCount);
+        timers = simulation.getTimers();
+        entities = simulation.getEngine().getEntitiesFor(EntityCounts.TYPED);
+    }
+
+    @Benchmark
+    public void advanceTimers() {
+        clock.step(1 / 60f);
+        timers.advance(clock.millis());
+        recycleSpawned();
+    }
+
+    /**
+     * Removes all alien lasers and asteroids. The engine is not updating, so they are removed right away,
+     * which is why the entities are visited from the back.
+     */
+    private void recycleSpawned() {
+        simulation.getAlienLasers().clear();
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            EntityType type = Mappers.type.get(entities.get(i)).type;
+            if (type == EntityType.ASTEROID) {
+                simulation.getEngine().removeEntity(entities.get(i));
+            }
+        }
+    }
+}
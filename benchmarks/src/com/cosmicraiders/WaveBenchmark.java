@@ -0,0 +1,51 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.MathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one 60 Hz tick of the whole simulation while a grid formation of the given number of aliens moves and shoots.
+ * The aliens overlap a little, so even 500 of them fit on the screen. The fighter does not shoot, so the wave stays alive,
+ * and the simulation runs for two seconds before measuring, so the alien lasers have filled the screen.
+ * A tick has to stay well below 16.7 ms to keep 60 fps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WaveBenchmark {
+
+    @Param({"1", "100", "500"})
+    public int alienCount;
+
+    private SteppedClock clock;
+    private GameSimulation simulation;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.init();
+        MathUtils.random.setSeed(42);
+        clock = new SteppedClock(0);
+        simulation = BenchmarkEnvironment.newSimulation(clock);
+        int columns = Math.min(alienCount, 25);
+        int rows = (alienCount + columns - 1) / columns;
+        simulation.getAlienFleet().spawnWave(new WaveDefinition(WaveDefinition.Formation.GRID, columns, rows, -50, 1, 1, 1));
+        for (int i = 0; i < 120; i++) {
+            tick();
+        }
+    }
+
+    @Benchmark
+    public void tick() {
+        clock.step(1 / 60f);
+        simulation.update();
+    }
+}
@@ -0,0 +1,20 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Marks an entity as an alien ship, so that aliens can be steered and can shoot.
+ * Everything else about the alien (direction, health, its formation, when it shoots next) is kept by the AlienFleet.
+ */
+public class AlienComponent implements Component, Pool.Poolable {
+    /**
+     * the slot of the alien in the arrays of the AlienFleet, -1 if the fleet has not taken it on yet
+     */
+    public int index = -1;
+
+    @Override
+    public void reset() {
+        index = -1;
+    }
+}
@@ -0,0 +1,431 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Sends the aliens in waves, steers them and lets them shoot.
+ * The waves come from the ConfigSet, see WaveDefinition: once all aliens of a wave are destroyed and the respawn delay has passed,
+ * the next wave is spawned. A wave in a formation moves from side to side as one block, the aliens of a loose wave each on their own.
+ * <p>
+ * The state of every alien (its direction, health, wave and timers) is kept in primitive arrays, the AlienComponent only holds
+ * the slot of the alien in them. Nothing is done per alien and tick: the next wave, the next shot of an alien and the next turn
+ * of an alien or a formation are timers of the TimerWheel of the simulation. The timers of an alien are cancelled when it is removed.
+ * A turn is due at a random time or when the border of the screen is reached, whatever comes first,
+ * because the aliens move at a constant speed between two turns.
+ * Aliens which are created without the fleet, e.g. by a benchmark, are taken on as loose aliens when they are added to the engine.
+ * Whenever the velocity of an alien changes, the ImpactScheduler is told.
+ * The aliens of a wave with a BulletPattern shoot bursts of bullets instead of lasers.
+ */
+public class AlienFleet implements EntityListener, TimerWheel.Listener {
+    public static final Family ALIENS = Family.all(AlienComponent.class, PositionComponent.class, VelocityComponent.class).get();
+    /**
+     * the kinds of timers, the id of a timer is the slot of its alien or wave times KINDS plus its kind
+     */
+    private static final int FIRE = 0;
+    private static final int TURN = 1;
+    private static final int WAVE_TURN = 2;
+    private static final int NEXT_WAVE = 3;
+    private static final int KINDS = 4;
+    /**
+     * how long to wait before looking again whether an alien may shoot while the rate of fire is 0
+     */
+    private static final long NO_FIRE_RECHECK = 1000;
+
+    private final GameSimulation simulation;
+
+    /**
+     * per alien, the slots of destroyed aliens are reused
+     */
+    private int slotCount;
+    private int alienCount;
+    private final IntArray freeSlots = new IntArray();
+    private Entity[] entities = new Entity[16];
+    /**
+     * the handles of the timers of the next shot and the next turn
+     */
+    private long[] fireTimers = new long[16];
+    private long[] turnTimers = new long[16];
+    /**
+     * the slot of the wave the alien belongs to, -1 if it was not spawned by the fleet
+     */
+    private int[] waves = new int[16];
+    private int[] healths = new int[16];
+    /**
+     * 1 when the alien moves to the right, -1 when it moves to the left, only used by loose aliens
+     */
+    private float[] directions = new float[16];
+    /**
+     * how many bursts the alien has shot, turns a SPIRAL further with every burst
+     */
+    private int[] bursts = new int[16];
+
+    /**
+     * per spawned wave, usually only one is alive at a time
+     */
+    private int waveSlotCount;
+    private final IntArray freeWaveSlots = new IntArray();
+    private long[] waveTurnTimers = new long[4];
+    private int[] waveMembers = new int[4];
+    private boolean[] waveFormations = new boolean[4];
+    private float[] waveSpeedFactors = new float[4];
+    private float[] waveFireRateFactors = new float[4];
+    private BulletPattern[] wavePatterns = new BulletPattern[4];
+    /**
+     * the block of a formation: its left edge at waveTimes, its width, direction and speed
+     */
+    private float[] waveLefts = new float[4];
+    private float[] waveWidths = new float[4];
+    private float[] waveDirections = new float[4];
+    private float[] waveSpeeds = new float[4];
+    private long[] waveTimes = new long[4];
+
+    /**
+     * how many waves have been spawned in this round
+     */
+    private int waveNumber;
+
+    /**
+     * Constructs the fleet and registers it with the engine.
+     * @param simulation the simulation
+     */
+    public AlienFleet(GameSimulation simulation) {
+        this.simulation = simulation;
+        simulation.getEngine().addEntityListener(ALIENS, this);
+    }
+
+    /**
+     * Prepares a new round. The aliens of the last round have to be removed from the engine
+     * and the timers of the TimerWheel have to be dropped already. The first wave is due after the respawn delay.
+     */
+    public void reset() {
+        Arrays.fill(entities, null);
+        slotCount = 0;
+        alienCount = 0;
+        freeSlots.clear();
+        waveSlotCount = 0;
+        Arrays.fill(waveMembers, 0);
+        Arrays.fill(wavePatterns, null);
+        freeWaveSlots.clear();
+        waveNumber = 0;
+        scheduleNextWave(0);
+    }
+
+    /**
+     * Handles the timers of the fleet: the next wave is sent, aliens shoot and turn around.
+     */
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        int slot = id / KINDS;
+        long now = simulation.getClock().millis();
+        switch (id % KINDS) {
+            case FIRE:
+                fire(slot, time, now);
+                break;
+            case TURN:
+                turn(slot, now);
+                break;
+            case WAVE_TURN:
+                turnFormation(slot, now);
+                break;
+            default:
+                // aliens which were created without the fleet hold the next wave back
+                if (alienCount == 0) {
+                    WaveDefinition[] definitions = simulation.getConfigSet().getWaves();
+                    spawnWave(definitions[waveNumber % definitions.length]);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Sets the timer for the next wave.
+     * @param clearedTime when the last alien was destroyed, the wave is due after the respawn delay
+     */
+    private void scheduleNextWave(long clearedTime) {
+        simulation.getTimers().schedule(clearedTime + simulation.getConfigSet().getAlienRespawnDelay() + 1, this, NEXT_WAVE);
+    }
+
+    /**
+     * Spawns a wave at the top of the screen. The aliens are added to the engine by the EntityFactory,
+     * they start to move and shoot once the engine has added them, see entityAdded().
+     * @param definition the wave
+     */
+    public void spawnWave(WaveDefinition definition) {
+        ConfigSet configSet = simulation.getConfigSet();
+        simulation.playSound(AssetSet.alienSpawn, SoundMixer.Category.SPAWN, configSet.getVolume());
+        waveNumber++;
+
+        float width = configSet.getAlienSize();
+        float height = configSet.getAlienSize() * EntityFactory.ALIEN_ASPECT_RATIO;
+        float cellWidth = width + definition.getSpacing();
+        float cellHeight = height + definition.getSpacing();
+        int columns = definition.getColumns();
+        float blockWidth = columns * cellWidth - definition.getSpacing();
+        float left = configSet.getPadding();
+        float top = configSet.getResolutionY() - height - configSet.getPadding();
+        boolean formation = definition.getFormation() != WaveDefinition.Formation.LOOSE;
+        float blockLeft = MathUtils.random(left, Math.max(left, configSet.getResolutionX() - configSet.getPadding() - blockWidth));
+        float middle = (columns - 1) / 2f;
+
+        int wave = newWave(definition, formation);
+        // the engine may add the aliens right away, so the block has to be set up before they are created
+        if (formation) {
+            waveLefts[wave] = blockLeft;
+            waveWidths[wave] = blockWidth;
+            waveDirections[wave] = MathUtils.randomBoolean() ? 1 : -1;
+            waveSpeeds[wave] = configSet.getAlienSpeed() * waveSpeedFactors[wave];
+            waveTimes[wave] = simulation.getClock().millis();
+            scheduleFormationTurn(wave, waveTimes[wave]);
+        }
+        for (int row = 0; row < definition.getRows(); row++) {
+            for (int column = 0; column < columns; column++) {
+                float x;
+                float y = top - row * cellHeight;
+                if (formation) {
+                    x = blockLeft + column * cellWidth;
+                    if (definition.getFormation() == WaveDefinition.Formation.VEE) {
+                        y -= (middle - Math.abs(column - middle)) * cellHeight / 2;
+                    }
+                } else {
+                    x = MathUtils.random(left, configSet.getResolutionX() - width - configSet.getPadding());
+                }
+                simulation.getEntityFactory().createAlien(x, y, newSlot(wave, definition.getHealth()));
+            }
+        }
+    }
+
+    /**
+     * Starts an alien which the engine has added: it gets a direction, its first shot and, if it is loose, its first turn.
+     * The first shot is at a random moment of the first interval, so the aliens of a wave do not all shoot at once.
+     */
+    @Override
+    public void entityAdded(Entity entity) {
+        AlienComponent alien = Mappers.alien.get(entity);
+        if (alien.index < 0) alien.index = newSlot(-1, 1);
+        int slot = alien.index;
+        entities[slot] = entity;
+        directions[slot] = MathUtils.randomBoolean() ? 1 : -1;
+        steer(slot);
+        long now = simulation.getClock().millis();
+        fireTimers[slot] = simulation.getTimers().schedule(now + MathUtils.random(getShotInterval(slot)), this, slot * KINDS + FIRE);
+        if (!isInFormation(slot)) scheduleTurn(slot, now);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        int slot = Mappers.alien.get(entity).index;
+        if (slot < 0 || entities[slot] != entity) return;
+        freeSlot(slot);
+    }
+
+    /**
+     * Takes one hit off the health of an alien.
+     * @param alien the alien which was hit
+     * @return true if the alien has no health left and has to be destroyed
+     */
+    public boolean hit(Entity alien) {
+        int slot = Mappers.alien.get(alien).index;
+        return slot < 0 || --healths[slot] <= 0;
+    }
+
+    /**
+     * Shoots a laser or a burst of bullets and sets the timer for the next shot. After a pause, e.g. when the rate of fire was 0,
+     * the interval starts over instead of firing the missed shots.
+     */
+    private void fire(int slot, long time, long now) {
+        long interval = getShotInterval(slot);
+        if (interval > 0) {
+            PositionComponent position = Mappers.position.get(entities[slot]);
+            BulletPattern pattern = waves[slot] >= 0 ? wavePatterns[waves[slot]] : null;
+            if (pattern != null) {
+                simulation.getSpawnSystem().spawnAlienBullets(pattern, position.x, position.y, bursts[slot]++);
+            } else {
+                simulation.getSpawnSystem().spawnAlienLaser(position.x, position.y);
+            }
+        } else {
+            interval = NO_FIRE_RECHECK;
+        }
+        long next = now - time > interval ? now + interval : time + interval;
+        fireTimers[slot] = simulation.getTimers().schedule(next, this, slot * KINDS + FIRE);
+    }
+
+    /**
+     * @return the time between two shots of an alien in milliseconds, 0 if it does not shoot at all
+     */
+    private long getShotInterval(int slot) {
+        double shotsPerSecond = simulation.getConfigSet().getAlienShotsPerSecond();
+        if (waves[slot] >= 0) shotsPerSecond *= waveFireRateFactors[waves[slot]];
+        if (shotsPerSecond <= 0) return 0;
+        return Math.max(1, (long) (1000 / shotsPerSecond));
+    }
+
+    /**
+     * Turns a loose alien around.
+     */
+    private void turn(int slot, long now) {
+        directions[slot] = -directions[slot];
+        steer(slot);
+        scheduleTurn(slot, now);
+    }
+
+    /**
+     * Turns a formation around. Where its block is now follows from where it was at the last turn.
+     * The speed of the formation only follows the difficulty at a turn, so the block is always where it is expected.
+     */
+    private void turnFormation(int wave, long now) {
+        waveLefts[wave] += waveDirections[wave] * waveSpeeds[wave] * (now - waveTimes[wave]) / 1000f;
+        waveTimes[wave] = now;
+        waveDirections[wave] = -waveDirections[wave];
+        waveSpeeds[wave] = simulation.getConfigSet().getAlienSpeed() * waveSpeedFactors[wave];
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (waves[slot] == wave && entities[slot] != null) steer(slot);
+        }
+        scheduleFormationTurn(wave, now);
+    }
+
+    /**
+     * Gives an alien the velocity of its formation or, if it is loose, its own direction at the current alien speed.
+     */
+    private void steer(int slot) {
+        float speed;
+        int wave = waves[slot];
+        if (isInFormation(slot)) {
+            speed = waveDirections[wave] * waveSpeeds[wave];
+        } else {
+            speed = directions[slot] * simulation.getConfigSet().getAlienSpeed() * (wave >= 0 ? waveSpeedFactors[wave] : 1);
+        }
+        VelocityComponent velocity = Mappers.velocity.get(entities[slot]);
+        if (velocity.x != speed) {
+            velocity.x = speed;
+            simulation.getImpactScheduler().velocityChanged(entities[slot]);
+        }
+    }
+
+    private void scheduleTurn(int slot, long now) {
+        Entity entity = entities[slot];
+        long turn = getTurnTime(Mappers.position.get(entity).x, simulation.getConfigSet().getAlienSize(),
+                directions[slot], Math.abs(Mappers.velocity.get(entity).x), now);
+        turnTimers[slot] = simulation.getTimers().schedule(turn, this, slot * KINDS + TURN);
+    }
+
+    private void scheduleFormationTurn(int wave, long now) {
+        long turn = getTurnTime(waveLefts[wave], waveWidths[wave], waveDirections[wave], waveSpeeds[wave], now);
+        waveTurnTimers[wave] = simulation.getTimers().schedule(turn, this, wave * KINDS + WAVE_TURN);
+    }
+
+    /**
+     * Auxiliary method, decides when something which moves from side to side turns next:
+     * after a random time or when it reaches the border of the screen, whatever comes first.
+     * @param left the left edge now
+     * @param width the width
+     * @param direction 1 if it moves to the right, -1 if it moves to the left
+     * @param speed the speed in pixels per second
+     * @param now the current time in milliseconds
+     * @return the time of the turn in milliseconds, always after now
+     */
+    private long getTurnTime(float left, float width, float direction, float speed, long now) {
+        ConfigSet configSet = simulation.getConfigSet();
+        long turn = now + MathUtils.random(configSet.getAlienChangeDirectionTimeMinimum(), configSet.getAlienChangeDirectionTimeMaximum());
+        if (speed > 0) {
+            float distance = direction > 0 ? configSet.getResolutionX() - configSet.getPadding() - width - left : left - configSet.getPadding();
+            turn = Math.min(turn, now + (long) Math.ceil(Math.max(0, distance) / speed * 1000));
+        }
+        return Math.max(now + 1, turn);
+    }
+
+    private boolean isInFormation(int slot) {
+        return waves[slot] >= 0 && waveFormations[waves[slot]];
+    }
+
+    /**
+     * Auxiliary method, takes a slot for an alien which is about to be created.
+     * @param wave the slot of its wave, -1 if it was not spawned by the fleet
+     * @param health how many hits it takes
+     * @return the slot
+     */
+    private int newSlot(int wave, int health) {
+        int slot = freeSlots.size > 0 ? freeSlots.pop() : slotCount++;
+        if (slot == entities.length) growSlots();
+        waves[slot] = wave;
+        healths[slot] = health;
+        bursts[slot] = 0;
+        fireTimers[slot] = TimerWheel.NONE;
+        turnTimers[slot] = TimerWheel.NONE;
+        if (wave >= 0) waveMembers[wave]++;
+        alienCount++;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        TimerWheel timers = simulation.getTimers();
+        entities[slot] = null;
+        timers.cancel(fireTimers[slot]);
+        timers.cancel(turnTimers[slot]);
+        int wave = waves[slot];
+        if (wave >= 0 && --waveMembers[wave] == 0) {
+            timers.cancel(waveTurnTimers[wave]);
+            wavePatterns[wave] = null;
+            freeWaveSlots.add(wave);
+        }
+        freeSlots.add(slot);
+        if (--alienCount == 0) scheduleNextWave(simulation.getClock().millis());
+    }
+
+    private int newWave(WaveDefinition definition, boolean formation) {
+        int wave = freeWaveSlots.size > 0 ? freeWaveSlots.pop() : waveSlotCount++;
+        if (wave == waveMembers.length) growWaves();
+        waveMembers[wave] = 0;
+        waveTurnTimers[wave] = TimerWheel.NONE;
+        waveFormations[wave] = formation;
+        waveSpeedFactors[wave] = definition.getSpeedFactor();
+        waveFireRateFactors[wave] = definition.getFireRateFactor();
+        wavePatterns[wave] = definition.getPattern();
+        return wave;
+    }
+
+    private void growSlots() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        fireTimers = Arrays.copyOf(fireTimers, capacity);
+        turnTimers = Arrays.copyOf(turnTimers, capacity);
+        waves = Arrays.copyOf(waves, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        bursts = Arrays.copyOf(bursts, capacity);
+    }
+
+    private void growWaves() {
+        int capacity = waveMembers.length * 2;
+        waveTurnTimers = Arrays.copyOf(waveTurnTimers, capacity);
+        waveMembers = Arrays.copyOf(waveMembers, capacity);
+        waveFormations = Arrays.copyOf(waveFormations, capacity);
+        waveSpeedFactors = Arrays.copyOf(waveSpeedFactors, capacity);
+        waveFireRateFactors = Arrays.copyOf(waveFireRateFactors, capacity);
+        wavePatterns = Arrays.copyOf(wavePatterns, capacity);
+        waveLefts = Arrays.copyOf(waveLefts, capacity);
+        waveWidths = Arrays.copyOf(waveWidths, capacity);
+        waveDirections = Arrays.copyOf(waveDirections, capacity);
+        waveSpeeds = Arrays.copyOf(waveSpeeds, capacity);
+        waveTimes = Arrays.copyOf(waveTimes, capacity);
+    }
+
+    /**
+     * @return how many aliens are alive, including the ones which are about to be added to the engine
+     */
+    public int getAlienCount() {
+        return alienCount;
+    }
+
+    /**
+     * @return how many waves have been spawned in this round
+     */
+    public int getWaveNumber() {
+        return waveNumber;
+    }
+}
@@ -1,26 +1,63 @@
 package com.cosmicraiders;
 
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
 /**
  * This class saves textures, sounds and music as static attributes.
+ * All images are regions of one texture atlas, so the SpriteBatch does not have to switch textures while drawing a frame.
+ * Only the star background is a texture of its own, because it is tiled with the Repeat wrap mode.
+ * The atlas is built from the images in the "textures" folder with the packTextures task of the desktop module.
+ * The assets are loaded by an AssetManager in two phases:
+ * first everything the main menu needs (atlas, font, music), then the sound effects of the game.
  */
 public class AssetSet {
 
-    public static Texture fighterImage;
-    public static Texture fighterRedImage;
+    public static final String ATLAS = "sprites.atlas";
+    public static final String STARS = "stars.png";
+    public static final String FONT = "fonts/CaveStoryGreen.fnt";
+    public static final String MUSIC = "sounds/NeonNoir.mp3";
+    public static final String WAVES = "waves.json";
 
-    public static Texture alienImage;
-    public static Texture laserRedImage;
-    public static Texture laserGreenImage;
-    public static Texture asteroidImage;
-    public static Texture asteroidExplosionImage;
+    /**
+     * the sound effects, they are only needed once a round is started
+     */
+    private static final String[] GAME_SOUNDS = {
+            "sounds/blasterShoot.mp3",
+            "sounds/explosion.mp3",
+            "sounds/asteroidExplosion.wav",
+            "sounds/alienSpawn.wav",
+            "sounds/alienLaser.wav",
+            "sounds/alienExplosion.wav",
+            "sounds/fighterLaser.wav",
+            "sounds/fighterExplosion.wav"
+    };
+
+    private static AssetManager manager;
+
+    public static TextureAtlas atlas;
+    public static BitmapFont font;
+
+    public static TextureRegion fighterImage;
+    public static TextureRegion fighterRedImage;
+
+    public static TextureRegion alienImage;
+    public static TextureRegion laserRedImage;
+    public static TextureRegion laserGreenImage;
+    public static TextureRegion rocketImage;
+    public static TextureRegion asteroidImage;
+    public static TextureRegion asteroidExplosionImage;
+    public static TextureRegion cosmicRaidersLogoImage;
+    public static TextureRegion powerUpImage;
     public static Texture starBackgroundImage;
-    public static Texture cosmicRaidersLogoImage;
-    public static Texture powerUpImage;
 
     public static Music neonNoir;
 
@@ -39,68 +76,117 @@ public class AssetSet {
     // Neon Noir: Music by Karl Casey @ White Bat Audio
 
     /**
-     * This method converts a file to a Texture object.
-     * @param fileName the file to be converted
-     * @return the Texture object made from the file
+     * This method looks up an image in the texture atlas.
+     * @param name the file name of the image in the "textures" folder, without ".png"
+     * @return the region of the atlas which holds the image
      */
-    public static Texture loadTexture(String fileName) {
-        return new Texture(Gdx.files.internal(fileName));
+    public static TextureRegion loadTexture(String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            throw new GdxRuntimeException("Image not found in texture atlas: " + name);
+        }
+        return region;
     }
 
     /**
-     * Loads the images for the aliens and the fighter using loadTexture method.
-     * Load the drop sound effect and the background music.
+     * Queues the assets which are needed to show the main menu: the texture atlas, the stars, the font and the music.
+     * The font page is taken from the atlas.
+     * @param assetManager the AssetManager which loads and owns all assets from now on
+     */
+    public static void queueMenuAssets(AssetManager assetManager) {
+        manager = assetManager;
+        manager.load(ATLAS, TextureAtlas.class);
+        TextureLoader.TextureParameter starsParameter = new TextureLoader.TextureParameter();
+        starsParameter.wrapU = Texture.TextureWrap.Repeat;
+        starsParameter.wrapV = Texture.TextureWrap.Repeat;
+        manager.load(STARS, Texture.class, starsParameter);
+        BitmapFontLoader.BitmapFontParameter fontParameter = new BitmapFontLoader.BitmapFontParameter();
+        fontParameter.atlasName = ATLAS;
+        manager.load(FONT, BitmapFont.class, fontParameter);
+        manager.load(MUSIC, Music.class);
+    }
+
+    /**
+     * Takes the menu assets from the AssetManager once they are loaded.
+     */
+    public static void fetchMenuAssets() {
+        atlas = manager.get(ATLAS, TextureAtlas.class);
+        starBackgroundImage = manager.get(STARS, Texture.class);
+        font = manager.get(FONT, BitmapFont.class);
+        neonNoir = manager.get(MUSIC, Music.class);
+
+        fighterImage = loadTexture("starFighter");
+        fighterRedImage = loadTexture("starFighterRed");
+
+        alienImage = loadTexture("alien");
+        laserRedImage = loadTexture("laserRed");
+        laserGreenImage = loadTexture("laserGreen");
+        rocketImage = loadTexture("rocket");
+        asteroidImage = loadTexture("asteroid");
+        asteroidExplosionImage = loadTexture("asteroidExplosion");
+        cosmicRaidersLogoImage = loadTexture("cosmicRaidersLogo");
+        powerUpImage = loadTexture("powerUp");
+    }
+
+    /**
+     * Queues the sound effects of the game. They are loaded while the main menu is shown.
+     */
+    public static void queueGameAssets() {
+        for (String fileName : GAME_SOUNDS) {
+            manager.load(fileName, Sound.class);
+        }
+    }
+
+    /**
+     * Takes the sound effects from the AssetManager once they are loaded.
+     */
+    public static void fetchGameAssets() {
+        blasterShoot = manager.get(GAME_SOUNDS[0], Sound.class);
+        explosion = manager.get(GAME_SOUNDS[1], Sound.class);
+        asteroidExplosion = manager.get(GAME_SOUNDS[2], Sound.class);
+        alienSpawn = manager.get(GAME_SOUNDS[3], Sound.class);
+        alienLaser = manager.get(GAME_SOUNDS[4], Sound.class);
+        alienExplosion = manager.get(GAME_SOUNDS[5], Sound.class);
+        fighterLaser = manager.get(GAME_SOUNDS[6], Sound.class);
+        fighterExplosion = manager.get(GAME_SOUNDS[7], Sound.class);
+    }
+
+    /**
+     * Loads all assets at once and blocks until they are ready.
+     * Used by tools like the benchmarks, the game itself loads asynchronously.
      */
     public static void load() {
+        queueMenuAssets(new AssetManager());
+        queueGameAssets();
+        manager.finishLoading();
+        fetchMenuAssets();
+        fetchGameAssets();
+    }
 
-        fighterImage = loadTexture("fighter/starFighter.png");
-        fighterRedImage = loadTexture("fighter/starFighterRed.png");
-
-        alienImage = loadTexture("alien.png");
-        laserRedImage = loadTexture("laserRed.png");
-        laserGreenImage = loadTexture("laserGreen.png");
-        asteroidImage = loadTexture("asteroid.png");
-        asteroidExplosionImage = loadTexture("asteroidExplosion.png");
-        starBackgroundImage = loadTexture("stars.png");
-        cosmicRaidersLogoImage = loadTexture("cosmicRaidersLogo.png");
-        powerUpImage = loadTexture("powerUp.png");
-
-        blasterShoot = Gdx.audio.newSound(Gdx.files.internal("sounds/blasterShoot.mp3"));
-        explosion = Gdx.audio.newSound(Gdx.files.internal("sounds/explosion.mp3"));
-        neonNoir = Gdx.audio.newMusic(Gdx.files.internal("sounds/NeonNoir.mp3"));
-
-        asteroidExplosion = Gdx.audio.newSound(Gdx.files.internal("sounds/asteroidExplosion.wav"));
-        alienSpawn = Gdx.audio.newSound(Gdx.files.internal("sounds/alienSpawn.wav"));
-        alienLaser = Gdx.audio.newSound(Gdx.files.internal("sounds/alienLaser.wav"));
-        alienExplosion = Gdx.audio.newSound(Gdx.files.internal("sounds/alienExplosion.wav"));
-        fighterLaser = Gdx.audio.newSound(Gdx.files.internal("sounds/fighterLaser.wav"));
-        fighterExplosion = Gdx.audio.newSound(Gdx.files.internal("sounds/fighterExplosion.wav"));
+    /**
+     * Loads the sound effects and the background music and blocks until they are ready.
+     * Does not need an OpenGL context, so it can also be used by the headless backend.
+     */
+    public static void loadSounds() {
+        manager = new AssetManager();
+        manager.load(MUSIC, Music.class);
+        queueGameAssets();
+        manager.finishLoading();
+        neonNoir = manager.get(MUSIC, Music.class);
+        fetchGameAssets();
+    }
+
+    public static AssetManager getManager() {
+        return manager;
     }
 
     /**
-     * Disposes of the textures.
-     * Disposes of the sounds and music.
+     * Disposes of all assets which were loaded by the AssetManager.
      */
     public static void dispose() {
-        fighterImage.dispose();
-        fighterRedImage.dispose();
-        alienImage.dispose();
-        laserRedImage.dispose();
-        laserGreenImage.dispose();
-        asteroidImage.dispose();
-        asteroidExplosionImage.dispose();
-        starBackgroundImage.dispose();
-        cosmicRaidersLogoImage.dispose();
-        powerUpImage.dispose();
-
-        blasterShoot.dispose();
-        explosion.dispose();
-        alienSpawn.dispose();
-        alienLaser.dispose();
-        alienExplosion.dispose();
-        fighterLaser.dispose();
-        fighterExplosion.dispose();
+        if (manager != null) {
+            manager.dispose();
+            manager = null;
+        }
     }
 }
-
-
@@ -0,0 +1,57 @@
+package com.cosmicraiders;
+
+/**
+ * Runs a GameSimulation away from the render thread.
+ * The render thread hands over the input once per frame, plays the sound effects the simulation queued
+ * and draws the latest RenderSnapshot. It never reads the simulation itself while the simulation runs.
+ * The only implementation is SimulationThread. It is not part of the HTML build, which has no threads,
+ * so the launchers which support it pass it to CosmicRaiders.
+ */
+public interface BackgroundSimulation {
+
+    /**
+     * @return the input source the GameSimulation has to be constructed with
+     */
+    InputSource getInput();
+
+    /**
+     * Connects the simulation which is run. Is called once, before the first resume().
+     * @param simulation the simulation, constructed with getInput()
+     * @param clock the clock of the simulation, it is stepped by one tick before every update
+     */
+    void attach(GameSimulation simulation, SteppedClock clock);
+
+    /**
+     * Starts or continues running ticks.
+     * A snapshot of the current state is published right away, so the first frame does not show an old round.
+     */
+    void resume();
+
+    /**
+     * Stops running ticks. Returns once the current tick is done,
+     * afterwards the render thread may read and change the simulation until resume() is called.
+     */
+    void pause();
+
+    /**
+     * Hands the input of this frame over to the simulation. Is called on the render thread.
+     * @param input the real input, it is copied
+     * @param profiling true if the ProfilerOverlay is shown, the FrameProfiler of the simulation is turned on with it
+     */
+    void submitInput(InputSource input, boolean profiling);
+
+    /**
+     * Plays the sound effects the simulation queued since the last call. Is called on the render thread.
+     */
+    void playQueuedSounds();
+
+    /**
+     * @return the snapshot of the latest tick, it stays valid until the next call
+     */
+    RenderSnapshot getLatestSnapshot();
+
+    /**
+     * Stops the thread for good.
+     */
+    void dispose();
+}
@@ -0,0 +1,144 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The shape of an entity for collisions, either a rectangle or a circle.
+ * The shape is moved along with the PositionComponent by setPosition(),
+ * a rectangle is placed with its lower left corner and a circle with its center on the position.
+ * Entities with CollisionMasks are also tested pixel by pixel once their shapes overlap.
+ */
+public class BoundsComponent implements Component, Pool.Poolable {
+    /**
+     * true if the entity is a circle, false if it is a rectangle
+     */
+    public boolean circular;
+    public final Rectangle rectangle = new Rectangle();
+    public final Circle circle = new Circle();
+    /**
+     * the pixel masks of the sprite, pre-rotated and evenly spread over a full turn, null if only the shape is tested
+     */
+    public CollisionMask[] masks;
+
+    /**
+     * Makes the bounds a rectangle.
+     * @param width the width
+     * @param height the height
+     * @return this component for chaining
+     */
+    public BoundsComponent setRectangle(float width, float height) {
+        circular = false;
+        rectangle.setSize(width, height);
+        return this;
+    }
+
+    /**
+     * Makes the bounds a circle.
+     * @param radius the radius
+     * @return this component for chaining
+     */
+    public BoundsComponent setCircle(float radius) {
+        circular = true;
+        circle.radius = radius;
+        return this;
+    }
+
+    /**
+     * Moves the shape to the position of its entity.
+     * @param x the horizontal coordinate of the position
+     * @param y the vertical coordinate of the position
+     */
+    public void setPosition(float x, float y) {
+        rectangle.setPosition(x, y);
+        circle.setPosition(x, y);
+    }
+
+    /**
+     * @param rotation the rotation of the entity in degrees
+     * @return the mask which is rotated closest to the entity, null if there are no masks
+     */
+    public CollisionMask getMask(float rotation) {
+        if (masks == null) return null;
+        return masks[CollisionMask.rotationIndex(rotation, masks.length)];
+    }
+
+    public float getMinX() {
+        return circular ? circle.x - circle.radius : rectangle.x;
+    }
+
+    public float getMinY() {
+        return circular ? circle.y - circle.radius : rectangle.y;
+    }
+
+    public float getMaxX() {
+        return circular ? circle.x + circle.radius : rectangle.x + rectangle.width;
+    }
+
+    public float getMaxY() {
+        return circular ? circle.y + circle.radius : rectangle.y + rectangle.height;
+    }
+
+    /**
+     * @param other the bounds of another entity
+     * @return true if both shapes overlap
+     */
+    public boolean overlaps(BoundsComponent other) {
+        if (other.circular) {
+            return overlaps(other.circle);
+        }
+        return overlaps(other.rectangle);
+    }
+
+    /**
+     * @param other a rectangle, e.g. the fighter
+     * @return true if the shape overlaps the rectangle
+     */
+    public boolean overlaps(Rectangle other) {
+        return circular ? Intersector.overlaps(circle, other) : rectangle.overlaps(other);
+    }
+
+    /**
+     * @param other a circle
+     * @return true if the shape overlaps the circle
+     */
+    public boolean overlaps(Circle other) {
+        return circular ? circle.overlaps(other) : Intersector.overlaps(other, rectangle);
+    }
+
+    /**
+     * Tests the pixel masks of two entities, is called after their shapes were found to overlap.
+     * Bounds without masks count as opaque everywhere.
+     * @param rotation the rotation of this entity in degrees
+     * @param other the bounds of another entity
+     * @param otherRotation the rotation of the other entity in degrees
+     * @return true if the opaque pixels overlap
+     */
+    public boolean masksOverlap(float rotation, BoundsComponent other, float otherRotation) {
+        return CollisionMask.overlaps(getMask(rotation), getMinX(), getMinY(), getMaxX(), getMaxY(),
+                other.getMask(otherRotation), other.getMinX(), other.getMinY(), other.getMaxX(), other.getMaxY());
+    }
+
+    /**
+     * Tests the pixel mask against a rectangle, is called after the shape was found to overlap it.
+     * @param rotation the rotation of this entity in degrees
+     * @param otherMask the mask of the rectangle, e.g. the fighter, null if it is opaque everywhere like a laser
+     * @param other the rectangle
+     * @return true if the opaque pixels overlap
+     */
+    public boolean masksOverlap(float rotation, CollisionMask otherMask, Rectangle other) {
+        return CollisionMask.overlaps(getMask(rotation), getMinX(), getMinY(), getMaxX(), getMaxY(),
+                otherMask, other.x, other.y, other.x + other.width, other.y + other.height);
+    }
+
+    @Override
+    public void reset() {
+        circular = false;
+        rectangle.set(0, 0, 0, 0);
+        circle.set(0, 0, 0);
+        masks = null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Describes how an alien of a wave shoots when it does not shoot single lasers: a burst of round bullets,
+ * each with its own direction. The patterns are part of the waves in waves.json, see WaveDefinition.
+ * <p>
+ * The directions of a burst follow from the pattern alone, so a burst is emitted into the BulletStore in one batch:
+ * the store grows at most once and then the bullets are written one after the other, see emit().
+ */
+public class BulletPattern {
+    /**
+     * How the bullets of a burst are directed.
+     */
+    public enum Type {
+        /**
+         * evenly over the spread, centered straight down
+         */
+        RADIAL,
+        /**
+         * like RADIAL, but every burst is turned a bit further, so the bursts of one alien form a spiral
+         */
+        SPIRAL,
+        /**
+         * evenly over the spread, centered on the fighter
+         */
+        AIMED
+    }
+
+    private final Type type;
+    private final int count;
+    private final float speedFactor;
+    private final float spread;
+    private final float spin;
+
+    /**
+     * @param type how the bullets are directed
+     * @param count how many bullets a burst has
+     * @param speedFactor the speed of the bullets relative to ConfigSet.getAlienBulletSpeed()
+     * @param spread the angle in degrees the bullets of a burst are spread over, 360 for a full circle
+     * @param spin how many degrees a SPIRAL turns from one burst to the next
+     */
+    public BulletPattern(Type type, int count, float speedFactor, float spread, float spin) {
+        this.type = type;
+        this.count = Math.max(1, count);
+        this.speedFactor = speedFactor;
+        this.spread = spread;
+        this.spin = spin;
+    }
+
+    /**
+     * Reads a pattern.
+     * @param json an object like {"type": "SPIRAL", "count": 6, "speed": 1, "spread": 360, "spin": 15}, may be null
+     * @return the pattern, null if json is null
+     */
+    public static BulletPattern fromJson(JsonValue json) {
+        if (json == null) return null;
+        return new BulletPattern(
+                Type.valueOf(json.getString("type", Type.RADIAL.name()).toUpperCase()),
+                json.getInt("count", 8),
+                json.getFloat("speed", 1),
+                json.getFloat("spread", 360),
+                json.getFloat("spin", 0));
+    }
+
+    /**
+     * Emits one burst.
+     * @param bullets the store the bullets are added to
+     * @param x the horizontal center of the burst
+     * @param y the vertical center of the burst
+     * @param speed the speed of the bullets in pixels per second, before the speed factor of the pattern
+     * @param targetX the horizontal center of the fighter, only used by AIMED
+     * @param targetY the vertical center of the fighter, only used by AIMED
+     * @param burst how many bursts the alien has emitted before, only used by SPIRAL
+     */
+    public void emit(BulletStore bullets, float x, float y, float speed, float targetX, float targetY, int burst) {
+        float center;
+        switch (type) {
+            case AIMED:
+                center = MathUtils.atan2(targetY - y, targetX - x) * MathUtils.radiansToDegrees;
+                break;
+            case SPIRAL:
+                center = -90 + burst * spin;
+                break;
+            default:
+                center = -90;
+                break;
+        }
+        // a full circle must not have a bullet at both ends
+        float step = count == 1 ? 0 : spread / (spread >= 360 ? count : count - 1);
+        float first = count == 1 ? center : center - (spread >= 360 ? 0 : spread / 2);
+        speed *= speedFactor;
+
+        int index = bullets.reserve(count);
+        for (int i = 0; i < count; i++) {
+            float angle = first + i * step;
+            bullets.set(index + i, x, y, MathUtils.cosDeg(angle) * speed, MathUtils.sinDeg(angle) * speed, angle);
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public float getSpeedFactor() {
+        return speedFactor;
+    }
+
+    public float getSpread() {
+        return spread;
+    }
+
+    public float getSpin() {
+        return spin;
+    }
+}
@@ -0,0 +1,264 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Holds the round bullets of the BulletPatterns of the aliens as a structure of arrays.
+ * Unlike lasers, every bullet has its own velocity, so they do not leave the screen in the order they were added
+ * and a ring buffer like the LaserStore does not fit. The bullets are kept densely packed instead:
+ * a bullet which is removed is replaced by the last one, so the order changes, but every index below size() is a bullet.
+ * <p>
+ * This keeps the move a single loop over plain float arrays without branches, which the JIT can vectorise,
+ * see move(). Leaving the screen is handled in a separate pass, see cull().
+ * All bullets have the same radius. Their position is the center.
+ */
+public class BulletStore implements EntityCounts.Store {
+    private final EntityType type;
+    private final float radius;
+
+    private float[] x;
+    private float[] y;
+    /**
+     * the velocities in pixels per second
+     */
+    private float[] velocityX;
+    private float[] velocityY;
+    /**
+     * the direction of flight in degrees, counterclockwise from the right, for drawing
+     */
+    private float[] angles;
+    private int size;
+    /**
+     * the highest number of bullets which were alive at the same time
+     */
+    private int highWaterMark;
+    /**
+     * the time of the last move in seconds, the previous positions for interpolated rendering follow from it
+     */
+    private float lastDelta;
+
+    /**
+     * Constructs an empty store.
+     * @param type the type the bullets are counted as
+     * @param radius the radius of every bullet
+     * @param initialCapacity how many bullets fit in before the arrays have to grow
+     */
+    public BulletStore(EntityType type, float radius, int initialCapacity) {
+        this.type = type;
+        this.radius = radius;
+        int capacity = Math.max(1, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        angles = new float[capacity];
+    }
+
+    /**
+     * Makes room for a burst of bullets, which then have to be written with set().
+     * The arrays grow at most once per burst.
+     * @param count how many bullets are added
+     * @return the index of the first new bullet
+     */
+    public int reserve(int count) {
+        if (size + count > x.length) grow(size + count);
+        int first = size;
+        size += count;
+        if (size > highWaterMark) highWaterMark = size;
+        return first;
+    }
+
+    /**
+     * Writes a bullet which was reserved.
+     * @param index the index returned by reserve() plus the number of the bullet in the burst
+     * @param centerX the horizontal center
+     * @param centerY the vertical center
+     * @param vx the horizontal velocity in pixels per second
+     * @param vy the vertical velocity in pixels per second
+     * @param angle the direction of flight in degrees
+     */
+    public void set(int index, float centerX, float centerY, float vx, float vy, float angle) {
+        x[index] = centerX;
+        y[index] = centerY;
+        velocityX[index] = vx;
+        velocityY[index] = vy;
+        angles[index] = angle;
+    }
+
+    private void grow(int capacity) {
+        capacity = Math.max(capacity, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        angles = Arrays.copyOf(angles, capacity);
+    }
+
+    /**
+     * Removes all bullets, e.g. for a new round.
+     */
+    public void clear() {
+        size = 0;
+        lastDelta = 0;
+    }
+
+    /**
+     * Moves all bullets by their velocities.
+     * @param delta the time in seconds
+     */
+    public void move(float delta) {
+        int n = size;
+        float[] x = this.x;
+        float[] y = this.y;
+        float[] velocityX = this.velocityX;
+        float[] velocityY = this.velocityY;
+        for (int i = 0; i < n; i++) {
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+        }
+        lastDelta = delta;
+    }
+
+    /**
+     * Removes the bullets which are completely outside of the screen.
+     * @param screenWidth the width of the screen
+     * @param screenHeight the height of the screen
+     * @return how many bullets were removed
+     */
+    public int cull(float screenWidth, float screenHeight) {
+        int removed = 0;
+        int i = 0;
+        while (i < size) {
+            float centerX = x[i];
+            float centerY = y[i];
+            if (centerX + radius < 0 || centerX - radius > screenWidth || centerY + radius < 0 || centerY - radius > screenHeight) {
+                // the last bullet takes the place, it has not been looked at yet
+                remove(i);
+                removed++;
+            } else {
+                i++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Finds the bullets which touch a rectangle: bullets whose bounding box misses the rectangle are skipped
+     * with two comparisons per axis, only the others get the exact circle against rectangle test.
+     * @param area the rectangle, e.g. the fighter
+     * @param out is cleared and receives the indices of the bullets, in descending order, so they can be removed one after the other
+     */
+    public void findHits(Rectangle area, IntArray out) {
+        out.clear();
+        float minX = area.x - radius;
+        float maxX = area.x + area.width + radius;
+        float minY = area.y - radius;
+        float maxY = area.y + area.height + radius;
+        float radius2 = radius * radius;
+        for (int i = size - 1; i >= 0; i--) {
+            float centerY = y[i];
+            if (centerY < minY || centerY > maxY) continue;
+            float centerX = x[i];
+            if (centerX < minX || centerX > maxX) continue;
+            float dx = centerX - Math.max(area.x, Math.min(centerX, area.x + area.width));
+            float dy = centerY - Math.max(area.y, Math.min(centerY, area.y + area.height));
+            if (dx * dx + dy * dy <= radius2) out.add(i);
+        }
+    }
+
+    /**
+     * Removes a bullet. The last bullet takes its index.
+     * @param index the index of the bullet
+     */
+    public void remove(int index) {
+        int last = --size;
+        x[index] = x[last];
+        y[index] = y[last];
+        velocityX[index] = velocityX[last];
+        velocityY[index] = velocityY[last];
+        angles[index] = angles[last];
+    }
+
+    /**
+     * Fills a Rectangle with the bounding box of one bullet.
+     * @param index the index of the bullet
+     * @param out the Rectangle to fill
+     * @return out, for chaining
+     */
+    public Rectangle getBounds(int index, Rectangle out) {
+        return out.set(x[index] - radius, y[index] - radius, radius * 2, radius * 2);
+    }
+
+    @Override
+    public EntityType getType() {
+        return type;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return how many bullets are alive, their indices are 0 to size() - 1
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest number of bullets which were alive at the same time
+     */
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * @param index the index of the bullet
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated horizontal center of the bullet
+     */
+    public float getInterpolatedX(int index, float alpha) {
+        return x[index] - velocityX[index] * lastDelta * (1 - alpha);
+    }
+
+    /**
+     * @param index the index of the bullet
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated vertical center of the bullet
+     */
+    public float getInterpolatedY(int index, float alpha) {
+        return y[index] - velocityY[index] * lastDelta * (1 - alpha);
+    }
+
+    public float getVelocityX(int index) {
+        return velocityX[index];
+    }
+
+    public float getVelocityY(int index) {
+        return velocityY[index];
+    }
+
+    public float getAngle(int index) {
+        return angles[index];
+    }
+
+    /**
+     * @return the time of the last move in seconds
+     */
+    public float getLastDelta() {
+        return lastDelta;
+    }
+}
@@ -0,0 +1,243 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * The opaque pixels of a sprite at the size it is drawn, packed into bits: one bit per pixel, 64 pixels per long.
+ * Row 0 is the bottom row and bit 0 of the first word of a row is the leftmost pixel, like the coordinates of the game.
+ * Masks are tested only after the shapes of BoundsComponent overlap, so the transparent corners of a sprite do not count as hits.
+ * Two masks are compared a row at a time with word-level AND operations, the words of the other mask are shifted
+ * into place, so a test costs a few operations per row instead of one per pixel.
+ */
+public class CollisionMask {
+    /**
+     * pixels with at least this alpha, from 0 to 255, are opaque
+     */
+    private static final int ALPHA_THRESHOLD = 128;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    /**
+     * Constructs a mask without opaque pixels.
+     * @param width the width in pixels
+     * @param height the height in pixels
+     */
+    public CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Reads which pixels of an image are opaque. Reading a Pixmap pixel by pixel is slow,
+     * so an image which is turned into several masks is read only once.
+     * @param page the pixels of the texture the region belongs to
+     * @param region the image
+     * @return a mask of the image at its original size
+     */
+    public static CollisionMask fromRegion(Pixmap page, TextureRegion region) {
+        int width = region.getRegionWidth();
+        int height = region.getRegionHeight();
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                int pixel = page.getPixel(region.getRegionX() + column, region.getRegionY() + height - 1 - row);
+                if ((pixel & 0xff) >= ALPHA_THRESHOLD) mask.set(column, row);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask of an image which is drawn scaled and rotated.
+     * Every pixel of the mask samples the pixel of the image under its center.
+     * @param image the mask of the image at its original size, see fromRegion()
+     * @param width the width the image is drawn with
+     * @param height the height the image is drawn with
+     * @param degrees the rotation around the center, counter-clockwise like PositionComponent.rotation
+     * @return the mask
+     */
+    public static CollisionMask transform(CollisionMask image, int width, int height, float degrees) {
+        CollisionMask mask = new CollisionMask(width, height);
+        float cos = MathUtils.cosDeg(degrees);
+        float sin = MathUtils.sinDeg(degrees);
+        float centerX = width / 2f;
+        float centerY = height / 2f;
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                // rotate the center of the pixel back into the unrotated image
+                float x = column + 0.5f - centerX;
+                float y = row + 0.5f - centerY;
+                float u = x * cos + y * sin + centerX;
+                float v = -x * sin + y * cos + centerY;
+                if (u < 0 || v < 0 || u >= width || v >= height) continue;
+                if (image.get((int) (u * image.width / width), (int) (v * image.height / height))) {
+                    mask.set(column, row);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param rotation a rotation in degrees, any value
+     * @param count how many pre-rotated masks there are, evenly spread over a full turn
+     * @return the index of the mask which is rotated closest to the rotation
+     */
+    public static int rotationIndex(float rotation, int count) {
+        int index = MathUtils.round(rotation * count / 360f) % count;
+        return index < 0 ? index + count : index;
+    }
+
+    /**
+     * Tests two objects for overlapping opaque pixels. Either object may have no mask, then all of its bounds are opaque.
+     * The masks are centered on the bounds, so a mask which is a little larger or smaller than its bounds still lines up.
+     * Is meant to be called after the bounds have been found to overlap.
+     * @param mask the mask of the first object, null if it has none
+     * @param minX the left edge of the bounds of the first object
+     * @param minY the bottom edge of the bounds of the first object
+     * @param maxX the right edge of the bounds of the first object
+     * @param maxY the top edge of the bounds of the first object
+     * @param other the mask of the second object, null if it has none
+     * @param otherMinX the left edge of the bounds of the second object
+     * @param otherMinY the bottom edge of the bounds of the second object
+     * @param otherMaxX the right edge of the bounds of the second object
+     * @param otherMaxY the top edge of the bounds of the second object
+     * @return true if an opaque pixel of one object lies on an opaque pixel of the other
+     */
+    public static boolean overlaps(CollisionMask mask, float minX, float minY, float maxX, float maxY,
+                                   CollisionMask other, float otherMinX, float otherMinY, float otherMaxX, float otherMaxY) {
+        if (mask == null && other == null) return true;
+        if (mask == null) {
+            return other.overlaps(other.getLeft(otherMinX, otherMaxX), other.getBottom(otherMinY, otherMaxY), minX, minY, maxX, maxY);
+        }
+        if (other == null) {
+            return mask.overlaps(mask.getLeft(minX, maxX), mask.getBottom(minY, maxY), otherMinX, otherMinY, otherMaxX, otherMaxY);
+        }
+        return mask.overlaps(mask.getLeft(minX, maxX), mask.getBottom(minY, maxY),
+                other, other.getLeft(otherMinX, otherMaxX), other.getBottom(otherMinY, otherMaxY));
+    }
+
+    /**
+     * @return the left edge of this mask when it is centered between minX and maxX, in whole pixels
+     */
+    private int getLeft(float minX, float maxX) {
+        return MathUtils.floor((minX + maxX - width) / 2);
+    }
+
+    /**
+     * @return the bottom edge of this mask when it is centered between minY and maxY, in whole pixels
+     */
+    private int getBottom(float minY, float maxY) {
+        return MathUtils.floor((minY + maxY - height) / 2);
+    }
+
+    /**
+     * Tests the mask against a rectangle which is opaque everywhere, e.g. a laser.
+     * @param x the left edge of the mask
+     * @param y the bottom edge of the mask
+     * @param left the left edge of the rectangle
+     * @param bottom the bottom edge of the rectangle
+     * @param right the right edge of the rectangle
+     * @param top the top edge of the rectangle
+     * @return true if an opaque pixel of the mask lies inside the rectangle
+     */
+    public boolean overlaps(int x, int y, float left, float bottom, float right, float top) {
+        int firstColumn = Math.max(0, MathUtils.floor(left - x));
+        int endColumn = Math.min(width, MathUtils.ceil(right - x));
+        int firstRow = Math.max(0, MathUtils.floor(bottom - y));
+        int endRow = Math.min(height, MathUtils.ceil(top - y));
+        if (firstColumn >= endColumn || firstRow >= endRow) return false;
+
+        int firstWord = firstColumn >> 6;
+        int lastWord = (endColumn - 1) >> 6;
+        for (int row = firstRow; row < endRow; row++) {
+            int base = row * wordsPerRow;
+            for (int word = firstWord; word <= lastWord; word++) {
+                int start = word << 6;
+                long columns = -1L;
+                if (firstColumn > start) columns &= -1L << (firstColumn - start);
+                if (endColumn < start + 64) columns &= (1L << (endColumn - start)) - 1;
+                if ((bits[base + word] & columns) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests the mask against another mask.
+     * @param x the left edge of this mask
+     * @param y the bottom edge of this mask
+     * @param other the other mask
+     * @param otherX the left edge of the other mask
+     * @param otherY the bottom edge of the other mask
+     * @return true if an opaque pixel of this mask lies on an opaque pixel of the other
+     */
+    public boolean overlaps(int x, int y, CollisionMask other, int otherX, int otherY) {
+        int dx = otherX - x;
+        int dy = otherY - y;
+        int firstColumn = Math.max(0, dx);
+        int endColumn = Math.min(width, dx + other.width);
+        int firstRow = Math.max(0, dy);
+        int endRow = Math.min(height, dy + other.height);
+        if (firstColumn >= endColumn || firstRow >= endRow) return false;
+
+        int firstWord = firstColumn >> 6;
+        int lastWord = (endColumn - 1) >> 6;
+        for (int row = firstRow; row < endRow; row++) {
+            int base = row * wordsPerRow;
+            for (int word = firstWord; word <= lastWord; word++) {
+                if ((bits[base + word] & other.extract(row - dy, (word << 6) - dx)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Auxiliary method, reads 64 pixels of a row from any column on, also across a word boundary.
+     * Pixels outside the mask are transparent.
+     */
+    private long extract(int row, int column) {
+        int word = column >> 6;
+        int offset = column & 63;
+        long low = word(row, word) >>> offset;
+        if (offset == 0) return low;
+        return low | (word(row, word + 1) << (64 - offset));
+    }
+
+    private long word(int row, int word) {
+        return word < 0 || word >= wordsPerRow ? 0 : bits[row * wordsPerRow + word];
+    }
+
+    /**
+     * Makes a pixel opaque.
+     * @param column the column, 0 is the leftmost
+     * @param row the row, 0 is the bottom row
+     */
+    public void set(int column, int row) {
+        bits[row * wordsPerRow + (column >> 6)] |= 1L << (column & 63);
+    }
+
+    /**
+     * @param column the column, 0 is the leftmost
+     * @param row the row, 0 is the bottom row
+     * @return true if the pixel is opaque
+     */
+    public boolean get(int column, int row) {
+        return (bits[row * wordsPerRow + (column >> 6)] & (1L << (column & 63))) != 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
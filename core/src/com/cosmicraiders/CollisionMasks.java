@@ -0,0 +1,108 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * The CollisionMasks of the fighter, the alien and the asteroids, built once from the alpha channel of the texture atlas
+ * at the sizes the ConfigSet gives, so no pixel has to be read while the game runs.
+ * Asteroids rotate and come in sizes from the smallest fragment up to two times the asteroid diameter,
+ * so there is a small set of size classes with pre-rotated masks each, the closest one is used.
+ * The EntityFactory gives new entities their masks, the fighter mask is used by the CollisionSystem.
+ */
+public class CollisionMasks {
+    /**
+     * how many pre-rotated masks there are per asteroid size, evenly spread over a full turn
+     */
+    public static final int ASTEROID_ROTATIONS = 16;
+    /**
+     * how many asteroid sizes there are masks for, from the smallest fragment to two times the asteroid diameter
+     */
+    public static final int ASTEROID_SIZES = 12;
+
+    private final CollisionMask[] fighter;
+    private final CollisionMask[] alien;
+    private final CollisionMask[][] asteroids = new CollisionMask[ASTEROID_SIZES][];
+    private final float smallestAsteroid;
+    private final float largestAsteroid;
+
+    /**
+     * Builds all masks. The atlas has to be loaded, see AssetSet.fetchMenuAssets().
+     * The pixels of the atlas page are loaded again from its file, the texture itself only lives on the GPU.
+     * @param configSet gives the sizes the sprites are drawn with
+     */
+    public CollisionMasks(ConfigSet configSet) {
+        TextureData data = AssetSet.fighterImage.getTexture().getTextureData();
+        if (!data.isPrepared()) data.prepare();
+        Pixmap page = data.consumePixmap();
+        try {
+            int fighterSize = configSet.getFighterSize();
+            CollisionMask fighterImage = CollisionMask.fromRegion(page, AssetSet.fighterImage);
+            fighter = new CollisionMask[] {CollisionMask.transform(fighterImage, fighterSize, fighterSize, 0)};
+            int alienWidth = configSet.getAlienSize();
+            int alienHeight = MathUtils.round(configSet.getAlienSize() * EntityFactory.ALIEN_ASPECT_RATIO);
+            CollisionMask alienImage = CollisionMask.fromRegion(page, AssetSet.alienImage);
+            alien = new CollisionMask[] {CollisionMask.transform(alienImage, alienWidth, alienHeight, 0)};
+            smallestAsteroid = Math.min(configSet.getAsteroidFragmentMinimumDiameter(), configSet.getAsteroidDiameter());
+            largestAsteroid = configSet.getAsteroidDiameter() * 2;
+            CollisionMask asteroidImage = CollisionMask.fromRegion(page, AssetSet.asteroidImage);
+            for (int size = 0; size < ASTEROID_SIZES; size++) {
+                asteroids[size] = buildRotations(asteroidImage, MathUtils.round(getAsteroidSize(size)));
+            }
+        } finally {
+            if (data.disposePixmap()) page.dispose();
+        }
+    }
+
+    /**
+     * Builds the masks if the platform can read back the pixels of the atlas.
+     * @param configSet gives the sizes the sprites are drawn with
+     * @return the masks, null if they could not be built, then collisions only test the bounds
+     */
+    public static CollisionMasks build(ConfigSet configSet) {
+        try {
+            return new CollisionMasks(configSet);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("CollisionMasks", "pixel precise collisions are off, the atlas cannot be read", e);
+            return null;
+        }
+    }
+
+    private static CollisionMask[] buildRotations(CollisionMask image, int size) {
+        CollisionMask[] rotations = new CollisionMask[ASTEROID_ROTATIONS];
+        for (int i = 0; i < ASTEROID_ROTATIONS; i++) {
+            rotations[i] = CollisionMask.transform(image, size, size, i * 360f / ASTEROID_ROTATIONS);
+        }
+        return rotations;
+    }
+
+    private float getAsteroidSize(int size) {
+        return smallestAsteroid + (largestAsteroid - smallestAsteroid) * size / (ASTEROID_SIZES - 1);
+    }
+
+    /**
+     * @return the mask of the fighter, whatever power up is active
+     */
+    public CollisionMask getFighter() {
+        return fighter[0];
+    }
+
+    /**
+     * @return the mask of the alien, in an array of one like the asteroid rotations
+     */
+    public CollisionMask[] getAlien() {
+        return alien;
+    }
+
+    /**
+     * @param diameter the diameter of an asteroid
+     * @return the pre-rotated masks of the asteroid size class closest to the diameter
+     */
+    public CollisionMask[] getAsteroid(float diameter) {
+        int size = MathUtils.round((diameter - smallestAsteroid) / (largestAsteroid - smallestAsteroid) * (ASTEROID_SIZES - 1));
+        return asteroids[MathUtils.clamp(size, 0, ASTEROID_SIZES - 1)];
+    }
+}
@@ -0,0 +1,492 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * This system handles all collisions of entities with bounds, of the lasers in the LaserStores and of the fighter.
+ * By default the impacts of lasers are predicted by the ImpactScheduler and only the due ones are resolved here,
+ * if the prediction is switched off in the ConfigSet, every laser is tested in every tick instead.
+ * Which types can hit each other is defined by the collision masks of EntityType,
+ * the fighter hits asteroids, power ups, alien lasers and alien bullets.
+ * Mostly both objects are removed upon collision and a new explosion is created there.
+ * It also ends the game if the fighter collides with an asteroid or a laser.
+ * Once the shapes overlap, entities with CollisionMasks and the fighter are also tested pixel by pixel.
+ * By default a uniform grid is used as a broad phase, so that only nearby pairs are tested.
+ * The grid can be switched off in the ConfigSet to compare it with the brute force tests.
+ * Above the parallel threshold the lasers of a store are tested against the grid in chunks on the ParallelExecutor.
+ * The chunks only read, they collect the first hit of every laser, and the hits are resolved afterwards
+ * on the simulation thread in the order of the lasers, so sounds, explosions and score are the same as in the serial loop.
+ */
+public class CollisionSystem extends EntitySystem {
+    public static final int PRIORITY = 5;
+    private static final Family COLLIDERS = Family.all(BoundsComponent.class, TypeComponent.class).get();
+    private static final int FIGHTER_TARGETS = EntityType.ASTEROID.getBit() | EntityType.POWER_UP.getBit() | EntityType.ALIEN_LASER.getBit()
+            | EntityType.ALIEN_BULLET.getBit();
+
+    private final GameSimulation simulation;
+    private ImmutableArray<Entity> colliders;
+    /**
+     * the bits of all types which can be hit by another type or by the fighter, only these are put into the grid
+     */
+    private final int targetedTypes;
+    private final SpatialGrid<Entity> grid;
+    /**
+     * reusable buffer for the handles returned by grid queries
+     */
+    private final IntArray candidates = new IntArray();
+    /**
+     * reusable bounds of the laser which is currently tested
+     */
+    private final Rectangle laserBounds = new Rectangle();
+    private final LaserHitSearch laserHitSearch = new LaserHitSearch();
+    /**
+     * reusable buffer for the indices of the bullets which hit the fighter
+     */
+    private final IntArray bulletHits = new IntArray();
+
+    public CollisionSystem(GameSimulation simulation) {
+        super(PRIORITY);
+        this.simulation = simulation;
+        ConfigSet configSet = simulation.getConfigSet();
+        grid = new SpatialGrid<Entity>(configSet.getResolutionX(), configSet.getResolutionY(), configSet.getBroadPhaseCellSize());
+        int targets = FIGHTER_TARGETS;
+        for (EntityType type : EntityType.values()) {
+            targets |= type.getTargets();
+        }
+        targetedTypes = targets;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        colliders = engine.getEntitiesFor(COLLIDERS);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        simulation.getProfiler().begin(FrameProfiler.Phase.BROAD_PHASE);
+        updateBroadPhase();
+        simulation.getProfiler().end();
+        simulation.getProfiler().begin(FrameProfiler.Phase.COLLISIONS);
+        if (simulation.getConfigSet().isImpactPredictionEnabled()) {
+            handlePredictedImpacts();
+        } else {
+            handleLaserCollisions(simulation.getFighterLasers());
+            handleLaserCollisions(simulation.getAlienLasers());
+        }
+        handleEntityCollisions();
+        handleFighterCollisions();
+        simulation.getProfiler().end();
+    }
+
+    /**
+     * Rebuilds the broad phase grid from the current bounds of all entities which can be hit.
+     * Is called once per frame after all movement has happened and before the collision checks.
+     */
+    public void updateBroadPhase() {
+        if (!simulation.getConfigSet().isBroadPhaseEnabled()) return;
+
+        grid.clear();
+        for (int i = 0; i < colliders.size(); i++) {
+            Entity entity = colliders.get(i);
+            if ((Mappers.type.get(entity).type.getBit() & targetedTypes) == 0) continue;
+            BoundsComponent bounds = Mappers.bounds.get(entity);
+            grid.insert(entity, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+    }
+
+    /**
+     * Resolves the laser impacts which the ImpactScheduler predicted up to the current time, earliest first.
+     * The laser is used up and the target is hit, just as if the overlap had been found by handleLaserCollisions().
+     */
+    public void handlePredictedImpacts() {
+        ImpactScheduler scheduler = simulation.getImpactScheduler();
+        scheduler.predictNewLasers();
+        while (scheduler.nextImpact()) {
+            hitTarget(scheduler.getImpactTarget());
+            scheduler.getImpactLasers().remove(scheduler.getImpactSlot());
+        }
+    }
+
+    /**
+     * Checks the lasers of a store against the entities their type hits, e.g. fighter lasers against asteroids and aliens.
+     * A laser is used up by its first hit.
+     * @param lasers the store
+     */
+    public void handleLaserCollisions(LaserStore lasers) {
+        int targets = lasers.getType().getTargets();
+        if (targets == 0) return;
+        boolean useGrid = simulation.getConfigSet().isBroadPhaseEnabled();
+        ParallelExecutor executor = useGrid ? simulation.getParallelExecutor(lasers.size()) : null;
+        if (executor != null) {
+            handleLaserCollisionsInParallel(lasers, targets, executor);
+            return;
+        }
+        for (int n = 0; n < lasers.getSpan(); n++) {
+            int slot = lasers.getSlot(n);
+            if (lasers.isAlive(slot)) {
+                handleLaserCollision(lasers, slot, targets, useGrid);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method for handleLaserCollisions(), lets one laser hit the first entity it overlaps.
+     */
+    private void handleLaserCollision(LaserStore lasers, int slot, int targets, boolean useGrid) {
+        Rectangle bounds = lasers.getBounds(slot, laserBounds);
+        if (useGrid) {
+            grid.query(bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, candidates);
+            for (int c = 0; c < candidates.size; c++) {
+                Entity target = grid.get(candidates.get(c));
+                if (hits(bounds, targets, target)) {
+                    hitTarget(target);
+                    lasers.remove(slot);
+                    return;
+                }
+            }
+        } else {
+            for (int c = 0; c < colliders.size(); c++) {
+                Entity target = colliders.get(c);
+                if (hits(bounds, targets, target)) {
+                    hitTarget(target);
+                    lasers.remove(slot);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method for handleLaserCollisions(), searches the hits in chunks and resolves them in the order of the lasers.
+     * If an older laser has already destroyed the target a laser found, the laser is tested again on this thread,
+     * exactly like the serial loop would, so it may still hit something else.
+     */
+    private void handleLaserCollisionsInParallel(LaserStore lasers, int targets, ParallelExecutor executor) {
+        laserHitSearch.prepare(lasers, targets, executor.getParallelism());
+        executor.invokeAll(laserHitSearch.chunkCount, laserHitSearch);
+        for (int chunk = 0; chunk < laserHitSearch.chunkCount; chunk++) {
+            IntArray hitSlots = laserHitSearch.hitSlots[chunk];
+            IntArray hitHandles = laserHitSearch.hitHandles[chunk];
+            for (int i = 0; i < hitSlots.size; i++) {
+                int slot = hitSlots.get(i);
+                Entity target = grid.get(hitHandles.get(i));
+                if (!target.isScheduledForRemoval()) {
+                    hitTarget(target);
+                    lasers.remove(slot);
+                } else {
+                    handleLaserCollision(lasers, slot, targets, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks every entity whose type hits other types against the entities of those types.
+     * An entity which is removed by its first hit does not hit anything else,
+     * and entities which were already removed in this frame are skipped.
+     */
+    public void handleEntityCollisions() {
+        boolean useGrid = simulation.getConfigSet().isBroadPhaseEnabled();
+        for (int i = 0; i < colliders.size(); i++) {
+            Entity entity = colliders.get(i);
+            int targets = Mappers.type.get(entity).type.getTargets();
+            if (targets == 0 || entity.isScheduledForRemoval()) continue;
+            BoundsComponent bounds = Mappers.bounds.get(entity);
+
+            if (useGrid) {
+                grid.query(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(), candidates);
+                for (int c = 0; c < candidates.size && !entity.isScheduledForRemoval(); c++) {
+                    Entity target = grid.get(candidates.get(c));
+                    if (hits(entity, bounds, targets, target)) resolve(entity, target);
+                }
+            } else {
+                for (int c = 0; c < colliders.size() && !entity.isScheduledForRemoval(); c++) {
+                    Entity target = colliders.get(c);
+                    if (hits(entity, bounds, targets, target)) resolve(entity, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an asteroid, power up or alien laser hits the fighter.
+     */
+    public void handleFighterCollisions() {
+        if (simulation.isGameOver()) return;
+        Rectangle fighter = simulation.getFighter();
+
+        if (simulation.getConfigSet().isBroadPhaseEnabled()) {
+            grid.query(fighter.x, fighter.y, fighter.x + fighter.width, fighter.y + fighter.height, candidates);
+            for (int c = 0; c < candidates.size && simulation.getFighter() != null; c++) {
+                Entity target = grid.get(candidates.get(c));
+                if (hitsFighter(fighter, target)) resolveFighter(target);
+            }
+        } else {
+            for (int c = 0; c < colliders.size() && simulation.getFighter() != null; c++) {
+                Entity target = colliders.get(c);
+                if (hitsFighter(fighter, target)) resolveFighter(target);
+            }
+        }
+        handleFighterLaserHits(fighter, simulation.getFighterLasers());
+        handleFighterLaserHits(fighter, simulation.getAlienLasers());
+        handleFighterBulletHits(fighter, simulation.getAlienBullets());
+    }
+
+    /**
+     * Auxiliary method for handleFighterCollisions(), removes the lasers of a store which hit the fighter.
+     * There are only a few lasers near the fighter, so all lasers are tested directly.
+     */
+    private void handleFighterLaserHits(Rectangle fighter, LaserStore lasers) {
+        if ((lasers.getType().getBit() & FIGHTER_TARGETS) == 0) return;
+        for (int n = 0; n < lasers.getSpan() && simulation.getFighter() != null; n++) {
+            int slot = lasers.getSlot(n);
+            if (!lasers.isAlive(slot)) continue;
+            Rectangle laser = lasers.getBounds(slot, laserBounds);
+            if (laser.overlaps(fighter) && fighterMaskOverlaps(fighter, laser)) {
+                destroyFighter();
+                lasers.remove(slot);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, tests if an entity with the given bounds and targets hits another entity.
+     */
+    private boolean hits(Entity entity, BoundsComponent bounds, int targets, Entity target) {
+        if (target.isScheduledForRemoval()) return false;
+        if ((Mappers.type.get(target).type.getBit() & targets) == 0) return false;
+        BoundsComponent targetBounds = Mappers.bounds.get(target);
+        return bounds.overlaps(targetBounds)
+                && bounds.masksOverlap(Mappers.position.get(entity).rotation, targetBounds, Mappers.position.get(target).rotation);
+    }
+
+    /**
+     * Auxiliary method, tests if a laser with the given bounds and targets hits an entity.
+     */
+    private boolean hits(Rectangle bounds, int targets, Entity target) {
+        if (target.isScheduledForRemoval()) return false;
+        if ((Mappers.type.get(target).type.getBit() & targets) == 0) return false;
+        BoundsComponent targetBounds = Mappers.bounds.get(target);
+        return targetBounds.overlaps(bounds) && targetBounds.masksOverlap(Mappers.position.get(target).rotation, null, bounds);
+    }
+
+    /**
+     * Auxiliary method, tests if the fighter hits an entity.
+     */
+    private boolean hitsFighter(Rectangle fighter, Entity target) {
+        if (target.isScheduledForRemoval()) return false;
+        if ((Mappers.type.get(target).type.getBit() & FIGHTER_TARGETS) == 0) return false;
+        BoundsComponent targetBounds = Mappers.bounds.get(target);
+        return targetBounds.overlaps(fighter) && targetBounds.masksOverlap(Mappers.position.get(target).rotation, getFighterMask(), fighter);
+    }
+
+    /**
+     * Auxiliary method for handleFighterCollisions(), removes the bullets of a store which hit the fighter.
+     * The store only gives the exact circle test to bullets near the fighter, see BulletStore.findHits(),
+     * and the hits are then tested against the mask of the fighter with the bounding box of the bullet.
+     */
+    private void handleFighterBulletHits(Rectangle fighter, BulletStore bullets) {
+        if ((bullets.getType().getBit() & FIGHTER_TARGETS) == 0 || simulation.getFighter() == null) return;
+        bullets.findHits(fighter, bulletHits);
+        // the indices are in descending order, so removing one does not move the others
+        for (int i = 0; i < bulletHits.size && simulation.getFighter() != null; i++) {
+            int bullet = bulletHits.get(i);
+            if (fighterMaskOverlaps(fighter, bullets.getBounds(bullet, laserBounds))) {
+                destroyFighter();
+                bullets.remove(bullet);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, tests the mask of the fighter against a rectangle which overlaps the fighter, e.g. a laser.
+     */
+    private boolean fighterMaskOverlaps(Rectangle fighter, Rectangle other) {
+        return CollisionMask.overlaps(getFighterMask(), fighter.x, fighter.y, fighter.x + fighter.width, fighter.y + fighter.height,
+                null, other.x, other.y, other.x + other.width, other.y + other.height);
+    }
+
+    /**
+     * Auxiliary method, returns the mask of the fighter, null if there are no CollisionMasks.
+     */
+    private CollisionMask getFighterMask() {
+        CollisionMasks masks = simulation.getCollisionMasks();
+        return masks == null ? null : masks.getFighter();
+    }
+
+    /**
+     * Decides what happens when an entity hits another entity. The entity which hit is used up.
+     * @param entity the entity which hit
+     * @param target the entity which was hit
+     */
+    private void resolve(Entity entity, Entity target) {
+        hitTarget(target);
+        getEngine().removeEntity(entity);
+    }
+
+    /**
+     * Decides what happens to an entity which was hit by a laser or another entity.
+     * Aliens of tougher waves take several hits, see AlienFleet.hit().
+     * @param target the entity which was hit
+     */
+    private void hitTarget(Entity target) {
+        switch (Mappers.type.get(target).type) {
+            case ASTEROID:
+                asteroidDestroyed(target);
+                break;
+            case ALIEN:
+                if (simulation.getAlienFleet().hit(target)) alienDestroyed(target);
+                break;
+            default:
+                getEngine().removeEntity(target);
+                break;
+        }
+    }
+
+    /**
+     * Decides what happens when the fighter hits an entity.
+     * @param target the entity which was hit
+     */
+    private void resolveFighter(Entity target) {
+        switch (Mappers.type.get(target).type) {
+            case ASTEROID:
+                destroyFighter();
+                break;
+            case POWER_UP:
+                simulation.getPowerUpSystem().activatePowerUp(target);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Finds the first entity each laser of one chunk overlaps, without changing anything but its own buffers.
+     * Every chunk has its own grid cursor, candidate buffer and bounds, so the chunks can run at the same time.
+     */
+    private class LaserHitSearch implements ParallelExecutor.ChunkTask {
+        private LaserStore lasers;
+        private int targets;
+        private int chunkCount;
+        /**
+         * the slots of the lasers which hit something and the grid handles of what they hit, per chunk
+         */
+        private IntArray[] hitSlots = new IntArray[0];
+        private IntArray[] hitHandles = new IntArray[0];
+        private IntArray[] chunkCandidates = new IntArray[0];
+        private SpatialGrid.Cursor[] cursors = new SpatialGrid.Cursor[0];
+        private Rectangle[] bounds = new Rectangle[0];
+
+        private void prepare(LaserStore lasers, int targets, int chunkCount) {
+            this.lasers = lasers;
+            this.targets = targets;
+            this.chunkCount = chunkCount;
+            if (hitSlots.length < chunkCount) {
+                hitSlots = new IntArray[chunkCount];
+                hitHandles = new IntArray[chunkCount];
+                chunkCandidates = new IntArray[chunkCount];
+                cursors = new SpatialGrid.Cursor[chunkCount];
+                bounds = new Rectangle[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    hitSlots[i] = new IntArray();
+                    hitHandles[i] = new IntArray();
+                    chunkCandidates[i] = new IntArray();
+                    cursors[i] = new SpatialGrid.Cursor();
+                    bounds[i] = new Rectangle();
+                }
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                hitSlots[i].clear();
+                hitHandles[i].clear();
+            }
+        }
+
+        @Override
+        public void run(int chunk) {
+            IntArray found = chunkCandidates[chunk];
+            int span = lasers.getSpan();
+            int last = ParallelExecutor.chunkStart(span, chunk + 1, chunkCount);
+            for (int n = ParallelExecutor.chunkStart(span, chunk, chunkCount); n < last; n++) {
+                int slot = lasers.getSlot(n);
+                if (!lasers.isAlive(slot)) continue;
+                Rectangle laser = lasers.getBounds(slot, bounds[chunk]);
+                grid.query(laser.x, laser.y, laser.x + laser.width, laser.y + laser.height, found, cursors[chunk]);
+                for (int c = 0; c < found.size; c++) {
+                    if (hits(laser, targets, grid.get(found.get(c)))) {
+                        hitSlots[chunk].add(slot);
+                        hitHandles[chunk].add(found.get(c));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method.
+     * This method is called when a laser hits an asteroid.
+     * It plays an explosion sound and creates an explosion where the asteroid was.
+     * A large asteroid splits into fragments, see SpawnSystem.spawnFragments().
+     * The asteroid is removed.
+     *
+     * @param asteroid the asteroid which has just been hit
+     */
+    private void asteroidDestroyed(Entity asteroid) {
+        simulation.playSound(AssetSet.asteroidExplosion, SoundMixer.Category.EXPLOSION, simulation.getConfigSet().getVolume());
+        BoundsComponent bounds = Mappers.bounds.get(asteroid);
+        float x = bounds.circle.x;
+        float y = bounds.circle.y;
+        simulation.getExplosions().explode(Explosions.Kind.ASTEROID, x, y, bounds.circle.radius * 2);
+        simulation.getSpawnSystem().spawnFragments(asteroid);
+
+        simulation.getSpawnSystem().attemptPowerUpSpawn(x, y);
+
+        getEngine().removeEntity(asteroid);
+    }
+
+    /**
+     * Auxiliary method.
+     * This method is called when a laser hits an alien ship which has no health left.
+     * It plays an explosion sound, increases difficulty (when score is low) and creates an explosion.
+     * The AlienFleet notices the removal and sends the next wave once the last alien is gone.
+     *
+     * @param alien the alien ship which has just been hit
+     */
+    private void alienDestroyed(Entity alien) {
+        simulation.setScore(simulation.getScore() + 1);
+
+        // don't change difficulty after score of 14
+        if (simulation.getScore() <= 14) {
+            simulation.getConfigSet().increaseDifficulty();
+        }
+
+        simulation.playSound(AssetSet.alienExplosion, SoundMixer.Category.EXPLOSION, simulation.getConfigSet().getVolume());
+        Rectangle bounds = Mappers.bounds.get(alien).rectangle;
+        simulation.getExplosions().explode(Explosions.Kind.ALIEN, bounds.x + bounds.width / 2, bounds.y + bounds.height / 2,
+                Math.max(bounds.width, bounds.height));
+        getEngine().removeEntity(alien);
+    }
+
+    /**
+     * Auxiliary method.
+     * This method is called when the fighter is hit by an asteroid or a laser.
+     * It plays an explosion sound and creates a large explosion whose particles last until the round is over.
+     */
+    private void destroyFighter() {
+        if (simulation.getConfigSet().isGodMode() == false) {
+            simulation.setGameOver(true);
+            simulation.setExitTime(simulation.getClock().millis() + simulation.getConfigSet().getWaitAfterDeath());
+            simulation.playSound(AssetSet.fighterExplosion, SoundMixer.Category.FIGHTER_EXPLOSION, simulation.getConfigSet().getVolume() * 3);
+            Rectangle fighter = simulation.getFighter();
+            simulation.getExplosions().explode(Explosions.Kind.FIGHTER, fighter.x + fighter.width / 2, fighter.y + fighter.height / 2, 256);
+            simulation.setFighter(null);
+            simulation.getConfigSet().resetDifficulty();
+        }
+    }
+}
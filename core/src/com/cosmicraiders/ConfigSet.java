@@ -9,6 +9,7 @@ public class ConfigSet {
 
     // general game settings
     private float volume = 0.05f;
+    private int soundVoiceLimit = 8; // sound effects which can play at the same time, see SoundMixer
     private int waitAfterDeath = 4000;
     private boolean godMode = false;
 
@@ -19,32 +20,62 @@ public class ConfigSet {
     private int padding = resolutionX / 100;
     private CRColor backgroundColor = new CRColor(0, 0, 0);
 
+    // star layers, from back to front
+    private int[] starLayerTileSizes = {512, 700}; // how large one tile of the star texture is drawn
+    private float[] starLayerSpeedFactors = {0.4f, 0.5f}; // scroll speed relative to the asteroid speed
+
     // fighter
     private int fighterSize = 120;
     private int fighterSpeed = 1200;
     private int fighterLaserSize = 80;
     private int fighterLaserSpeed = 800;
     private double fighterShotsPerSecond = 1.5; // Godmode: 4
+    private int fighterRocketSize = 60; // the length of a homing rocket, it is a fifth as wide
+    private int fighterRocketSpeed = 700;
+    private int fighterRocketTurnRate = 240; // degrees per second
+    private int fighterRocketLifetime = 4000; // rockets which circle without hitting anything are removed after this time
+    private double fighterRocketsPerSecond = 1;
 
     // aliens
     private int alienSize = 80;
     private int alienSpeed = 200; // changing difficulty (Godmode: 3)
     private int alienLaserSize = 80;
     private int alienLaserSpeed = 800;
+    private int alienBulletSize = 16; // the diameter of the round bullets of the BulletPatterns
+    private int alienBulletSpeed = 400; // the speed factors of the BulletPatterns are relative to this
     private double alienShotsPerSecond = 0.5; // describes how many times per second the alien ship shoots (Godmode: 2)
     private int alienChangeDirectionTimeMinimum = 3000;
     private int alienChangeDirectionTimeMaximum = 10000;
-    private int alienRespawnDelay = 2000;
+    private int alienRespawnDelay = 2000; // the pause between the last alien of a wave being destroyed and the next wave
+    private WaveDefinition[] waves = {WaveDefinition.SINGLE}; // the alien waves in the order they are sent, read from waves.json
 
     // asteroids
     private int asteroidDiameter = 100;
     private int asteroidSpeed = 100; // changing difficulty (Godmode: 1)
     private int asteroidSpawnDelay = 1000;
+    private int asteroidFragmentCount = 3; // how many fragments an asteroid splits into, together they have its area
+    private int asteroidFragmentMinimumDiameter = 40; // smaller fragments are not created, the asteroid just explodes
+    private int asteroidFragmentSpeed = 150; // how fast fragments fly apart, on top of the velocity of the asteroid
+
+    // entity budgets, the pools of the engine are filled up to them so reaching them never allocates
+    private int asteroidBudget = 96; // asteroids and fragments together, over it fragments are merged or skipped
+
+    // explosion particles
+    private int particleBudget = 2048; // live particles of all explosions together, new explosions get fewer as it fills up
+    private int particleFrameBudget = 20; // milliseconds, while frames take longer new explosions get fewer particles
 
     // power ups
     private int powerUpSpeed = 100;
     private float powerUpDiameter = 100;
 
+    // performance
+    private boolean broadPhaseEnabled = true; // false: brute force collision tests (Godmode: 5)
+    private int broadPhaseCellSize = 128;
+    private int simulationTickRate = 60; // simulation ticks per second, independent of the frame rate
+    private int maxTicksPerFrame = 5; // more ticks are dropped after a long frame, so a slow device does not fall behind
+    private int parallelThreshold = 4096; // loops over more entities or lasers are split across the ParallelExecutor, if there is one
+    private boolean impactPredictionEnabled = true; // false: lasers are tested against their targets in every tick (Godmode: 6)
+
     /**
      * Increase game difficulty by changing values.
      */
@@ -164,6 +195,14 @@ public class ConfigSet {
         this.volume = volume;
     }
 
+    public int getSoundVoiceLimit() {
+        return soundVoiceLimit;
+    }
+
+    public void setSoundVoiceLimit(int soundVoiceLimit) {
+        this.soundVoiceLimit = soundVoiceLimit;
+    }
+
     public int getWaitAfterDeath() {
         return waitAfterDeath;
     }
@@ -236,6 +275,46 @@ public class ConfigSet {
         this.fighterLaserSpeed = fighterLaserSpeed;
     }
 
+    public int getFighterRocketSize() {
+        return fighterRocketSize;
+    }
+
+    public void setFighterRocketSize(int fighterRocketSize) {
+        this.fighterRocketSize = fighterRocketSize;
+    }
+
+    public int getFighterRocketSpeed() {
+        return fighterRocketSpeed;
+    }
+
+    public void setFighterRocketSpeed(int fighterRocketSpeed) {
+        this.fighterRocketSpeed = fighterRocketSpeed;
+    }
+
+    public int getFighterRocketTurnRate() {
+        return fighterRocketTurnRate;
+    }
+
+    public void setFighterRocketTurnRate(int fighterRocketTurnRate) {
+        this.fighterRocketTurnRate = fighterRocketTurnRate;
+    }
+
+    public int getFighterRocketLifetime() {
+        return fighterRocketLifetime;
+    }
+
+    public void setFighterRocketLifetime(int fighterRocketLifetime) {
+        this.fighterRocketLifetime = fighterRocketLifetime;
+    }
+
+    public double getFighterRocketsPerSecond() {
+        return fighterRocketsPerSecond;
+    }
+
+    public void setFighterRocketsPerSecond(double fighterRocketsPerSecond) {
+        this.fighterRocketsPerSecond = fighterRocketsPerSecond;
+    }
+
     public double getFighterShotsPerSecond() {
         return fighterShotsPerSecond;
     }
@@ -276,6 +355,22 @@ public class ConfigSet {
         this.alienLaserSpeed = alienLaserSpeed;
     }
 
+    public int getAlienBulletSize() {
+        return alienBulletSize;
+    }
+
+    public void setAlienBulletSize(int alienBulletSize) {
+        this.alienBulletSize = alienBulletSize;
+    }
+
+    public int getAlienBulletSpeed() {
+        return alienBulletSpeed;
+    }
+
+    public void setAlienBulletSpeed(int alienBulletSpeed) {
+        this.alienBulletSpeed = alienBulletSpeed;
+    }
+
     public double getAlienShotsPerSecond() {
         return alienShotsPerSecond;
     }
@@ -324,6 +419,14 @@ public class ConfigSet {
         return alienRespawnDelay;
     }
 
+    public WaveDefinition[] getWaves() {
+        return waves;
+    }
+
+    public void setWaves(WaveDefinition[] waves) {
+        this.waves = waves;
+    }
+
     public int getAsteroidSpawnDelay() {
         return asteroidSpawnDelay;
     }
@@ -332,6 +435,54 @@ public class ConfigSet {
         this.asteroidSpawnDelay = asteroidSpawnDelay;
     }
 
+    public int getAsteroidFragmentCount() {
+        return asteroidFragmentCount;
+    }
+
+    public void setAsteroidFragmentCount(int asteroidFragmentCount) {
+        this.asteroidFragmentCount = asteroidFragmentCount;
+    }
+
+    public int getAsteroidFragmentMinimumDiameter() {
+        return asteroidFragmentMinimumDiameter;
+    }
+
+    public void setAsteroidFragmentMinimumDiameter(int asteroidFragmentMinimumDiameter) {
+        this.asteroidFragmentMinimumDiameter = asteroidFragmentMinimumDiameter;
+    }
+
+    public int getAsteroidFragmentSpeed() {
+        return asteroidFragmentSpeed;
+    }
+
+    public void setAsteroidFragmentSpeed(int asteroidFragmentSpeed) {
+        this.asteroidFragmentSpeed = asteroidFragmentSpeed;
+    }
+
+    public int getAsteroidBudget() {
+        return asteroidBudget;
+    }
+
+    public void setAsteroidBudget(int asteroidBudget) {
+        this.asteroidBudget = asteroidBudget;
+    }
+
+    public int getParticleBudget() {
+        return particleBudget;
+    }
+
+    public void setParticleBudget(int particleBudget) {
+        this.particleBudget = particleBudget;
+    }
+
+    public int getParticleFrameBudget() {
+        return particleFrameBudget;
+    }
+
+    public void setParticleFrameBudget(int particleFrameBudget) {
+        this.particleFrameBudget = particleFrameBudget;
+    }
+
     public int getPowerUpSpeed() {
         return powerUpSpeed;
     }
@@ -347,4 +498,68 @@ public class ConfigSet {
     public void setBackgroundColor(CRColor backgroundColor) {
         this.backgroundColor = backgroundColor;
     }
+
+    public boolean isBroadPhaseEnabled() {
+        return broadPhaseEnabled;
+    }
+
+    public void setBroadPhaseEnabled(boolean broadPhaseEnabled) {
+        this.broadPhaseEnabled = broadPhaseEnabled;
+    }
+
+    public int getBroadPhaseCellSize() {
+        return broadPhaseCellSize;
+    }
+
+    public void setBroadPhaseCellSize(int broadPhaseCellSize) {
+        this.broadPhaseCellSize = broadPhaseCellSize;
+    }
+
+    public int[] getStarLayerTileSizes() {
+        return starLayerTileSizes;
+    }
+
+    public void setStarLayerTileSizes(int[] starLayerTileSizes) {
+        this.starLayerTileSizes = starLayerTileSizes;
+    }
+
+    public float[] getStarLayerSpeedFactors() {
+        return starLayerSpeedFactors;
+    }
+
+    public void setStarLayerSpeedFactors(float[] starLayerSpeedFactors) {
+        this.starLayerSpeedFactors = starLayerSpeedFactors;
+    }
+
+    public int getSimulationTickRate() {
+        return simulationTickRate;
+    }
+
+    public void setSimulationTickRate(int simulationTickRate) {
+        this.simulationTickRate = simulationTickRate;
+    }
+
+    public int getMaxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+
+    public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    public boolean isImpactPredictionEnabled() {
+        return impactPredictionEnabled;
+    }
+
+    public void setImpactPredictionEnabled(boolean impactPredictionEnabled) {
+        this.impactPredictionEnabled = impactPredictionEnabled;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
 }
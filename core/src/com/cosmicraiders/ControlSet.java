@@ -1,26 +1,41 @@
 package com.cosmicraiders;
 
-import com.badlogic.gdx.Gdx;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * This class manages the movement inputs for the fighter (player avatar).
  * It also restarts the game if the fighter has exploded.
  * It is currently implemented in a static way, since there is only one fighter.
+ * It runs as a system of the engine, after the movement of all other objects.
  */
-public class ControlSet {
+public class ControlSet extends EntitySystem {
+    public static final int PRIORITY = 3;
 
-    private final GameScreen gameScreen;
-    private long lastGodModeInputTime = TimeUtils.millis();
+    private final GameSimulation simulation;
+    private long lastGodModeInputTime;
 
     /**
-     * This constructor gets a reference to the GameScreen instance.
+     * This constructor gets a reference to the GameSimulation instance.
      */
-    public ControlSet(GameScreen gameScreen) {
-        this.gameScreen = gameScreen;
+    public ControlSet(GameSimulation simulation) {
+        super(PRIORITY);
+        this.simulation = simulation;
+    }
+
+    /**
+     * Prepares the godmode input timer for a new round.
+     */
+    public void reset() {
+        this.lastGodModeInputTime = simulation.getClock().millis();
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        simulation.getProfiler().begin(FrameProfiler.Phase.CONTROLS);
+        handleControls();
+        simulation.getProfiler().end();
     }
 
     /**
@@ -29,36 +44,37 @@ public class ControlSet {
      * Allows UP DOWN LEFT RIGHT inputs.
      * Allows mouse inputs.
      * Allows touch inputs.
-     * Uses the fighter object from gamescreen and the fighterSpeed attribute from Config.
+     * Uses the fighter object from the simulation and the fighterSpeed attribute from Config.
      */
     public void handleFighterControls() {
-        int speed = gameScreen.getConfigSet().getFighterSpeed();
-        Rectangle fighter = gameScreen.getFighter();
+        int speed = simulation.getConfigSet().getFighterSpeed();
+        Rectangle fighter = simulation.getFighter();
+        simulation.saveFighterPosition();
 
         // left right movement
-        if(Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT) || isTouchLeftOfShip()) {
-            fighter.x -= speed * Gdx.graphics.getDeltaTime();
+        if(simulation.getInput().isKeyPressed(Input.Keys.A) || simulation.getInput().isKeyPressed(Input.Keys.LEFT) || isTouchLeftOfShip()) {
+            fighter.x -= speed * simulation.getClock().getDeltaTime();
         }
-        if(Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT) || isTouchRightOfShip()) {
-            fighter.x += speed * Gdx.graphics.getDeltaTime();
+        if(simulation.getInput().isKeyPressed(Input.Keys.D) || simulation.getInput().isKeyPressed(Input.Keys.RIGHT) || isTouchRightOfShip()) {
+            fighter.x += speed * simulation.getClock().getDeltaTime();
         }
 
         // up down movement
-        if(Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN) || isTouchBelowShip()) {
-            fighter.y -= speed * Gdx.graphics.getDeltaTime();
+        if(simulation.getInput().isKeyPressed(Input.Keys.S) || simulation.getInput().isKeyPressed(Input.Keys.DOWN) || isTouchBelowShip()) {
+            fighter.y -= speed * simulation.getClock().getDeltaTime();
         }
-        if(Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP) || isTouchAboveShip()) {
-            fighter.y += speed * Gdx.graphics.getDeltaTime();
+        if(simulation.getInput().isKeyPressed(Input.Keys.W) || simulation.getInput().isKeyPressed(Input.Keys.UP) || isTouchAboveShip()) {
+            fighter.y += speed * simulation.getClock().getDeltaTime();
         }
 
         // setting movement boundaries
         if(fighter.x < 0) fighter.x = 0;
-        if(fighter.x > gameScreen.getConfigSet().getResolutionX() - gameScreen.getConfigSet().getFighterSize())
-            fighter.x = gameScreen.getConfigSet().getResolutionX() - gameScreen.getConfigSet().getFighterSize();
+        if(fighter.x > simulation.getConfigSet().getResolutionX() - simulation.getConfigSet().getFighterSize())
+            fighter.x = simulation.getConfigSet().getResolutionX() - simulation.getConfigSet().getFighterSize();
 
         // setting movement boundaries
         if(fighter.y < 0) fighter.y = 0;
-        if(fighter.y > gameScreen.getConfigSet().getResolutionY() *3/4 - gameScreen.getConfigSet().getFighterSize()) fighter.y = gameScreen.getConfigSet().getResolutionY() *3/4 - gameScreen.getConfigSet().getFighterSize();
+        if(fighter.y > simulation.getConfigSet().getResolutionY() *3/4 - simulation.getConfigSet().getFighterSize()) fighter.y = simulation.getConfigSet().getResolutionY() *3/4 - simulation.getConfigSet().getFighterSize();
     }
 
     /**
@@ -66,11 +82,8 @@ public class ControlSet {
      * @return boolean true if left
      */
     private boolean isTouchLeftOfShip() {
-        if(Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3();
-            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-            gameScreen.getCamera().unproject(touchPos);
-            return touchPos.x < gameScreen.getFighter().x + gameScreen.getFighter().width / 2;
+        if(simulation.getInput().isTouched()) {
+            return simulation.getInput().getTouchX() < simulation.getFighter().x + simulation.getFighter().width / 2;
         } else {
             return false;
         }
@@ -81,11 +94,8 @@ public class ControlSet {
      * @return boolean true if right
      */
     private boolean isTouchRightOfShip() {
-        if(Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3();
-            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-            gameScreen.getCamera().unproject(touchPos);
-            return touchPos.x > gameScreen.getFighter().x + gameScreen.getFighter().width / 2;
+        if(simulation.getInput().isTouched()) {
+            return simulation.getInput().getTouchX() > simulation.getFighter().x + simulation.getFighter().width / 2;
         } else {
             return false;
         }
@@ -96,11 +106,8 @@ public class ControlSet {
      * @return boolean true if above
      */
     private boolean isTouchAboveShip() {
-        if(Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3();
-            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-            gameScreen.getCamera().unproject(touchPos);
-            return touchPos.y > gameScreen.getFighter().y + gameScreen.getFighter().height / 2;
+        if(simulation.getInput().isTouched()) {
+            return simulation.getInput().getTouchY() > simulation.getFighter().y + simulation.getFighter().height / 2;
         } else {
             return false;
         }
@@ -111,11 +118,8 @@ public class ControlSet {
      * @return boolean true if below
      */
     private boolean isTouchBelowShip() {
-        if(Gdx.input.isTouched()) {
-            Vector3 touchPos = new Vector3();
-            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-            gameScreen.getCamera().unproject(touchPos);
-            return touchPos.y < gameScreen.getFighter().y + gameScreen.getFighter().height / 2;
+        if(simulation.getInput().isTouched()) {
+            return simulation.getInput().getTouchY() < simulation.getFighter().y + simulation.getFighter().height / 2;
         } else {
             return false;
         }
@@ -125,10 +129,11 @@ public class ControlSet {
      * This method handles all inputs from the player and calls the required methods.
      */
     public void handleControls() {
-        if (!gameScreen.isGameOver()) {
+        if (!simulation.isGameOver()) {
             handleGodmodeControls();
             handleFighterControls();
-            gameScreen.getSpawner().spawnFighterLaser();
+            simulation.getSpawnSystem().spawnFighterLaser();
+            simulation.getSpawnSystem().spawnFighterRocket();
         }
     }
 
@@ -136,55 +141,72 @@ public class ControlSet {
      * This is for developers and cheaters. It allows invulnerability and difficulty changes.
      */
     private void handleGodmodeControls() {
-        if (TimeUtils.millis() > lastGodModeInputTime + 200) {
-            if (Gdx.input.isKeyPressed(Input.Keys.O)) {
-                gameScreen.getConfigSet().setGodMode(!gameScreen.getConfigSet().isGodMode());
-                lastGodModeInputTime = TimeUtils.millis();
+        if (simulation.getClock().millis() > lastGodModeInputTime + 200) {
+            if (simulation.getInput().isKeyPressed(Input.Keys.O)) {
+                simulation.getConfigSet().setGodMode(!simulation.getConfigSet().isGodMode());
+                lastGodModeInputTime = simulation.getClock().millis();
             }
-            if (gameScreen.getConfigSet().isGodMode()) {
+            if (simulation.getConfigSet().isGodMode()) {
                 handleAsteroidControls();
                 handleAlienControls();
                 handleFighterGodmodeControls();
+                handlePerformanceControls();
             }
         }
     }
 
     private void handleAlienControls() {
-        if (Gdx.input.isKeyPressed(Input.Keys.NUM_2) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
-            gameScreen.getConfigSet().decreaseAlienSpeed();
-            lastGodModeInputTime = TimeUtils.millis();
-        } else if (Gdx.input.isKeyPressed(Input.Keys.NUM_2)) {
-            gameScreen.getConfigSet().increaseAlienSpeed();
-            lastGodModeInputTime = TimeUtils.millis();
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_2) && simulation.getInput().isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            simulation.getConfigSet().decreaseAlienSpeed();
+            lastGodModeInputTime = simulation.getClock().millis();
+        } else if (simulation.getInput().isKeyPressed(Input.Keys.NUM_2)) {
+            simulation.getConfigSet().increaseAlienSpeed();
+            lastGodModeInputTime = simulation.getClock().millis();
         }
 
-        if (Gdx.input.isKeyPressed(Input.Keys.NUM_3) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
-            gameScreen.getConfigSet().decreaseAlienRateOfFire();
-            lastGodModeInputTime = TimeUtils.millis();
-        } else if (Gdx.input.isKeyPressed(Input.Keys.NUM_3)) {
-            gameScreen.getConfigSet().increaseAlienRateOfFire();
-            lastGodModeInputTime = TimeUtils.millis();
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_3) && simulation.getInput().isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            simulation.getConfigSet().decreaseAlienRateOfFire();
+            lastGodModeInputTime = simulation.getClock().millis();
+        } else if (simulation.getInput().isKeyPressed(Input.Keys.NUM_3)) {
+            simulation.getConfigSet().increaseAlienRateOfFire();
+            lastGodModeInputTime = simulation.getClock().millis();
         }
     }
 
     private void handleAsteroidControls() {
-        if (Gdx.input.isKeyPressed(Input.Keys.NUM_1) && !Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
-            gameScreen.getConfigSet().increaseAsteroidSpeed();
-            lastGodModeInputTime = TimeUtils.millis();
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_1) && !simulation.getInput().isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            simulation.getConfigSet().increaseAsteroidSpeed();
+            lastGodModeInputTime = simulation.getClock().millis();
         }
-        else if (Gdx.input.isKeyPressed(Input.Keys.NUM_1) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
-            gameScreen.getConfigSet().decreaseAsteroidSpeed();
-            lastGodModeInputTime = TimeUtils.millis();
+        else if (simulation.getInput().isKeyPressed(Input.Keys.NUM_1) && simulation.getInput().isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            simulation.getConfigSet().decreaseAsteroidSpeed();
+            lastGodModeInputTime = simulation.getClock().millis();
         }
     }
 
     private void handleFighterGodmodeControls() {
-        if (Gdx.input.isKeyPressed(Input.Keys.NUM_4) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
-            gameScreen.getConfigSet().decreaseFighterShotsPerSecond();
-            lastGodModeInputTime = TimeUtils.millis();
-        } else if (Gdx.input.isKeyPressed(Input.Keys.NUM_4)) {
-            gameScreen.getConfigSet().increaseFighterShotsPerSecond();
-            lastGodModeInputTime = TimeUtils.millis();
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_4) && simulation.getInput().isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            simulation.getConfigSet().decreaseFighterShotsPerSecond();
+            lastGodModeInputTime = simulation.getClock().millis();
+        } else if (simulation.getInput().isKeyPressed(Input.Keys.NUM_4)) {
+            simulation.getConfigSet().increaseFighterShotsPerSecond();
+            lastGodModeInputTime = simulation.getClock().millis();
+        }
+    }
+
+    /**
+     * Switches the collision broad phase on and off to compare it with brute force collision tests,
+     * and the impact prediction of lasers to compare it with testing every laser in every tick.
+     */
+    private void handlePerformanceControls() {
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_5)) {
+            simulation.getConfigSet().setBroadPhaseEnabled(!simulation.getConfigSet().isBroadPhaseEnabled());
+            lastGodModeInputTime = simulation.getClock().millis();
+        }
+        if (simulation.getInput().isKeyPressed(Input.Keys.NUM_6)) {
+            simulation.getConfigSet().setImpactPredictionEnabled(!simulation.getConfigSet().isImpactPredictionEnabled());
+            simulation.getImpactScheduler().rebuild();
+            lastGodModeInputTime = simulation.getClock().millis();
         }
     }
 
@@ -193,11 +215,11 @@ public class ControlSet {
 //     * Restart the game by pressing ENTER.
 //     */
 //    public void checkForRestart() {
-//        if(Gdx.input.isKeyPressed(Input.Keys.ENTER)) {
-//            gameScreen.setGameOver(false);
-//            gameScreen.setScore(0);
-//            gameScreen.getFighter().x = Configs.resolutionX / 2 - Configs.fighterSize / 2;
-//            gameScreen.getFighter().y = Configs.fighterSize / 4;
+//        if(simulation.getInput().isKeyPressed(Input.Keys.ENTER)) {
+//            simulation.setGameOver(false);
+//            simulation.setScore(0);
+//            simulation.getFighter().x = Configs.resolutionX / 2 - Configs.fighterSize / 2;
+//            simulation.getFighter().y = Configs.fighterSize / 4;
 //        }
 //    }
 
@@ -2,6 +2,7 @@ package com.cosmicraiders;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
@@ -9,9 +10,16 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch;
  * This instance of Game is the "root" of the libGDX class hierarchy.
  * It is created by the Launcher.
  * It creates instances of MainMenuScreen and GameScreen, a SpriteBatch for textures, etc.
+ * The assets are loaded asynchronously: a LoadingScreen is shown until the main menu can be displayed,
+ * the sound effects of the game are loaded in the background while the main menu is shown.
  */
 public class CosmicRaiders extends Game {
 
+    /**
+     * how many milliseconds per frame the AssetManager may spend on loading while the main menu is shown
+     */
+    private static final int STREAMING_BUDGET_MILLIS = 4;
+
     /**
      * This batch contains the textures (sprites) which are rendered each frame. An important libGDX concept.
      */
@@ -20,38 +28,146 @@ public class CosmicRaiders extends Game {
     private MainMenuScreen mainMenuScreen;
     private GameScreen gameScreen;
     private ConfigSet configSet;
+    private AssetManager assetManager;
+    private StartupMetrics startupMetrics;
+    private boolean gameAssetsLoaded = false;
+    /**
+     * counts garbage collections for the profiler overlay, null if the platform cannot provide this
+     */
+    private final GcCounter gcCounter;
+    /**
+     * runs the simulation on its own thread, null if the platform has no threads or the mode is off
+     */
+    private final BackgroundSimulation backgroundSimulation;
+    /**
+     * splits movement and collisions of very many objects across threads, null if the platform has no threads
+     */
+    private ParallelExecutor parallelExecutor;
+    /**
+     * the pixel masks of the sprites, built from the atlas together with the sound effects, null until then
+     */
+    private CollisionMasks collisionMasks;
+
+    /**
+     * Constructs the game without a GcCounter.
+     */
+    public CosmicRaiders() {
+        this(null);
+    }
+
+    /**
+     * Constructs the game.
+     * @param gcCounter a platform specific counter of garbage collections, may be null
+     */
+    public CosmicRaiders(GcCounter gcCounter) {
+        this(gcCounter, null);
+    }
+
+    /**
+     * Constructs the game.
+     * @param gcCounter a platform specific counter of garbage collections, may be null
+     * @param backgroundSimulation runs the simulation away from the render thread, may be null to run it on the render thread
+     */
+    public CosmicRaiders(GcCounter gcCounter, BackgroundSimulation backgroundSimulation) {
+        this.gcCounter = gcCounter;
+        this.backgroundSimulation = backgroundSimulation;
+    }
 
     /**
-     * This method constructs the necessary objects to start the game.
+     * This method constructs the necessary objects to show the loading screen.
+     * The menu assets are queued, everything else is constructed in menuAssetsLoaded().
      */
     public void create() {
-        AssetSet.load();
+        startupMetrics = new StartupMetrics();
         batch = new SpriteBatch();
         configSet = new ConfigSet();
-        font = new BitmapFont(Gdx.files.internal("fonts/CaveStoryGreen.fnt"), Gdx.files.internal("fonts/CaveStoryGreen.png"), false); // use libGDX's default Arial font
-        font.getData().setScale(2);
+        configSet.setWaves(WaveDefinition.load(Gdx.files.internal(AssetSet.WAVES)));
 
+        assetManager = new AssetManager();
+        AssetSet.queueMenuAssets(assetManager);
+
+        this.setScreen(new LoadingScreen(this, assetManager));
+    }
+
+    /**
+     * Is called by the LoadingScreen once the atlas, the font and the music are loaded.
+     * It constructs the screens, shows the main menu and queues the sound effects of the game.
+     */
+    public void menuAssetsLoaded() {
+        AssetSet.fetchMenuAssets();
+        font = AssetSet.font;
+        font.getData().setScale(2);
 
         // initialize screens
         mainMenuScreen = new MainMenuScreen(this);
         gameScreen = new GameScreen(this);
 
+        AssetSet.queueGameAssets();
         this.setScreen(mainMenuScreen);
+        startupMetrics.menuShown();
     }
 
     public void render() {
         super.render(); // important!
+        startupMetrics.frameRendered();
+
+        // load the sound effects in the background while the main menu is shown
+        if (mainMenuScreen != null && !gameAssetsLoaded && assetManager.update(STREAMING_BUDGET_MILLIS)) {
+            AssetSet.fetchGameAssets();
+            collisionMasks = CollisionMasks.build(configSet);
+            gameScreen.getSimulation().setCollisionMasks(collisionMasks);
+            gameAssetsLoaded = true;
+            startupMetrics.interactive();
+        }
     }
 
     /**
      * This frees up resources.
+     * The font is owned by the AssetManager and disposed together with the other assets.
      */
     public void dispose() {
+        if (backgroundSimulation != null) {
+            backgroundSimulation.dispose();
+        }
         batch.dispose();
-        font.dispose();
         AssetSet.dispose();
     }
 
+    /**
+     * @return true if all assets are loaded and a round can be started
+     */
+    public boolean isGameAssetsLoaded() {
+        return gameAssetsLoaded;
+    }
+
+    public CollisionMasks getCollisionMasks() {
+        return collisionMasks;
+    }
+
+    public ParallelExecutor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    /**
+     * Is called by the launcher before the application starts.
+     * @param parallelExecutor splits large loops of the simulation across threads, may be null
+     */
+    public void setParallelExecutor(ParallelExecutor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    public BackgroundSimulation getBackgroundSimulation() {
+        return backgroundSimulation;
+    }
+
+    public GcCounter getGcCounter() {
+        return gcCounter;
+    }
+
+    public StartupMetrics getStartupMetrics() {
+        return startupMetrics;
+    }
+
     public MainMenuScreen getMainMenuScreen() {
         return mainMenuScreen;
     }
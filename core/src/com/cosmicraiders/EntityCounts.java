@@ -0,0 +1,156 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.Gdx;
+
+import java.util.Arrays;
+
+/**
+ * Counts the live entities of each EntityType and remembers the highest count,
+ * so that entity numbers can be shown in the profiler overlay and pool sizes can be reported.
+ * It listens to the engine, so the counts are updated when entities are added or removed.
+ * Lasers, bullets and explosion particles are not entities, their counts come from their Stores.
+ * <p>
+ * A type can have a budget: whoever creates entities of that type in bulk, e.g. the fragments of an asteroid,
+ * asks getRoom() first and creates fewer when there is not enough room. While the engine updates, it adds entities
+ * only after the current system, so the EntityFactory announces every entity with adding() and it counts until it is added.
+ */
+public class EntityCounts implements EntityListener {
+    /**
+     * all entities with a type
+     */
+    public static final Family TYPED = Family.all(TypeComponent.class).get();
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final int[] live = new int[TYPES.length];
+    private final int[] highWaterMarks = new int[TYPES.length];
+    /**
+     * entities which have been created but which the engine has not added yet
+     */
+    private final int[] pending = new int[TYPES.length];
+    private final int[] budgets = new int[TYPES.length];
+
+    private final Store[] stores = new Store[TYPES.length];
+
+    /**
+     * Objects which are kept outside of the engine, e.g. in a LaserStore, and counted by their store.
+     */
+    public interface Store {
+        /**
+         * @return the type the objects are counted as
+         */
+        EntityType getType();
+
+        /**
+         * @return how many objects are alive
+         */
+        int size();
+
+        /**
+         * @return the highest number of objects which were alive at the same time
+         */
+        int getHighWaterMark();
+    }
+
+    /**
+     * Constructs the counts, no type has a budget yet.
+     */
+    public EntityCounts() {
+        Arrays.fill(budgets, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the objects of a store under the type of the store.
+     * @param store the store
+     */
+    public void addStore(Store store) {
+        stores[store.getType().ordinal()] = store;
+    }
+
+    /**
+     * Sets the highest number of entities of a type which should be alive at the same time.
+     * @param type the type of entity
+     * @param budget the budget, Integer.MAX_VALUE for none
+     */
+    public void setBudget(EntityType type, int budget) {
+        budgets[type.ordinal()] = budget;
+    }
+
+    /**
+     * @param type the type of entity
+     * @return how many more entities of this type fit into its budget, counting the ones which are about to be added
+     */
+    public int getRoom(EntityType type) {
+        int room = budgets[type.ordinal()] - live[type.ordinal()] - pending[type.ordinal()];
+        return Math.max(0, room);
+    }
+
+    /**
+     * Announces an entity which is about to be added to the engine, so that getRoom() counts it already.
+     * @param type the type of the entity
+     */
+    public void adding(EntityType type) {
+        pending[type.ordinal()]++;
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        int type = Mappers.type.get(entity).type.ordinal();
+        if (pending[type] > 0) pending[type]--;
+        live[type]++;
+        if (live[type] > highWaterMarks[type]) highWaterMarks[type] = live[type];
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        live[Mappers.type.get(entity).type.ordinal()]--;
+    }
+
+    /**
+     * @param type the type of entity
+     * @return how many entities of this type are currently alive
+     */
+    public int getLive(EntityType type) {
+        Store store = stores[type.ordinal()];
+        return store != null ? store.size() : live[type.ordinal()];
+    }
+
+    /**
+     * @param type the type of entity
+     * @return the highest number of entities of this type which were alive at the same time
+     */
+    public int getHighWaterMark(EntityType type) {
+        Store store = stores[type.ordinal()];
+        return store != null ? store.getHighWaterMark() : highWaterMarks[type.ordinal()];
+    }
+
+    /**
+     * Starts the high-water marks of the entities over at the current counts, e.g. after the pools were filled.
+     */
+    public void resetHighWaterMarks() {
+        System.arraycopy(live, 0, highWaterMarks, 0, live.length);
+    }
+
+    /**
+     * Builds a multi-line report with the live count and high-water mark of every type.
+     * @return the report
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (EntityType type : TYPES) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(type.getLabel()).append(": live ").append(getLive(type))
+                    .append(" (high ").append(getHighWaterMark(type)).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report to the application log.
+     */
+    public void logReport() {
+        Gdx.app.log("EntityCounts", "\n" + report());
+    }
+}
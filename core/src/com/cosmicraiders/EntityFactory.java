@@ -0,0 +1,274 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Builds the entities of the game from pooled components and adds them to the engine.
+ * Lasers and explosions are not entities, they are added to the LaserStores and the ParticleStore of the GameSimulation.
+ * Each method sets up all components of one type of entity, the systems decide when entities are created.
+ * An entity is completely built before it is added, so it joins its families only once.
+ */
+public class EntityFactory {
+    /**
+     * the background color while a power up is active, shared by all power ups so that spawning does not allocate
+     */
+    private static final CRColor POWER_UP_BACKGROUND = new CRColor(20, 0, 0);
+
+    /**
+     * the height of the alien sprite divided by its width
+     */
+    public static final float ALIEN_ASPECT_RATIO = 57f / 46f;
+
+    private static final int LAYER_ASTEROID = 1;
+    private static final int LAYER_ALIEN = 3;
+    private static final int LAYER_POWER_UP = 4;
+    private static final int LAYER_ROCKET = 5;
+
+    private final GameSimulation simulation;
+    private final PooledEngine engine;
+
+    /**
+     * The constructor gets a reference to the GameSimulation in order to refer back to it.
+     * @param simulation the main game environment
+     */
+    public EntityFactory(GameSimulation simulation) {
+        this.simulation = simulation;
+        this.engine = simulation.getEngine();
+    }
+
+    /**
+     * Creates and removes as many entities of each type as are usually alive at the same time,
+     * so that the pools of the engine are filled and a round does not have to allocate.
+     * Asteroids are filled up to their budget, so even a chain reaction of fragments only takes pooled objects.
+     * The entities are removed during an update of the engine, like the systems remove them,
+     * so the engine also fills its pool of pending removals and a tick with many hits does not have to grow it.
+     * One burst of each BulletPattern.Type is emitted into a scratch store, so the classes of the pattern path
+     * are loaded before the first alien shoots.
+     */
+    public void prefill() {
+        for (int i = 0; i < simulation.getConfigSet().getAsteroidBudget(); i++) {
+            createAsteroid(0, 0, 0);
+        }
+        for (int i = 0; i < 8; i++) {
+            createPowerUp(0, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            createAlien(0, 0);
+        }
+        for (int i = 0; i < 8; i++) {
+            createRocket(0, 0);
+        }
+        RemoveAllSystem removeAll = new RemoveAllSystem();
+        engine.addSystem(removeAll);
+        engine.update(0);
+        engine.removeSystem(removeAll);
+
+        BulletStore scratch = new BulletStore(EntityType.ALIEN_BULLET, 1, 1);
+        for (BulletPattern.Type type : BulletPattern.Type.values()) {
+            new BulletPattern(type, 1, 1, 360, 0).emit(scratch, 0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Removes all entities one by one when the engine is updated, see prefill().
+     * Each removal takes a pending removal from the pool of the engine, removeAllEntities() would take only one.
+     */
+    private static class RemoveAllSystem extends EntitySystem {
+        @Override
+        public void update(float deltaTime) {
+            ImmutableArray<Entity> entities = getEngine().getEntities();
+            for (int i = 0; i < entities.size(); i++) {
+                getEngine().removeEntity(entities.get(i));
+            }
+        }
+    }
+
+    /**
+     * Creates an asteroid which falls down and rotates with a random speed and direction.
+     * Asteroids are circles, not rectangles.
+     * @param x the horizontal coordinate of the center
+     * @param y the vertical coordinate of the center
+     * @param radius the radius
+     * @return the new entity
+     */
+    public Entity createAsteroid(float x, float y, float radius) {
+        return createAsteroid(x, y, radius, 0, -simulation.getConfigSet().getAsteroidSpeed());
+    }
+
+    /**
+     * Creates an asteroid which moves with the given velocity, e.g. a fragment of a larger one,
+     * and rotates with a random speed and direction.
+     * @param x the horizontal coordinate of the center
+     * @param y the vertical coordinate of the center
+     * @param radius the radius
+     * @param velocityX the horizontal velocity in pixels per second
+     * @param velocityY the vertical velocity in pixels per second
+     * @return the new entity
+     */
+    public Entity createAsteroid(float x, float y, float radius, float velocityX, float velocityY) {
+        Entity entity = createEntity(EntityType.ASTEROID, x, y);
+        PositionComponent position = Mappers.position.get(entity);
+        position.rotation = MathUtils.random(0.0f, 360.0f);
+        position.savePrevious();
+        addBounds(entity, x, y).setCircle(radius).masks = getAsteroidMasks(radius * 2);
+        addSprite(entity, AssetSet.asteroidImage, radius * 2, radius * 2, true, LAYER_ASTEROID);
+        VelocityComponent velocity = engine.createComponent(VelocityComponent.class);
+        velocity.x = velocityX;
+        velocity.y = velocityY;
+        velocity.angular = MathUtils.random(0.0f, 100.0f) * (MathUtils.randomBoolean() ? -1 : 1);
+        entity.add(velocity);
+        addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Creates an alien ship which the AlienFleet takes on as a loose alien: it steers it from side to side and lets it shoot.
+     * @param x the left edge
+     * @param y the bottom edge
+     * @return the new entity
+     */
+    public Entity createAlien(float x, float y) {
+        return createAlien(x, y, -1);
+    }
+
+    /**
+     * Creates an alien ship of a wave.
+     * @param x the left edge
+     * @param y the bottom edge
+     * @param index the slot which the AlienFleet has taken for the alien, -1 to let the fleet take one
+     * @return the new entity
+     */
+    public Entity createAlien(float x, float y, int index) {
+        ConfigSet configSet = simulation.getConfigSet();
+        float width = configSet.getAlienSize();
+        float height = configSet.getAlienSize() * ALIEN_ASPECT_RATIO;
+        Entity entity = createEntity(EntityType.ALIEN, x, y);
+        addBounds(entity, x, y).setRectangle(width, height).masks = getAlienMasks();
+        addSprite(entity, AssetSet.alienImage, width, height, false, LAYER_ALIEN);
+        entity.add(engine.createComponent(VelocityComponent.class));
+        AlienComponent alien = engine.createComponent(AlienComponent.class);
+        alien.index = index;
+        entity.add(alien);
+        addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Creates a homing rocket of the fighter which flies straight up until the HomingSystem turns it towards a target.
+     * Its bounds are a circle as wide as the rocket, so they fit it in every direction.
+     * It is removed when it leaves the screen or, if it circles without hitting anything, when its lifetime is over.
+     * @param x the horizontal coordinate of the center
+     * @param y the vertical coordinate of the center
+     * @return the new entity
+     */
+    public Entity createRocket(float x, float y) {
+        ConfigSet configSet = simulation.getConfigSet();
+        float height = configSet.getFighterRocketSize();
+        float width = height / 5;
+        Entity entity = createEntity(EntityType.ROCKET, x, y);
+        addBounds(entity, x, y).setCircle(width);
+        addSprite(entity, AssetSet.rocketImage, width, height, true, LAYER_ROCKET);
+        VelocityComponent velocity = engine.createComponent(VelocityComponent.class);
+        velocity.y = configSet.getFighterRocketSpeed();
+        entity.add(velocity);
+        RocketComponent rocket = engine.createComponent(RocketComponent.class);
+        rocket.speed = configSet.getFighterRocketSpeed();
+        rocket.turnRate = configSet.getFighterRocketTurnRate();
+        entity.add(rocket);
+        LifetimeComponent lifetime = engine.createComponent(LifetimeComponent.class);
+        lifetime.expiryTime = simulation.getClock().millis() + configSet.getFighterRocketLifetime();
+        entity.add(lifetime);
+        addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Creates a power up which falls down slowly.
+     * @param x the horizontal coordinate of the center
+     * @param y the vertical coordinate of the center
+     * @return the new entity
+     */
+    public Entity createPowerUp(float x, float y) {
+        float radius = simulation.getConfigSet().getPowerUpDiameter() / 2;
+        Entity entity = createEntity(EntityType.POWER_UP, x, y);
+        addBounds(entity, x, y).setCircle(radius);
+        addSprite(entity, AssetSet.powerUpImage, radius * 2, radius * 2, true, LAYER_POWER_UP);
+        VelocityComponent velocity = engine.createComponent(VelocityComponent.class);
+        velocity.y = -simulation.getConfigSet().getPowerUpSpeed();
+        entity.add(velocity);
+        PowerUpComponent powerUp = engine.createComponent(PowerUpComponent.class);
+        powerUp.duration = 4000;
+        powerUp.backgroundColor = POWER_UP_BACKGROUND;
+        powerUp.fighterImage = AssetSet.fighterRedImage;
+        entity.add(powerUp);
+        addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Auxiliary method, returns the mask of an alien, null if there are no CollisionMasks.
+     */
+    private CollisionMask[] getAlienMasks() {
+        return simulation.getCollisionMasks() == null ? null : simulation.getCollisionMasks().getAlien();
+    }
+
+    /**
+     * Auxiliary method, returns the pre-rotated masks of an asteroid, null if there are no CollisionMasks.
+     */
+    private CollisionMask[] getAsteroidMasks(float diameter) {
+        return simulation.getCollisionMasks() == null ? null : simulation.getCollisionMasks().getAsteroid(diameter);
+    }
+
+    /**
+     * Auxiliary method, creates an entity with a type and a position which is not added to the engine yet.
+     */
+    private Entity createEntity(EntityType type, float x, float y) {
+        Entity entity = engine.createEntity();
+        TypeComponent typeComponent = engine.createComponent(TypeComponent.class);
+        typeComponent.type = type;
+        entity.add(typeComponent);
+        PositionComponent position = engine.createComponent(PositionComponent.class);
+        position.x = x;
+        position.y = y;
+        position.savePrevious();
+        entity.add(position);
+        return entity;
+    }
+
+    /**
+     * Auxiliary method, adds a completely built entity to the engine and announces it to the EntityCounts,
+     * so the budget of its type counts it even while the engine delays adding it.
+     */
+    private void addEntity(Entity entity) {
+        simulation.getEntityCounts().adding(Mappers.type.get(entity).type);
+        engine.addEntity(entity);
+    }
+
+    /**
+     * Auxiliary method, adds bounds at the given position, their shape still has to be set.
+     */
+    private BoundsComponent addBounds(Entity entity, float x, float y) {
+        BoundsComponent bounds = engine.createComponent(BoundsComponent.class);
+        bounds.setPosition(x, y);
+        entity.add(bounds);
+        return bounds;
+    }
+
+    /**
+     * Auxiliary method, adds a sprite.
+     */
+    private void addSprite(Entity entity, TextureRegion region, float width, float height, boolean centered, int layer) {
+        SpriteComponent sprite = engine.createComponent(SpriteComponent.class);
+        sprite.region = region;
+        sprite.width = width;
+        sprite.height = height;
+        sprite.centered = centered;
+        sprite.layer = layer;
+        entity.add(sprite);
+    }
+}
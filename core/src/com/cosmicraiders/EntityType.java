@@ -0,0 +1,45 @@
+package com.cosmicraiders;
+
+/**
+ * The kinds of entities in the game.
+ * Each type has a bit for collision masks and the mask of the types it can hit.
+ */
+public enum EntityType {
+    FIGHTER_LASER("fighter lasers"),
+    ALIEN_LASER("alien lasers"),
+    ALIEN_BULLET("alien bullets"),
+    ROCKET("rockets"),
+    ASTEROID("asteroids"),
+    ALIEN("aliens"),
+    POWER_UP("power ups"),
+    EXPLOSION("explosion particles");
+
+    static {
+        FIGHTER_LASER.targets = ASTEROID.bit | ALIEN.bit;
+        ROCKET.targets = ASTEROID.bit | ALIEN.bit;
+    }
+
+    private final String label;
+    private final int bit;
+    /**
+     * the bits of all types this type hits, 0 if it does not hit anything by itself
+     */
+    private int targets;
+
+    EntityType(String label) {
+        this.label = label;
+        this.bit = 1 << ordinal();
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public int getTargets() {
+        return targets;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Emits the particles of explosions into the ParticleStore of the simulation.
+ * Every Kind of explosion has its own number of particles, speeds, lifetimes and colors,
+ * the fighter explosion has many long-lived particles and lasts until the round is over.
+ * <p>
+ * The number of particles of an explosion is thinned in two ways, so many explosions at the same time
+ * neither exceed the budget nor slow the game down:
+ * the level of detail follows the frame time which the render thread reports with frameTime(),
+ * and once the store is more than half full, every new explosion gets fewer particles the fuller it is.
+ * Each kind keeps a minimum number of particles, only the hard budget of the store cuts below that.
+ * The minimum of the fighter explosion is always kept free, so the end of a round never goes without one.
+ */
+public class Explosions {
+    /**
+     * the lowest level of detail, explosions never get fewer than this part of their particles because of slow frames
+     */
+    private static final float MIN_DETAIL = 0.25f;
+
+    /**
+     * The kinds of explosions.
+     */
+    public enum Kind {
+        ASTEROID(28, 6, 60, 240, 0.35f, 0.7f, 0.2f, 0.4f, 0xffd070, 0xff5010),
+        ALIEN(36, 8, 80, 280, 0.35f, 0.8f, 0.2f, 0.4f, 0xc0ffa0, 0x20a0ff),
+        FIGHTER(160, 64, 40, 360, 1.0f, 5.0f, 0.1f, 0.3f, 0xfff0b0, 0xff2000);
+
+        /**
+         * how many particles the explosion has at full detail and at least
+         */
+        private final int count;
+        private final int minimumCount;
+        /**
+         * the speeds of the particles in pixels per second
+         */
+        private final float minSpeed;
+        private final float maxSpeed;
+        /**
+         * the lifetimes of the particles in seconds
+         */
+        private final float minLifetime;
+        private final float maxLifetime;
+        /**
+         * the sizes of the particles in parts of the size of the explosion
+         */
+        private final float minSize;
+        private final float maxSize;
+        /**
+         * the particles get random colors between these two, as 0x00BBGGRR
+         */
+        private final int innerColor;
+        private final int outerColor;
+
+        Kind(int count, int minimumCount, float minSpeed, float maxSpeed, float minLifetime, float maxLifetime,
+             float minSize, float maxSize, int innerRgb, int outerRgb) {
+            this.count = count;
+            this.minimumCount = minimumCount;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+            this.minLifetime = minLifetime;
+            this.maxLifetime = maxLifetime;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.innerColor = toBgr(innerRgb);
+            this.outerColor = toBgr(outerRgb);
+        }
+    }
+
+    private final ParticleStore particles;
+    /**
+     * the maximum frame time in seconds, slower frames lower the detail
+     */
+    private final float frameBudget;
+    /**
+     * the level of detail from MIN_DETAIL to 1, written by the render thread and read by the simulation thread
+     */
+    private volatile float detail = 1;
+
+    /**
+     * Constructs the emitter.
+     * @param particles the store the particles are emitted into
+     * @param frameBudget the maximum frame time in seconds, slower frames lower the detail
+     */
+    public Explosions(ParticleStore particles, float frameBudget) {
+        this.particles = particles;
+        this.frameBudget = frameBudget;
+    }
+
+    /**
+     * Emits the particles of an explosion.
+     * @param kind the kind of explosion
+     * @param centerX the horizontal center
+     * @param centerY the vertical center
+     * @param explosionSize how large the explosion is, e.g. the diameter of an asteroid
+     * @return how many particles were emitted
+     */
+    public int explode(Kind kind, float centerX, float centerY, float explosionSize) {
+        // the other explosions leave room for the fighter explosion, there is only one per round
+        int room = Math.max(0, particles.getRoom() - (kind == Kind.FIGHTER ? 0 : Kind.FIGHTER.minimumCount));
+        float fill = Math.min(1, 2f * room / particles.getCapacity());
+        int count = Math.max(kind.minimumCount, Math.round(kind.count * detail * fill));
+        count = Math.min(count, room);
+        int first = particles.reserve(count);
+        float spread = explosionSize / 4;
+        for (int i = 0; i < count; i++) {
+            float angle = MathUtils.random(MathUtils.PI2);
+            float speed = MathUtils.random(kind.minSpeed, kind.maxSpeed);
+            float cos = MathUtils.cos(angle);
+            float sin = MathUtils.sin(angle);
+            float offset = MathUtils.random(spread);
+            particles.set(first + i, centerX + cos * offset, centerY + sin * offset, cos * speed, sin * speed,
+                    MathUtils.random(kind.minLifetime, kind.maxLifetime),
+                    explosionSize * MathUtils.random(kind.minSize, kind.maxSize),
+                    mix(kind.innerColor, kind.outerColor, MathUtils.random()));
+        }
+        return count;
+    }
+
+    /**
+     * Adapts the level of detail to the time of the last frame: it drops quickly while frames are too slow
+     * and recovers slowly while they are fast enough. Called by the render thread once per frame.
+     * @param seconds the time of the last frame
+     */
+    public void frameTime(float seconds) {
+        if (seconds > frameBudget) {
+            detail = Math.max(MIN_DETAIL, detail * 0.8f);
+        } else {
+            detail = Math.min(1, detail + 0.02f);
+        }
+    }
+
+    /**
+     * @return the level of detail, from 0.25 to 1
+     */
+    public float getDetail() {
+        return detail;
+    }
+
+    /**
+     * Auxiliary method, converts 0xRRGGBB into 0x00BBGGRR, the order of the packed colors of the batch.
+     */
+    private static int toBgr(int rgb) {
+        return (rgb & 0xff) << 16 | (rgb & 0xff00) | (rgb >> 16 & 0xff);
+    }
+
+    /**
+     * Auxiliary method, mixes two packed colors channel by channel.
+     */
+    private static int mix(int from, int to, float amount) {
+        int color = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            int a = from >> shift & 0xff;
+            int b = to >> shift & 0xff;
+            color |= (int) (a + (b - a) * amount) << shift;
+        }
+        return color;
+    }
+}
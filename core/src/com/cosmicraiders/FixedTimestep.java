@@ -0,0 +1,73 @@
+package com.cosmicraiders;
+
+/**
+ * Turns variable frame times into a whole number of fixed simulation ticks.
+ * The frame time is added to an accumulator, and one tick is taken out for every tick length it holds.
+ * What is left over is the fraction of a tick by which rendering is ahead of the simulation,
+ * the Painter uses it to interpolate between the previous and the current state.
+ * If a frame took so long that more than maxTicksPerFrame ticks are due, the rest is dropped,
+ * so that a slow device does not fall further and further behind (the "spiral of death").
+ */
+public class FixedTimestep {
+    private final double tickLength;
+    private final int maxTicksPerFrame;
+    /**
+     * frame time in seconds which has not been simulated yet
+     */
+    private double accumulator;
+    /**
+     * how many ticks were dropped since construction, because frames took too long
+     */
+    private long droppedTicks;
+
+    /**
+     * @param ticksPerSecond how many ticks the simulation takes per second
+     * @param maxTicksPerFrame the most ticks which are run in one frame
+     */
+    public FixedTimestep(int ticksPerSecond, int maxTicksPerFrame) {
+        this.tickLength = 1.0 / ticksPerSecond;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /**
+     * Adds the time of a frame and takes out the ticks which are due.
+     * @param frameDelta the time in seconds since the last frame
+     * @return how many ticks the simulation has to run in this frame
+     */
+    public int advance(float frameDelta) {
+        accumulator += frameDelta;
+        int ticks = (int) (accumulator / tickLength);
+        if (ticks > maxTicksPerFrame) {
+            droppedTicks += ticks - maxTicksPerFrame;
+            ticks = maxTicksPerFrame;
+            accumulator = tickLength * ticks + accumulator % tickLength;
+        }
+        accumulator -= ticks * tickLength;
+        return ticks;
+    }
+
+    /**
+     * Forgets the time which was not simulated yet, e.g. when a new round starts.
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+
+    /**
+     * @return how far rendering is between the last tick and the next one, from 0 to 1
+     */
+    public float getAlpha() {
+        return (float) (accumulator / tickLength);
+    }
+
+    /**
+     * @return the length of one tick in seconds
+     */
+    public float getTickLength() {
+        return (float) tickLength;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cosmicraiders;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A ParallelExecutor which runs the chunks on a ForkJoinPool.
+ * The fork-join tasks are created once and reinitialized for every call, so running a loop does not allocate.
+ * Not part of the HTML build, see CosmicRaiders.gwt.xml.
+ */
+public class ForkJoinExecutor implements ParallelExecutor {
+    private final ForkJoinPool pool;
+    private final Chunk[] chunks;
+    private final Root root = new Root(this);
+
+    private ChunkTask task;
+    private int chunkCount;
+
+    /**
+     * Constructs an executor with its own pool with one worker per processor.
+     */
+    public ForkJoinExecutor() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param pool the pool the chunks run on
+     */
+    public ForkJoinExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+        chunks = new Chunk[pool.getParallelism()];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(this, i);
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return chunks.length;
+    }
+
+    @Override
+    public void invokeAll(int chunkCount, ChunkTask task) {
+        if (chunkCount > chunks.length) {
+            throw new IllegalArgumentException("at most " + chunks.length + " chunks, not " + chunkCount);
+        }
+        this.task = task;
+        this.chunkCount = chunkCount;
+        root.reinitialize();
+        pool.invoke(root);
+        this.task = null;
+    }
+
+    /**
+     * Forks all chunks but the first, runs the first one itself and waits for the others.
+     * The tasks are never serialized, so they have no serialVersionUID.
+     */
+    @SuppressWarnings("serial")
+    private static class Root extends RecursiveAction {
+        private final ForkJoinExecutor executor;
+
+        private Root(ForkJoinExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        protected void compute() {
+            Chunk[] chunks = executor.chunks;
+            for (int i = 1; i < executor.chunkCount; i++) {
+                chunks[i].reinitialize();
+                chunks[i].fork();
+            }
+            executor.task.run(0);
+            for (int i = 1; i < executor.chunkCount; i++) {
+                chunks[i].join();
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class Chunk extends RecursiveAction {
+        private final ForkJoinExecutor executor;
+        private final int index;
+
+        private Chunk(ForkJoinExecutor executor, int index) {
+            this.executor = executor;
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            executor.task.run(index);
+        }
+    }
+}
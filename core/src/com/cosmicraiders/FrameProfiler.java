@@ -0,0 +1,140 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * Measures how long each phase of a frame takes.
+ * The last WINDOW samples of every phase are kept, so that min, average and 99th percentile can be shown.
+ * While the profiler is disabled, begin() and end() return right away and nothing is measured.
+ */
+public class FrameProfiler {
+
+    /**
+     * The phases of a frame, in the order in which they run.
+     */
+    public enum Phase {
+        RENDER("render"),
+        TIMERS("timers"),
+        HOMING("homing"),
+        MOVEMENT("movement"),
+        CONTROLS("controls"),
+        BROAD_PHASE("broad phase"),
+        COLLISIONS("collisions");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * how many frames the statistics are computed over
+     */
+    public static final int WINDOW = 120;
+    private static final Phase[] PHASES = Phase.values();
+
+    private boolean enabled = false;
+    private final long[][] samples = new long[PHASES.length][WINDOW];
+    private final int[] sampleCounts = new int[PHASES.length];
+    private final int[] nextSamples = new int[PHASES.length];
+    /**
+     * used for sorting the samples of one phase without changing their order
+     */
+    private final long[] sorted = new long[WINDOW];
+
+    private Phase currentPhase;
+    private long phaseStart;
+
+    /**
+     * Starts measuring a phase.
+     * @param phase the phase which starts now
+     */
+    public void begin(Phase phase) {
+        if (!enabled) return;
+        currentPhase = phase;
+        phaseStart = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Stops measuring the phase which was started last and records its duration.
+     */
+    public void end() {
+        if (!enabled || currentPhase == null) return;
+        int phase = currentPhase.ordinal();
+        samples[phase][nextSamples[phase]] = TimeUtils.nanoTime() - phaseStart;
+        nextSamples[phase] = (nextSamples[phase] + 1) % WINDOW;
+        if (sampleCounts[phase] < WINDOW) sampleCounts[phase]++;
+        currentPhase = null;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the shortest duration in nanoseconds within the window, 0 if there are no samples
+     */
+    public long getMin(Phase phase) {
+        int count = sampleCounts[phase.ordinal()];
+        if (count == 0) return 0;
+        long[] phaseSamples = samples[phase.ordinal()];
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, phaseSamples[i]);
+        }
+        return min;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the average duration in nanoseconds within the window, 0 if there are no samples
+     */
+    public long getAverage(Phase phase) {
+        int count = sampleCounts[phase.ordinal()];
+        if (count == 0) return 0;
+        long[] phaseSamples = samples[phase.ordinal()];
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += phaseSamples[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the 99th percentile of the durations in nanoseconds within the window, 0 if there are no samples
+     */
+    public long getPercentile99(Phase phase) {
+        int count = sampleCounts[phase.ordinal()];
+        if (count == 0) return 0;
+        System.arraycopy(samples[phase.ordinal()], 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        return sorted[Math.min(count - 1, (int) Math.ceil(count * 0.99) - 1)];
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public void clear() {
+        Arrays.fill(sampleCounts, 0);
+        Arrays.fill(nextSamples, 0);
+        currentPhase = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns measuring on or off. The samples are cleared when it is turned on.
+     * @param enabled true to measure
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) clear();
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cosmicraiders;
+
+/**
+ * The source of time for the game logic.
+ * The simulation never reads the system time or the libGDX frame delta itself,
+ * it asks its GameClock instead. This allows the simulation to run without a window and faster than real time.
+ */
+public interface GameClock {
+
+    /**
+     * @return the current game time in milliseconds
+     */
+    long millis();
+
+    /**
+     * @return the time in seconds which passed during the current simulation step
+     */
+    float getDeltaTime();
+}
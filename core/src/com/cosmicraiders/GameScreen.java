@@ -1,19 +1,21 @@
 package com.cosmicraiders;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.*;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.TimeUtils;
 
 
 /**
- * Includes the main game logic as well as most GUI elements of the game.
- * Includes game avatars, background, movement, shooting, collision, and more.
+ * Includes most GUI elements of the game and drives the game logic.
+ * The game logic itself (spawning, movement, collision, and more) lives in a GameSimulation,
+ * this screen advances it by as many fixed ticks as are due in each frame and renders its state
+ * interpolated between the last two ticks.
+ * If the launcher provides a BackgroundSimulation, the simulation runs its ticks on its own thread instead:
+ * this screen then only hands over the input, plays the queued sounds and draws the latest RenderSnapshot.
  */
 public class GameScreen implements Screen {
 
@@ -22,15 +24,12 @@ public class GameScreen implements Screen {
      */
     private CosmicRaiders game;
     private ConfigSet configSet;
-    private ControlSet controlSet;
-
-    private MovementHandler movementHandler;
-    private CollisionHandler collisionHandler;
-    private PowerUpHandler powerUpHandler;
 
     private Painter painter;
-    private Spawner spawner;
-    private Debug debug;
+    /**
+     * shows frame timings and counters, toggled with T
+     */
+    private final ProfilerOverlay profilerOverlay;
 
     /**
      * This batch includes all the textures / sprites to be rendered
@@ -38,22 +37,29 @@ public class GameScreen implements Screen {
     private SpriteBatch batch;
 
     private OrthographicCamera camera;
-    private Rectangle fighter;
-
-    private Array<Rectangle> fighterLasers;
-    private Array<Rectangle> alienLasers;
-    private Array<Asteroid> asteroids;
-    private Array<Explosion> explosions;
-    private Array<Rectangle> aliens;
-    private Array<PowerUp> powerUps;
-    private PowerUp activePowerUp;
-
-    private int score;
-    private boolean gameOver = false;
-    private long exitTime;
 
+    /**
+     * The game time, it is stepped by one tick for every simulation tick.
+     */
+    private final SteppedClock clock;
+    /**
+     * decides how many simulation ticks each frame runs
+     */
+    private final FixedTimestep timestep;
+    private final GameSimulation simulation;
+    /**
+     * runs the simulation on its own thread, null if it runs in render()
+     */
+    private final BackgroundSimulation backgroundSimulation;
+    /**
+     * the real input, the simulation reads it directly or receives copies of it
+     */
+    private final GdxInputSource input;
+    /**
+     * the state of the BackgroundSimulation which is drawn in this frame
+     */
+    private RenderSnapshot snapshot;
 
-    private GlyphLayout scoreText;
     private HorizontalCenteredGlyphLayout gameOverText;
 
     /**
@@ -66,91 +72,99 @@ public class GameScreen implements Screen {
 
         // link other program components
         this.game = game;
+        batch = game.getBatch();
+        configSet = game.getConfigSet();
+
+        // construct camera
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, configSet.getResolutionX(), configSet.getResolutionY());
+
+        clock = new SteppedClock(TimeUtils.millis());
+        timestep = new FixedTimestep(configSet.getSimulationTickRate(), configSet.getMaxTicksPerFrame());
+        input = new GdxInputSource(camera);
+        backgroundSimulation = game.getBackgroundSimulation();
+        simulation = new GameSimulation(configSet, clock, backgroundSimulation == null ? input : backgroundSimulation.getInput());
+        simulation.setParallelExecutor(game.getParallelExecutor());
+        profilerOverlay = new ProfilerOverlay(this, game.getGcCounter());
         initialize();
+        if (backgroundSimulation != null) {
+            backgroundSimulation.attach(simulation, clock);
+        }
     }
 
     /**
-     * This auxiliary method constructs objects needed for the game.
+     * This auxiliary method prepares a new round.
      * It is called each time a new round starts.
-     * It builds NEW arrays and new auxiliary objects like Painter and Spawner.
-     * The old arrays and objects from the last round are not emptied,
-     * they are de-referenced and removed by the garbage collector.
+     * It resets the simulation.
      */
     public void initialize() {
 
         // link other program components
-        this.controlSet = new ControlSet(this);
-        this.movementHandler = new MovementHandler(this);
-        this.collisionHandler = new CollisionHandler(this);
-        this.powerUpHandler = new PowerUpHandler(this);
-
         if (painter == null) {
-            this.painter = new Painter(this);
+            this.painter = new Painter(batch, game.getFont(), simulation);
         }
 
-        this.spawner = new Spawner(this);
-        this.debug = new Debug(this);
-
-        batch = game.getBatch();
-        configSet = game.getConfigSet();
-
-        // make sure the background is black
-        configSet.setBackgroundColor(new CRColor(0,0,0));
-
-        // construct camera
-        camera = new OrthographicCamera();
-        camera.setToOrtho(false, configSet.getResolutionX(), configSet.getResolutionY());
-
-        // construct fighter
-        fighter = new Rectangle();
-        fighter.x = configSet.getResolutionX() / 2 - configSet.getFighterSize() / 2;
-        fighter.y = configSet.getFighterSize() / 4;
-        fighter.width = configSet.getFighterSize();
-        fighter.height = configSet.getFighterSize();
-        //fighter.height = Configs.fighterSize * (57f / 46f);
-
-        // construct arrays
-        fighterLasers = new Array<Rectangle>();
-        alienLasers = new Array<Rectangle>();
-        asteroids = new Array<Asteroid>();
-        explosions = new Array<Explosion>();
-        aliens = new Array<Rectangle>();
-        powerUps = new Array<PowerUp>();
+        simulation.reset();
+        timestep.reset();
 
         // construct GlyphLayouts
-        scoreText = new GlyphLayout(game.getFont(), "");
         gameOverText = new HorizontalCenteredGlyphLayout(game.getFont(), "Game Over!", configSet.getResolutionX());
-
-        // initialize score
-        setScore(0);
     }
 
     /**
-     * Is called when the game is over because the figher was destroyed.
-     * Is called by the destroyFighter() method in CollisionHandler.
+     * Goes back to the main menu when the round is over because the fighter was destroyed.
+     * The fighter is destroyed by CollisionSystem.destroyFighter(), the round is over once GameSimulation.isRoundOver() is true.
      */
     public void checkGameOver() {
-       if  (gameOver && exitTime <= TimeUtils.millis() ) {
-           Scores.setLastScore(score);
+       boolean roundOver = backgroundSimulation == null ? simulation.isRoundOver() : snapshot.isRoundOver();
+       if  (roundOver) {
+           // the simulation thread has to stop before the simulation is read here
+           this.pause();
+           Scores.setLastScore(simulation.getScore());
            Scores.increaseRoundsPlayed();
-           score = 0;
+           simulation.getEntityCounts().logReport();
+           simulation.getSoundMixer().logReport();
            game.setScreen(game.getMainMenuScreen());
-           this.pause();
        }
     }
 
     /**
-     * Includes the main game logic as well as most GUI elements of the game.
-     * Includes game avatars, background, movement, shooting, collision, and more.
+     * Advances the game logic by as many fixed ticks as are due and renders the game.
+     * The simulation always runs at the tick rate of the ConfigSet, whatever the frame rate is,
+     * and the Painter interpolates between the last two ticks.
      * LibGDX tutorial recommends not creating objects here - this method is called many times per second.
      * @param delta The time in seconds since the last render.
      */
     @Override
     public void render (float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.T)) {
+            profilerOverlay.toggle();
+        }
+        if (backgroundSimulation != null) {
+            backgroundSimulation.submitInput(input, profilerOverlay.isEnabled());
+            backgroundSimulation.playQueuedSounds();
+            snapshot = backgroundSimulation.getLatestSnapshot();
+        }
 
         // go to MainMenu screen if game is over
         checkGameOver();
 
+        profilerOverlay.beginFrame();
+        // slow frames thin out the particles of new explosions
+        simulation.getExplosions().frameTime(delta);
+
+        if (backgroundSimulation == null) {
+            // game logic: spawning, movement, controls, power ups and collisions
+            int ticks = timestep.advance(delta);
+            for (int tick = 0; tick < ticks; tick++) {
+                clock.step(timestep.getTickLength());
+                simulation.update();
+            }
+
+            // the profiler belongs to the simulation thread if there is one
+            simulation.getProfiler().begin(FrameProfiler.Phase.RENDER);
+        }
+
         // black background
         ScreenUtils.clear(0, 0, 0, 1);
         camera.update();
@@ -158,45 +172,42 @@ public class GameScreen implements Screen {
 
         //SpriteBatch rendering code
         batch.begin();
-        debug.showCoordinates();
-        painter.renderBackground(configSet.getBackgroundColor());
-        painter.renderStarLayers(1);
-        painter.renderObjects();
-        painter.renderText();
+        if (backgroundSimulation == null) {
+            painter.renderBackground(configSet.getBackgroundColor());
+            painter.renderStarLayers(1);
+            painter.renderObjects(timestep.getAlpha());
+            painter.renderText();
+        } else {
+            painter.renderBackground(snapshot.getBackgroundRed(), snapshot.getBackgroundGreen(), snapshot.getBackgroundBlue());
+            painter.renderStarLayers(1);
+            painter.renderObjects(snapshot, getSnapshotAlpha());
+            painter.renderText(snapshot.getScore(), snapshot.isGodMode());
+        }
 
 
         batch.end();
-
-        // spawning
-        spawner.handleSpawning();
-
-        // movements
-        movementHandler.moveFighterLasers();
-        movementHandler.moveAliens();
-        movementHandler.moveAlienLasers();
-        movementHandler.moveAsteroids();
-        movementHandler.rotateAsteroids();
-        movementHandler.movePowerUps();
-
-        // fighter movement
-        controlSet.handleControls();
-
-        // power ups
-        powerUpHandler.handlePowerUps();
-
-
-        // collisions
-        collisionHandler.handleFighterLaserCollisions();
-        collisionHandler.handleFighterCollisions();
+        if (backgroundSimulation == null) {
+            simulation.getProfiler().end();
+        }
+        profilerOverlay.endGameRendering();
 
         // throws up a "Game Over" screen
-        if (gameOver == true) {
+        if (backgroundSimulation == null ? simulation.isGameOver() : snapshot.isGameOver()) {
             game.getBatch().begin();
             game.getFont().draw(game.getBatch(), gameOverText, gameOverText.getX(), configSet.getResolutionY() / 2 - gameOverText.height / 2);
             game.getBatch().end();
         }
 
+        profilerOverlay.render(batch, game.getFont(), backgroundSimulation == null ? null : snapshot.getProfilerStats());
+
+    }
 
+    /**
+     * @return how far this frame is between the previous tick of the snapshot and the next one, from 0 to 1
+     */
+    private float getSnapshotAlpha() {
+        float ticksSinceCapture = (TimeUtils.nanoTime() - snapshot.getCaptureTime()) * configSet.getSimulationTickRate() / 1e9f;
+        return Math.min(1, ticksSinceCapture);
     }
 
     /**
@@ -207,6 +218,9 @@ public class GameScreen implements Screen {
 //        Assets.openUp.play();
         initialize();
         AssetSet.neonNoir.play();
+        if (backgroundSimulation != null) {
+            backgroundSimulation.resume();
+        }
     }
 
     @Override
@@ -217,16 +231,23 @@ public class GameScreen implements Screen {
     @Override
     public void pause() {
 //        Assets.neonNoir.stop();
+        if (backgroundSimulation != null) {
+            backgroundSimulation.pause();
+        }
     }
 
     @Override
     public void resume() {
-
+        if (backgroundSimulation != null) {
+            backgroundSimulation.resume();
+        }
     }
 
     @Override
     public void hide() {
-
+        if (backgroundSimulation != null) {
+            backgroundSimulation.pause();
+        }
     }
 
     @Override
@@ -250,94 +271,23 @@ public class GameScreen implements Screen {
         return camera;
     }
 
-    public void setCamera(OrthographicCamera camera) {
-        this.camera = camera;
-    }
-
-    public Rectangle getFighter() {
-        return fighter;
-    }
-
-    public void setFighter(Rectangle fighter) {
-        this.fighter = fighter;
-    }
-
-    public Array<Rectangle> getFighterLasers() {
-        return fighterLasers;
-    }
-
-    public void setFighterLasers(Array<Rectangle> fighterLasers) {
-        this.fighterLasers = fighterLasers;
-    }
-
-    public Array<Rectangle> getAlienLasers() {
-        return alienLasers;
-    }
-
-    public void setAlienLasers(Array<Rectangle> alienLasers) {
-        this.alienLasers = alienLasers;
-    }
-
-    public Array<Asteroid> getAsteroids() {
-        return asteroids;
-    }
-
-    public void setAsteroids(Array<Asteroid> asteroids) {
-        this.asteroids = asteroids;
-    }
-
-    public Array<Explosion> getExplosions() {
-        return explosions;
-    }
-
-    public void setExplosions(Array<Explosion> explosions) {
-        this.explosions = explosions;
-    }
-
-    public Array<Rectangle> getAliens() {
-        return aliens;
-    }
-
-    public void setAliens(Array<Rectangle> aliens) {
-        this.aliens = aliens;
-    }
-
-    public int getScore() {
-        return score;
+    public GameSimulation getSimulation() {
+        return simulation;
     }
 
     /**
-     * Set the score and update the score text.
-     * @param score
+     * @return runs the simulation on its own thread, null if it runs in render()
      */
-    public void setScore(int score) {
-        this.score = score;
-        painter.setScoreText("Score: " + score);
-//        this.scoreText.setText(game.font, "Score: " + score);
-    }
-
-    public boolean isGameOver() {
-        return gameOver;
-    }
-
-    public void setGameOver(boolean gameOver) {
-        this.gameOver = gameOver;
-    }
-
-    public MovementHandler getMovementHandler() {
-        return movementHandler;
-    }
-
-    public Spawner getSpawner() {
-        return spawner;
+    public BackgroundSimulation getBackgroundSimulation() {
+        return backgroundSimulation;
     }
 
-    public long getExitTime() {
-        return exitTime;
+    public ProfilerOverlay getProfilerOverlay() {
+        return profilerOverlay;
     }
 
-    public void setExitTime(long exitTime) {
-        this.exitTime = exitTime;
+    public FixedTimestep getTimestep() {
+        return timestep;
     }
 
     public Painter getPainter() {
@@ -355,24 +305,4 @@ public class GameScreen implements Screen {
     public void setConfigSet(ConfigSet configSet) {
         this.configSet = configSet;
     }
-
-    public Array<PowerUp> getPowerUps() {
-        return powerUps;
-    }
-
-    public PowerUp getActivePowerUp() {
-        return activePowerUp;
-    }
-
-    public void setActivePowerUp(PowerUp activePowerUp) {
-        this.activePowerUp = activePowerUp;
-    }
-
-    public PowerUpHandler getPowerUpHandler() {
-        return powerUpHandler;
-    }
-
-    public void setPowerUpHandler(PowerUpHandler powerUpHandler) {
-        this.powerUpHandler = powerUpHandler;
-    }
 }
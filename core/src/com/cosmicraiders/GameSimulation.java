@@ -0,0 +1,428 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The game logic without any rendering: spawning, movement, controls, power ups and collisions.
+ * It owns the Ashley engine with the systems, the stores of the objects which are not entities
+ * (lasers, bullets and explosion particles), the fighter, the score and the state of the round.
+ * Time comes from an injected GameClock and input from an injected InputSource,
+ * so the simulation does not need a window and can also run under the headless backend.
+ * GameScreen runs it at a fixed tick rate: it steps the clock by one tick and calls update() for every tick that is due.
+ */
+public class GameSimulation implements TimerWheel.Listener {
+    private final ConfigSet configSet;
+    private final GameClock clock;
+    private final InputSource input;
+
+    /**
+     * Holds all entities and recycles them and their components. It is kept across rounds.
+     */
+    private final PooledEngine engine = new PooledEngine(128, 4096, 128, 4096);
+    private final EntityFactory entityFactory;
+    private final EntityCounts entityCounts = new EntityCounts();
+    private final TimerWheel timers;
+    private final SoundMixer soundMixer;
+    private final LaserStore fighterLasers;
+    private final LaserStore alienLasers;
+    private final BulletStore alienBullets;
+    private final ParticleStore particles;
+    private final Explosions explosions;
+    private final ImpactScheduler impactScheduler;
+    private final AlienFleet alienFleet;
+    private final TargetIndex targetIndex;
+
+    private final SpawnSystem spawnSystem;
+    private final HomingSystem homingSystem;
+    private final MovementSystem movementSystem;
+    private final ControlSet controlSet;
+    private final PowerUpSystem powerUpSystem;
+    private final CollisionSystem collisionSystem;
+    private final LifetimeSystem lifetimeSystem;
+
+    /**
+     * Measures the systems. It is disabled unless the profiler overlay is shown.
+     */
+    private final FrameProfiler profiler = new FrameProfiler();
+    /**
+     * plays the sound effects, by default right away
+     */
+    private SoundOutput soundOutput = new SoundOutput() {
+        @Override
+        public void play(Sound sound, float volume) {
+            sound.play(volume);
+        }
+    };
+    /**
+     * splits large loops across threads, null if everything runs on the simulation thread
+     */
+    private ParallelExecutor parallelExecutor;
+    /**
+     * the pixel masks of the sprites, null if collisions only test the bounds
+     */
+    private CollisionMasks collisionMasks;
+
+    private Rectangle fighter;
+    /**
+     * the position of the fighter before the last tick, for interpolated rendering
+     */
+    private float previousFighterX;
+    private float previousFighterY;
+
+    private int score;
+    private boolean gameOver = false;
+    private long exitTime;
+    private boolean roundOver;
+
+    /**
+     * Constructs a simulation with all systems and prepares the first round.
+     * @param configSet the game settings
+     * @param clock the source of time
+     * @param input the source of player input
+     */
+    public GameSimulation(ConfigSet configSet, GameClock clock, InputSource input) {
+        this.configSet = configSet;
+        this.clock = clock;
+        this.input = input;
+        timers = new TimerWheel(clock.millis(), 256);
+        soundMixer = new SoundMixer(clock, configSet.getSoundVoiceLimit());
+
+        fighterLasers = new LaserStore(EntityType.FIGHTER_LASER, configSet.getFighterLaserSize() / 10, configSet.getFighterLaserSize(),
+                configSet.getFighterLaserSpeed(), 256);
+        alienLasers = new LaserStore(EntityType.ALIEN_LASER, configSet.getAlienLaserSize() / 10, configSet.getAlienLaserSize(),
+                -configSet.getAlienLaserSpeed(), 256);
+        entityCounts.addStore(fighterLasers);
+        alienBullets = new BulletStore(EntityType.ALIEN_BULLET, configSet.getAlienBulletSize() / 2f, 1024);
+        entityCounts.addStore(alienLasers);
+        entityCounts.addStore(alienBullets);
+        particles = new ParticleStore(EntityType.EXPLOSION, configSet.getParticleBudget());
+        entityCounts.addStore(particles);
+        explosions = new Explosions(particles, configSet.getParticleFrameBudget() / 1000f);
+
+        entityFactory = new EntityFactory(this);
+        engine.addEntityListener(EntityCounts.TYPED, entityCounts);
+        entityCounts.setBudget(EntityType.ASTEROID, configSet.getAsteroidBudget());
+        entityFactory.prefill();
+        entityCounts.resetHighWaterMarks();
+        impactScheduler = new ImpactScheduler(this);
+        alienFleet = new AlienFleet(this);
+        targetIndex = new TargetIndex(configSet.getResolutionX(), configSet.getResolutionY(), configSet.getBroadPhaseCellSize());
+
+        spawnSystem = new SpawnSystem(this);
+        homingSystem = new HomingSystem(this);
+        movementSystem = new MovementSystem(this);
+        controlSet = new ControlSet(this);
+        powerUpSystem = new PowerUpSystem(this);
+        collisionSystem = new CollisionSystem(this);
+        lifetimeSystem = new LifetimeSystem(this);
+        engine.addSystem(spawnSystem);
+        engine.addSystem(homingSystem);
+        engine.addSystem(movementSystem);
+        engine.addSystem(controlSet);
+        engine.addSystem(powerUpSystem);
+        engine.addSystem(collisionSystem);
+        engine.addSystem(lifetimeSystem);
+
+        reset();
+    }
+
+    /**
+     * Prepares a new round.
+     * The entities of the last round are removed, which returns them to the pools of the engine,
+     * the systems reset their timers and a new fighter is built.
+     */
+    public void reset() {
+        engine.removeAllEntities();
+        timers.reset(clock.millis());
+        soundMixer.reset();
+        fighterLasers.clear();
+        alienLasers.clear();
+        alienBullets.clear();
+        particles.clear();
+        targetIndex.clear();
+        targetIndex.build();
+        impactScheduler.reset();
+        alienFleet.reset();
+        spawnSystem.reset();
+        controlSet.reset();
+        powerUpSystem.reset();
+
+        // make sure the background is black
+        configSet.setBackgroundColor(new CRColor(0,0,0));
+
+        // construct fighter
+        fighter = new Rectangle();
+        fighter.x = configSet.getResolutionX() / 2 - configSet.getFighterSize() / 2;
+        fighter.y = configSet.getFighterSize() / 4;
+        fighter.width = configSet.getFighterSize();
+        fighter.height = configSet.getFighterSize();
+        saveFighterPosition();
+
+        score = 0;
+        gameOver = false;
+        roundOver = false;
+    }
+
+    /**
+     * Advances the game logic by one tick by updating all systems of the engine.
+     * Entities which are removed by a system are removed once that system is done,
+     * so no family is changed while it is being iterated.
+     * The timers which are due fire first, their listeners add and remove entities right away.
+     * The sound effects of the tick are played at its end.
+     * The clock has to be stepped by one tick before this is called, GameScreen uses a FixedTimestep for this.
+     */
+    public void update() {
+        profiler.begin(FrameProfiler.Phase.TIMERS);
+        timers.advance(clock.millis());
+        profiler.end();
+        engine.update(clock.getDeltaTime());
+        soundMixer.flush(soundOutput);
+    }
+
+    /**
+     * The timer of the exit time has fired, the round is over.
+     */
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        roundOver = true;
+    }
+
+    /**
+     * Requests a sound effect from the SoundMixer, it is played through the SoundOutput at the end of the tick.
+     * @param sound the sound effect
+     * @param category the category, which decides who gets a voice when too many sounds play
+     * @param volume the volume from 0 to 1
+     */
+    public void playSound(Sound sound, SoundMixer.Category category, float volume) {
+        soundMixer.request(sound, category, volume);
+    }
+
+    /**
+     * Decides if a loop is worth splitting across threads.
+     * @param size how many entities or lasers the loop processes
+     * @return the ParallelExecutor if there is one with more than one thread and the loop is
+     * longer than the parallel threshold of the ConfigSet, otherwise null and the loop runs serially
+     */
+    public ParallelExecutor getParallelExecutor(int size) {
+        if (parallelExecutor == null || parallelExecutor.getParallelism() < 2) return null;
+        return size >= configSet.getParallelThreshold() ? parallelExecutor : null;
+    }
+
+    /**
+     * Remembers the position of the fighter. Is called before the fighter is moved in a tick.
+     */
+    public void saveFighterPosition() {
+        previousFighterX = fighter.x;
+        previousFighterY = fighter.y;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the left edge of the fighter, interpolated between its previous and its current position
+     */
+    public float getInterpolatedFighterX(float alpha) {
+        return previousFighterX + (fighter.x - previousFighterX) * alpha;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the bottom edge of the fighter, interpolated between its previous and its current position
+     */
+    public float getInterpolatedFighterY(float alpha) {
+        return previousFighterY + (fighter.y - previousFighterY) * alpha;
+    }
+
+    /**
+     * The round is over when the fighter was destroyed and the wait after death has passed.
+     * @return true if the game should go back to the main menu
+     */
+    public boolean isRoundOver() {
+        return roundOver;
+    }
+
+    public ConfigSet getConfigSet() {
+        return configSet;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public InputSource getInput() {
+        return input;
+    }
+
+    public Rectangle getFighter() {
+        return fighter;
+    }
+
+    public void setFighter(Rectangle fighter) {
+        this.fighter = fighter;
+    }
+
+    public LaserStore getFighterLasers() {
+        return fighterLasers;
+    }
+
+    public LaserStore getAlienLasers() {
+        return alienLasers;
+    }
+
+    public BulletStore getAlienBullets() {
+        return alienBullets;
+    }
+
+    /**
+     * @return the particles of all explosions, moved by the MovementSystem
+     */
+    public ParticleStore getParticles() {
+        return particles;
+    }
+
+    /**
+     * @return emits the particles of explosions into getParticles()
+     */
+    public Explosions getExplosions() {
+        return explosions;
+    }
+
+    /**
+     * @return the asteroids and aliens by position, rebuilt by the HomingSystem at the start of every tick
+     */
+    public TargetIndex getTargetIndex() {
+        return targetIndex;
+    }
+
+    /**
+     * @return predicts the impacts of the lasers, see ConfigSet.isImpactPredictionEnabled()
+     */
+    public ImpactScheduler getImpactScheduler() {
+        return impactScheduler;
+    }
+
+    /**
+     * @return the game-time scheduler, the listeners of its timers are called at the start of a tick
+     */
+    public TimerWheel getTimers() {
+        return timers;
+    }
+
+    /**
+     * @return sends the waves of aliens
+     */
+    public AlienFleet getAlienFleet() {
+        return alienFleet;
+    }
+
+    /**
+     * @return the effect of the active power up, null if no power up is active
+     */
+    public PowerUpComponent getActivePowerUp() {
+        return powerUpSystem.getActivePowerUp();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    public long getExitTime() {
+        return exitTime;
+    }
+
+    /**
+     * @param exitTime the game time in milliseconds at which the round is over, a timer is set for it
+     */
+    public void setExitTime(long exitTime) {
+        this.exitTime = exitTime;
+        timers.schedule(exitTime, this, 0);
+    }
+
+    public SoundMixer getSoundMixer() {
+        return soundMixer;
+    }
+
+    public SoundOutput getSoundOutput() {
+        return soundOutput;
+    }
+
+    public void setSoundOutput(SoundOutput soundOutput) {
+        this.soundOutput = soundOutput;
+    }
+
+    public ParallelExecutor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    public void setParallelExecutor(ParallelExecutor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    public CollisionMasks getCollisionMasks() {
+        return collisionMasks;
+    }
+
+    /**
+     * @param collisionMasks the pixel masks of the sprites, they are given to the entities created from now on, may be null
+     */
+    public void setCollisionMasks(CollisionMasks collisionMasks) {
+        this.collisionMasks = collisionMasks;
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public PooledEngine getEngine() {
+        return engine;
+    }
+
+    public EntityFactory getEntityFactory() {
+        return entityFactory;
+    }
+
+    public EntityCounts getEntityCounts() {
+        return entityCounts;
+    }
+
+    public SpawnSystem getSpawnSystem() {
+        return spawnSystem;
+    }
+
+    public HomingSystem getHomingSystem() {
+        return homingSystem;
+    }
+
+    public MovementSystem getMovementSystem() {
+        return movementSystem;
+    }
+
+    public ControlSet getControlSet() {
+        return controlSet;
+    }
+
+    public PowerUpSystem getPowerUpSystem() {
+        return powerUpSystem;
+    }
+
+    public CollisionSystem getCollisionSystem() {
+        return collisionSystem;
+    }
+
+    public LifetimeSystem getLifetimeSystem() {
+        return lifetimeSystem;
+    }
+}
@@ -0,0 +1,13 @@
+package com.cosmicraiders;
+
+/**
+ * Reports how many garbage collections happened so far.
+ * There is no portable way to read this, so each launcher can provide its own implementation.
+ */
+public interface GcCounter {
+
+    /**
+     * @return the total number of garbage collections since the application started
+     */
+    long getCollectionCount();
+}
@@ -0,0 +1,51 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * An InputSource which reads the real keyboard, mouse and touch screen through Gdx.input.
+ * Pointer coordinates are unprojected with the camera of the GameScreen.
+ */
+public class GdxInputSource implements InputSource {
+    private final Camera camera;
+    /**
+     * reused for unprojecting, so reading the pointer does not allocate
+     */
+    private final Vector3 touchPos = new Vector3();
+
+    public GdxInputSource(Camera camera) {
+        this.camera = camera;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return Gdx.input.isKeyPressed(key);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return Gdx.input.isButtonPressed(button);
+    }
+
+    @Override
+    public boolean isTouched() {
+        return Gdx.input.isTouched();
+    }
+
+    @Override
+    public float getTouchX() {
+        return unprojectTouch().x;
+    }
+
+    @Override
+    public float getTouchY() {
+        return unprojectTouch().y;
+    }
+
+    private Vector3 unprojectTouch() {
+        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        return camera.unproject(touchPos);
+    }
+}
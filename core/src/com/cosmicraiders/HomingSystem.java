@@ -0,0 +1,96 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Rebuilds the TargetIndex of the simulation and turns every homing rocket towards the nearest asteroid or alien.
+ * It runs before the MovementSystem, so the index holds the positions of the end of the last tick
+ * (and the entities which the timers of this tick have spawned), and the new velocities of the rockets are applied in this tick.
+ * Every rocket looks for its target again in every tick, one nearest query each instead of a scan over all targets.
+ * A rocket turns by at most its turn rate, its sprite turns with it through the angular velocity.
+ */
+public class HomingSystem extends IteratingSystem {
+    public static final int PRIORITY = 1;
+    private static final Family ROCKETS = Family.all(RocketComponent.class, PositionComponent.class, VelocityComponent.class).get();
+    private static final Family TARGETS = Family.all(BoundsComponent.class, TypeComponent.class).get();
+    /**
+     * the types which are put into the TargetIndex and which rockets fly at
+     */
+    private static final int TARGET_TYPES = EntityType.ASTEROID.getBit() | EntityType.ALIEN.getBit();
+
+    private final GameSimulation simulation;
+    private ImmutableArray<Entity> targets;
+
+    public HomingSystem(GameSimulation simulation) {
+        super(ROCKETS, PRIORITY);
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        targets = engine.getEntitiesFor(TARGETS);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        simulation.getProfiler().begin(FrameProfiler.Phase.HOMING);
+        updateTargetIndex();
+        super.update(simulation.getClock().getDeltaTime());
+        simulation.getProfiler().end();
+    }
+
+    /**
+     * Puts the centers of all asteroids and aliens into the TargetIndex.
+     */
+    public void updateTargetIndex() {
+        TargetIndex index = simulation.getTargetIndex();
+        index.clear();
+        for (int i = 0; i < targets.size(); i++) {
+            Entity entity = targets.get(i);
+            EntityType type = Mappers.type.get(entity).type;
+            if ((type.getBit() & TARGET_TYPES) == 0) continue;
+            BoundsComponent bounds = Mappers.bounds.get(entity);
+            index.add(entity, type, (bounds.getMinX() + bounds.getMaxX()) / 2, (bounds.getMinY() + bounds.getMaxY()) / 2);
+        }
+        index.build();
+    }
+
+    /**
+     * Turns one rocket towards the nearest target. Without a target it flies on straight.
+     */
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.position.get(entity);
+        VelocityComponent velocity = Mappers.velocity.get(entity);
+        RocketComponent rocket = Mappers.rocket.get(entity);
+        float heading = MathUtils.atan2(velocity.y, velocity.x) * MathUtils.radiansToDegrees;
+
+        TargetIndex index = simulation.getTargetIndex();
+        int target = index.nearest(position.x, position.y, Float.MAX_VALUE, TARGET_TYPES);
+        if (target >= 0) {
+            float wanted = MathUtils.atan2(index.getY(target) - position.y, index.getX(target) - position.x) * MathUtils.radiansToDegrees;
+            float maxTurn = rocket.turnRate * deltaTime;
+            heading += MathUtils.clamp(normalize(wanted - heading), -maxTurn, maxTurn);
+            velocity.x = MathUtils.cosDeg(heading) * rocket.speed;
+            velocity.y = MathUtils.sinDeg(heading) * rocket.speed;
+        }
+        // the sprite points up, the MovementSystem turns it by the angular velocity
+        velocity.angular = deltaTime > 0 ? normalize(heading - 90 - position.rotation) / deltaTime : 0;
+    }
+
+    /**
+     * Auxiliary method, brings an angle difference into -180 to 180 degrees.
+     */
+    private static float normalize(float degrees) {
+        degrees %= 360;
+        if (degrees > 180) degrees -= 360;
+        if (degrees < -180) degrees += 360;
+        return degrees;
+    }
+}
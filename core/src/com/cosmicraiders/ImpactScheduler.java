@@ -0,0 +1,606 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Circle;
+
+import java.util.Arrays;
+
+/**
+ * Predicts when the lasers of a LaserStore will hit the entities their type targets, instead of testing every laser in every tick.
+ * Lasers, asteroids and aliens move in straight lines at a constant speed, so the time of impact of a laser and a target
+ * can be computed once, when the later of the two appears. The predicted impacts are kept in a binary min-heap of primitive arrays,
+ * CollisionSystem takes the due ones from it in every tick and checks that they are still valid:
+ * the laser may have hit something else first, and the target may have been destroyed.
+ * Because impacts are computed analytically, a fast laser can not tunnel through a target between two ticks.
+ * If the target has CollisionMasks, the first overlap of the bounds is only where the pixel test starts:
+ * while the bounds overlap, the impact is tested again at the positions of later moments, in steps short enough
+ * that the laser does not skip over any pixel, until the masks overlap or the bounds are apart again.
+ * <p>
+ * Whoever changes the velocity of a moving entity has to call velocityChanged(), which gives the entity a new impact stamp,
+ * so that all impacts predicted with the old velocity are ignored, and predicts new ones.
+ * New entities are noticed as a listener of the engine, new lasers by their serial numbers.
+ * Many new lasers are predicted in chunks on the ParallelExecutor, like the laser collisions without prediction.
+ * The fighter is controlled by the player and does not move in straight lines, its collisions are still tested every tick.
+ */
+public class ImpactScheduler implements EntityListener {
+    /**
+     * all entities which move and can be hit
+     */
+    public static final Family MOVING_COLLIDERS = Family.all(BoundsComponent.class, TypeComponent.class, VelocityComponent.class).get();
+
+    private final GameSimulation simulation;
+    /**
+     * the LaserStores whose type has targets
+     */
+    private final LaserStore[] stores;
+    /**
+     * per store, the serial number of the first laser which has not been predicted yet
+     */
+    private final int[] predictedSerials;
+    private final ImmutableArray<Entity> colliders;
+    private int nextStamp = 1;
+    /**
+     * the simulation time in seconds, advanced by the MovementSystem after it has moved everything
+     */
+    private double time;
+
+    /**
+     * the heap of predicted impacts, ordered by time
+     */
+    private int size;
+    private double[] times = new double[64];
+    /**
+     * when the bounds of the laser and the target stop overlapping
+     */
+    private double[] exits = new double[64];
+    private int[] storeIndices = new int[64];
+    private int[] serials = new int[64];
+    private Entity[] targets = new Entity[64];
+    private int[] stamps = new int[64];
+
+    /**
+     * the impact which was last returned by nextImpact()
+     */
+    private LaserStore impactLasers;
+    private int impactSlot;
+    private Entity impactTarget;
+
+    /**
+     * the time span of the impact which is being predicted on the calling thread
+     */
+    private final Window window = new Window();
+    private final LaserImpactSearch laserImpactSearch = new LaserImpactSearch();
+
+    /**
+     * Constructs a scheduler for the lasers of a simulation and registers it with the engine.
+     * @param simulation the simulation, its LaserStores have to exist already
+     */
+    public ImpactScheduler(GameSimulation simulation) {
+        this.simulation = simulation;
+        int count = 0;
+        LaserStore[] all = {simulation.getFighterLasers(), simulation.getAlienLasers()};
+        for (LaserStore store : all) {
+            if (store.getType().getTargets() != 0) count++;
+        }
+        stores = new LaserStore[count];
+        predictedSerials = new int[count];
+        count = 0;
+        for (LaserStore store : all) {
+            if (store.getType().getTargets() != 0) stores[count++] = store;
+        }
+        colliders = simulation.getEngine().getEntitiesFor(MOVING_COLLIDERS);
+        simulation.getEngine().addEntityListener(MOVING_COLLIDERS, this);
+    }
+
+    /**
+     * Forgets all predictions, e.g. for a new round. The lasers which exist now are not predicted anymore.
+     */
+    public void reset() {
+        clearHeap();
+        for (int s = 0; s < stores.length; s++) {
+            predictedSerials[s] = stores[s].getNextSerial();
+        }
+    }
+
+    /**
+     * Predicts all impacts again from the current positions, e.g. after the prediction was switched on in the ConfigSet.
+     */
+    public void rebuild() {
+        clearHeap();
+        for (int s = 0; s < stores.length; s++) {
+            predictedSerials[s] = stores[s].getNextSerial() - stores[s].getSpan();
+        }
+        predictNewLasers();
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        Mappers.velocity.get(entity).impactStamp = newStamp();
+        predictTarget(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        Mappers.velocity.get(entity).impactStamp = 0;
+    }
+
+    /**
+     * Has to be called when the velocity of a moving entity was changed, e.g. when an alien turns around
+     * or when the asteroids fall faster with the difficulty.
+     * The impacts which were predicted with the old velocity become invalid and new ones are predicted.
+     * @param entity the entity
+     */
+    public void velocityChanged(Entity entity) {
+        VelocityComponent velocity = Mappers.velocity.get(entity);
+        if (velocity == null || velocity.impactStamp == 0) return;
+        velocity.impactStamp = newStamp();
+        predictTarget(entity);
+    }
+
+    /**
+     * Advances the time of the scheduler. Is called once per tick after all entities and lasers have moved.
+     * @param delta the time in seconds
+     */
+    public void advance(float delta) {
+        time += delta;
+    }
+
+    /**
+     * Predicts the impacts of the lasers which were added since the last call.
+     * Above the parallel threshold of laser and target pairs, the new lasers are predicted in chunks on the ParallelExecutor.
+     */
+    public void predictNewLasers() {
+        if (!simulation.getConfigSet().isImpactPredictionEnabled()) return;
+        for (int s = 0; s < stores.length; s++) {
+            LaserStore lasers = stores[s];
+            int targetBits = lasers.getType().getTargets();
+            int newLasers = lasers.getNextSerial() - predictedSerials[s];
+            ParallelExecutor executor = simulation.getParallelExecutor(newLasers * colliders.size());
+            if (executor != null) {
+                predictNewLasersInParallel(s, executor);
+                predictedSerials[s] = lasers.getNextSerial();
+                continue;
+            }
+            for (int serial = predictedSerials[s]; serial < lasers.getNextSerial(); serial++) {
+                int slot = lasers.findSlot(serial);
+                if (slot < 0 || !lasers.isAlive(slot)) continue;
+                for (int i = 0; i < colliders.size(); i++) {
+                    Entity target = colliders.get(i);
+                    if (target.isScheduledForRemoval()) continue;
+                    if ((Mappers.type.get(target).type.getBit() & targetBits) == 0) continue;
+                    predict(s, slot, serial, target);
+                }
+            }
+            predictedSerials[s] = lasers.getNextSerial();
+        }
+    }
+
+    /**
+     * Auxiliary method for predictNewLasers(), computes the impacts of the new lasers of one store in chunks
+     * and then schedules them in the order of the lasers and targets, so the heap is the same as after the serial loop.
+     */
+    private void predictNewLasersInParallel(int storeIndex, ParallelExecutor executor) {
+        laserImpactSearch.prepare(storeIndex, executor.getParallelism());
+        executor.invokeAll(laserImpactSearch.chunkCount, laserImpactSearch);
+        for (int chunk = 0; chunk < laserImpactSearch.chunkCount; chunk++) {
+            ImpactBuffer impacts = laserImpactSearch.impacts[chunk];
+            for (int i = 0; i < impacts.size; i++) {
+                Entity target = colliders.get(impacts.colliderIndices[i]);
+                push(time + impacts.enters[i], time + impacts.exits[i], storeIndex, impacts.serials[i], target,
+                        Mappers.velocity.get(target).impactStamp);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, predicts the impacts of the already predicted lasers on a new or changed target.
+     * Lasers which have not been predicted yet are left to predictNewLasers().
+     */
+    private void predictTarget(Entity target) {
+        if (!simulation.getConfigSet().isImpactPredictionEnabled()) return;
+        int bit = Mappers.type.get(target).type.getBit();
+        for (int s = 0; s < stores.length; s++) {
+            LaserStore lasers = stores[s];
+            if ((lasers.getType().getTargets() & bit) == 0) continue;
+            for (int n = 0; n < lasers.getSpan() && lasers.getSerial(n) < predictedSerials[s]; n++) {
+                int slot = lasers.getSlot(n);
+                if (lasers.isAlive(slot)) {
+                    predict(s, slot, lasers.getSerial(n), target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, computes when one laser will first overlap one target and schedules the impact,
+     * unless they never overlap or the laser leaves the screen before.
+     */
+    private void predict(int storeIndex, int slot, int serial, Entity target) {
+        if (computeImpact(stores[storeIndex], slot, target, window)) {
+            push(time + window.enter, time + window.exit, storeIndex, serial, target, Mappers.velocity.get(target).impactStamp);
+        }
+    }
+
+    /**
+     * Auxiliary method, computes in which time span one laser overlaps one target.
+     * Circles are swept exactly, like CollisionSystem tests them in every tick, so a laser which passes a corner of the bounding box
+     * does not hit a circle without CollisionMasks.
+     * Only reads the laser and the target, so the chunks of a LaserImpactSearch can call it at the same time.
+     * @param window receives the time span, in seconds from now
+     * @return false if they never overlap or the laser leaves the screen before
+     */
+    private boolean computeImpact(LaserStore lasers, int slot, Entity target, Window window) {
+        BoundsComponent bounds = Mappers.bounds.get(target);
+        VelocityComponent velocity = Mappers.velocity.get(target);
+        float x = lasers.getX(slot);
+        float y = lasers.getY(slot);
+        float width = lasers.getWidth();
+        float height = lasers.getHeight();
+        float relativeY = velocity.y - lasers.getSpeed();
+
+        double first;
+        double last;
+        if (bounds.circular && velocity.x == 0) {
+            Circle circle = bounds.circle;
+            float dx = Math.max(Math.max(x - circle.x, circle.x - (x + width)), 0);
+            if (dx >= circle.radius) return false;
+            float halfChord = (float) Math.sqrt(circle.radius * circle.radius - dx * dx);
+            if (!window.sweep(circle.y - y, relativeY, -halfChord, height + halfChord)) return false;
+            first = window.enter;
+            last = window.exit;
+        } else if (bounds.circular) {
+            Circle circle = bounds.circle;
+            if (!window.sweepCircle(circle.x - x, circle.y - y, circle.radius, velocity.x, relativeY, width, height)) return false;
+            first = window.enter;
+            last = window.exit;
+        } else {
+            float minX = bounds.getMinX();
+            float minY = bounds.getMinY();
+            if (!window.sweep(minX - x, velocity.x, minX - bounds.getMaxX(), width)) return false;
+            first = window.enter;
+            last = window.exit;
+            if (!window.sweep(minY - y, relativeY, minY - bounds.getMaxY(), height)) return false;
+            first = Math.max(first, window.enter);
+            last = Math.min(last, window.exit);
+        }
+        first = Math.max(first, 0);
+        float speed = lasers.getSpeed();
+        double leavesScreen = speed > 0 ? (simulation.getConfigSet().getResolutionY() - y) / speed : (-height - y) / speed;
+        last = Math.min(last, leavesScreen);
+        if (first >= last) return false;
+        window.enter = first;
+        window.exit = last;
+        return true;
+    }
+
+    /**
+     * Takes the next impact which is due, skipping the ones which became invalid:
+     * the laser is gone, the target was removed or its velocity changed after the prediction.
+     * The impact can then be read with getImpactLasers(), getImpactSlot() and getImpactTarget().
+     * @return false if no more impacts are due in this tick
+     */
+    public boolean nextImpact() {
+        while (size > 0 && times[0] <= time) {
+            LaserStore lasers = stores[storeIndices[0]];
+            int slot = lasers.findSlot(serials[0]);
+            double impactTime = times[0];
+            double exitTime = exits[0];
+            int storeIndex = storeIndices[0];
+            int serial = serials[0];
+            Entity target = targets[0];
+            int stamp = stamps[0];
+            pop();
+
+            if (slot < 0 || !lasers.isAlive(slot) || target.isScheduledForRemoval()) continue;
+            VelocityComponent velocity = Mappers.velocity.get(target);
+            if (velocity == null || velocity.impactStamp != stamp) continue;
+            if (!masksOverlap(lasers, slot, target, velocity, impactTime - time)) {
+                double step = getMaskStep(lasers, velocity);
+                if (impactTime + step < exitTime) {
+                    push(impactTime + step, exitTime, storeIndex, serial, target, stamp);
+                }
+                continue;
+            }
+            impactLasers = lasers;
+            impactSlot = slot;
+            impactTarget = target;
+            return true;
+        }
+        impactTarget = null;
+        return false;
+    }
+
+    /**
+     * Auxiliary method for nextImpact(), tests the pixel mask of the target against the laser at another moment.
+     * Both move in straight lines, so their positions at that moment follow from the current ones.
+     * @param offset how many seconds from now, negative for the past
+     */
+    private boolean masksOverlap(LaserStore lasers, int slot, Entity target, VelocityComponent velocity, double offset) {
+        BoundsComponent bounds = Mappers.bounds.get(target);
+        if (bounds.masks == null) return true;
+        float dt = (float) offset;
+        float dx = velocity.x * dt;
+        float dy = velocity.y * dt;
+        float laserY = lasers.getY(slot) + lasers.getSpeed() * dt;
+        CollisionMask mask = bounds.getMask(Mappers.position.get(target).rotation + velocity.angular * dt);
+        return CollisionMask.overlaps(mask, bounds.getMinX() + dx, bounds.getMinY() + dy, bounds.getMaxX() + dx, bounds.getMaxY() + dy,
+                null, lasers.getX(slot), laserY, lasers.getX(slot) + lasers.getWidth(), laserY + lasers.getHeight());
+    }
+
+    /**
+     * Auxiliary method for nextImpact(), how long a laser and a target move relative to each other
+     * before the laser has moved on by its own size, so repeated pixel tests do not skip any pixel.
+     */
+    private double getMaskStep(LaserStore lasers, VelocityComponent velocity) {
+        double step = Double.POSITIVE_INFINITY;
+        if (velocity.x != 0) step = lasers.getWidth() / Math.abs(velocity.x);
+        float relativeY = velocity.y - lasers.getSpeed();
+        if (relativeY != 0) step = Math.min(step, lasers.getHeight() / Math.abs(relativeY));
+        return step;
+    }
+
+    /**
+     * Auxiliary method, hands out a new impact stamp, 0 is never used so that it can mark entities without one.
+     */
+    private int newStamp() {
+        int stamp = nextStamp++;
+        if (nextStamp == 0) nextStamp = 1;
+        return stamp;
+    }
+
+    /**
+     * Auxiliary method, adds an impact to the heap.
+     */
+    private void push(double impactTime, double exitTime, int storeIndex, int serial, Entity target, int stamp) {
+        if (size == times.length) grow();
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (times[parent] <= impactTime) break;
+            move(parent, i);
+            i = parent;
+        }
+        times[i] = impactTime;
+        exits[i] = exitTime;
+        storeIndices[i] = storeIndex;
+        serials[i] = serial;
+        targets[i] = target;
+        stamps[i] = stamp;
+    }
+
+    /**
+     * Auxiliary method, removes the earliest impact from the heap.
+     */
+    private void pop() {
+        size--;
+        int last = size;
+        double lastTime = times[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && times[child + 1] < times[child]) child++;
+            if (lastTime <= times[child]) break;
+            move(child, i);
+            i = child;
+        }
+        if (i != last) move(last, i);
+        targets[last] = null;
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        exits[to] = exits[from];
+        storeIndices[to] = storeIndices[from];
+        serials[to] = serials[from];
+        targets[to] = targets[from];
+        stamps[to] = stamps[from];
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        exits = Arrays.copyOf(exits, capacity);
+        storeIndices = Arrays.copyOf(storeIndices, capacity);
+        serials = Arrays.copyOf(serials, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+
+    private void clearHeap() {
+        for (int i = 0; i < size; i++) {
+            targets[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return how many impacts are scheduled, including ones which have become invalid
+     */
+    public int size() {
+        return size;
+    }
+
+    public LaserStore getImpactLasers() {
+        return impactLasers;
+    }
+
+    public int getImpactSlot() {
+        return impactSlot;
+    }
+
+    public Entity getImpactTarget() {
+        return impactTarget;
+    }
+
+    /**
+     * A time span in which a laser and a target overlap. Every thread which computes impacts has its own.
+     */
+    private static class Window {
+        private double enter;
+        private double exit;
+
+        /**
+         * Computes in which time span a distance which changes linearly lies strictly between two bounds.
+         * @param distance the distance now
+         * @param speed how fast the distance changes per second
+         * @param lower the lower bound
+         * @param upper the upper bound
+         * @return false if the distance never lies between the bounds, otherwise the span is stored in enter and exit
+         */
+        private boolean sweep(float distance, float speed, float lower, float upper) {
+            if (speed == 0) {
+                if (distance <= lower || distance >= upper) return false;
+                enter = Double.NEGATIVE_INFINITY;
+                exit = Double.POSITIVE_INFINITY;
+                return true;
+            }
+            double toLower = (lower - distance) / (double) speed;
+            double toUpper = (upper - distance) / (double) speed;
+            enter = Math.min(toLower, toUpper);
+            exit = Math.max(toLower, toUpper);
+            return true;
+        }
+
+        /**
+         * Computes in which time span a moving circle overlaps a rectangle which starts at the origin.
+         * The center of the circle has to be within the rectangle grown by the radius. Where it enters or leaves
+         * the grown rectangle next to a corner, it only overlaps while it is within the radius of that corner.
+         * @param centerX the horizontal position of the center now, relative to the rectangle
+         * @param centerY the vertical position of the center now, relative to the rectangle
+         * @param radius the radius of the circle
+         * @param speedX how fast the center moves horizontally, relative to the rectangle
+         * @param speedY how fast the center moves vertically, relative to the rectangle
+         * @param width the width of the rectangle
+         * @param height the height of the rectangle
+         * @return false if they never overlap, otherwise the span is stored in enter and exit
+         */
+        private boolean sweepCircle(float centerX, float centerY, float radius, float speedX, float speedY, float width, float height) {
+            if (!sweep(centerX, speedX, -radius, width + radius)) return false;
+            double first = enter;
+            double last = exit;
+            if (!sweep(centerY, speedY, -radius, height + radius)) return false;
+            first = Math.max(first, enter);
+            last = Math.min(last, exit);
+            if (first >= last) return false;
+            if (!sweepCorner(first, centerX, centerY, radius, speedX, speedY, width, height)) return false;
+            first = Math.max(first, enter);
+            if (!sweepCorner(last, centerX, centerY, radius, speedX, speedY, width, height)) return false;
+            last = Math.min(last, exit);
+            enter = first;
+            exit = last;
+            return first < last;
+        }
+
+        /**
+         * Auxiliary method for sweepCircle(), computes in which time span the center is within the radius of the corner
+         * it is next to at the given moment. If it is next to a side at that moment, the span is unbounded.
+         * @return false if the center never comes within the radius of the corner
+         */
+        private boolean sweepCorner(double moment, float centerX, float centerY, float radius, float speedX, float speedY,
+                                    float width, float height) {
+            double x = centerX + speedX * moment;
+            double y = centerY + speedY * moment;
+            if ((x >= 0 && x <= width) || (y >= 0 && y <= height)) {
+                enter = Double.NEGATIVE_INFINITY;
+                exit = Double.POSITIVE_INFINITY;
+                return true;
+            }
+            double cornerX = centerX - (x < 0 ? 0 : width);
+            double cornerY = centerY - (y < 0 ? 0 : height);
+            // |corner + speed * t| = radius
+            double a = (double) speedX * speedX + (double) speedY * speedY;
+            double b = cornerX * speedX + cornerY * speedY;
+            double c = cornerX * cornerX + cornerY * cornerY - (double) radius * radius;
+            double discriminant = b * b - a * c;
+            if (a == 0 || discriminant <= 0) return false;
+            double root = Math.sqrt(discriminant);
+            enter = (-b - root) / a;
+            exit = (-b + root) / a;
+            return true;
+        }
+    }
+
+    /**
+     * The impacts one chunk of a LaserImpactSearch found, in the order of the lasers and targets.
+     */
+    private static class ImpactBuffer {
+        private int size;
+        private double[] enters = new double[16];
+        private double[] exits = new double[16];
+        private int[] serials = new int[16];
+        /**
+         * the indices of the targets in the colliders
+         */
+        private int[] colliderIndices = new int[16];
+
+        private void add(double enter, double exit, int serial, int colliderIndex) {
+            if (size == enters.length) {
+                int capacity = size * 2;
+                enters = Arrays.copyOf(enters, capacity);
+                exits = Arrays.copyOf(exits, capacity);
+                serials = Arrays.copyOf(serials, capacity);
+                colliderIndices = Arrays.copyOf(colliderIndices, capacity);
+            }
+            enters[size] = enter;
+            exits[size] = exit;
+            serials[size] = serial;
+            colliderIndices[size] = colliderIndex;
+            size++;
+        }
+    }
+
+    /**
+     * Computes the impacts of one chunk of the new lasers of a store on all targets, without changing anything but its own buffers.
+     * Every chunk has its own Window, so the chunks can run at the same time.
+     */
+    private class LaserImpactSearch implements ParallelExecutor.ChunkTask {
+        private int storeIndex;
+        private int firstSerial;
+        private int endSerial;
+        private int chunkCount;
+        private ImpactBuffer[] impacts = new ImpactBuffer[0];
+        private Window[] windows = new Window[0];
+
+        private void prepare(int storeIndex, int chunkCount) {
+            this.storeIndex = storeIndex;
+            this.firstSerial = predictedSerials[storeIndex];
+            this.endSerial = stores[storeIndex].getNextSerial();
+            this.chunkCount = chunkCount;
+            if (impacts.length < chunkCount) {
+                impacts = new ImpactBuffer[chunkCount];
+                windows = new Window[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    impacts[i] = new ImpactBuffer();
+                    windows[i] = new Window();
+                }
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                impacts[i].size = 0;
+            }
+        }
+
+        @Override
+        public void run(int chunk) {
+            LaserStore lasers = stores[storeIndex];
+            int targetBits = lasers.getType().getTargets();
+            int count = endSerial - firstSerial;
+            int last = firstSerial + ParallelExecutor.chunkStart(count, chunk + 1, chunkCount);
+            for (int serial = firstSerial + ParallelExecutor.chunkStart(count, chunk, chunkCount); serial < last; serial++) {
+                int slot = lasers.findSlot(serial);
+                if (slot < 0 || !lasers.isAlive(slot)) continue;
+                for (int i = 0; i < colliders.size(); i++) {
+                    Entity target = colliders.get(i);
+                    if (target.isScheduledForRemoval()) continue;
+                    if ((Mappers.type.get(target).type.getBit() & targetBits) == 0) continue;
+                    if (computeImpact(lasers, slot, target, windows[chunk])) {
+                        impacts[chunk].add(windows[chunk].enter, windows[chunk].exit, serial, i);
+                    }
+                }
+            }
+        }
+    }
+}
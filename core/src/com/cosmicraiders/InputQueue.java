@@ -0,0 +1,65 @@
+package com.cosmicraiders;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carries InputSnapshots from the render thread to the simulation thread without locks.
+ * It is a ring buffer for exactly one producer and one consumer: the producer only writes the tail,
+ * the consumer only writes the head, and the snapshots in the slots are preallocated and reused.
+ * If the simulation falls so far behind that the queue is full, the newest input is dropped.
+ */
+public class InputQueue {
+    private final InputSnapshot[] slots;
+    private final int mask;
+    /**
+     * the number of snapshots taken by the consumer
+     */
+    private final AtomicInteger head = new AtomicInteger();
+    /**
+     * the number of snapshots added by the producer
+     */
+    private final AtomicInteger tail = new AtomicInteger();
+
+    /**
+     * @param capacity how many snapshots can wait, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new InputSnapshot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new InputSnapshot();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Copies the current input into the queue. Is called by the producer.
+     * @param source the input
+     * @param profiling true if the ProfilerOverlay is shown
+     * @return false if the queue was full and the input was dropped
+     */
+    public boolean offer(InputSource source, boolean profiling) {
+        int t = tail.get();
+        if (t - head.get() == slots.length) return false;
+        slots[t & mask].set(source, profiling);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Takes all waiting snapshots and merges them into one, see InputSnapshot.merge(). Is called by the consumer.
+     * @param target receives the merged input, it is left unchanged if nothing is waiting
+     * @return false if nothing was waiting
+     */
+    public boolean drainInto(InputSnapshot target) {
+        int h = head.get();
+        int t = tail.get();
+        if (h == t) return false;
+        target.set(slots[h & mask]);
+        for (int n = h + 1; n != t; n++) {
+            target.merge(slots[n & mask]);
+        }
+        head.lazySet(t);
+        return true;
+    }
+}
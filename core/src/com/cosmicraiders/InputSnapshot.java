@@ -0,0 +1,102 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Input;
+
+/**
+ * An InputSource which holds a copy of the input state instead of reading a device.
+ * The render thread copies the real input into snapshots and hands them to the simulation thread,
+ * which never touches Gdx.input, see SimulationThread.
+ * Besides the devices, a snapshot carries whether the ProfilerOverlay is shown,
+ * so the simulation thread turns its own FrameProfiler on and off.
+ */
+public class InputSnapshot implements InputSource {
+    private static final int BUTTON_COUNT = Input.Buttons.FORWARD + 1;
+
+    private final boolean[] keys = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private final boolean[] buttons = new boolean[BUTTON_COUNT];
+    private boolean touched;
+    private float touchX;
+    private float touchY;
+    private boolean profiling;
+
+    /**
+     * Copies the current state of another source.
+     * @param source the source, e.g. a GdxInputSource
+     * @param profiling true if the ProfilerOverlay is shown
+     */
+    public void set(InputSource source, boolean profiling) {
+        this.profiling = profiling;
+        for (int key = 0; key < keys.length; key++) {
+            keys[key] = source.isKeyPressed(key);
+        }
+        for (int button = 0; button < BUTTON_COUNT; button++) {
+            buttons[button] = source.isButtonPressed(button);
+        }
+        touched = source.isTouched();
+        touchX = source.getTouchX();
+        touchY = source.getTouchY();
+    }
+
+    /**
+     * Copies another snapshot.
+     * @param snapshot the snapshot
+     */
+    public void set(InputSnapshot snapshot) {
+        System.arraycopy(snapshot.keys, 0, keys, 0, keys.length);
+        System.arraycopy(snapshot.buttons, 0, buttons, 0, BUTTON_COUNT);
+        touched = snapshot.touched;
+        touchX = snapshot.touchX;
+        touchY = snapshot.touchY;
+        profiling = snapshot.profiling;
+    }
+
+    /**
+     * Adds a later snapshot to this one: a key or button counts as pressed if it was pressed in either,
+     * so a short tap between two ticks is not lost. The pointer position and the profiling of the later snapshot win.
+     * @param later the snapshot which was taken after this one
+     */
+    public void merge(InputSnapshot later) {
+        for (int key = 0; key < keys.length; key++) {
+            keys[key] |= later.keys[key];
+        }
+        for (int button = 0; button < BUTTON_COUNT; button++) {
+            buttons[button] |= later.buttons[button];
+        }
+        touched |= later.touched;
+        touchX = later.touchX;
+        touchY = later.touchY;
+        profiling = later.profiling;
+    }
+
+    /**
+     * @return true if the ProfilerOverlay was shown when the snapshot was taken
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return key >= 0 && key < keys.length && keys[key];
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return button >= 0 && button < BUTTON_COUNT && buttons[button];
+    }
+
+    @Override
+    public boolean isTouched() {
+        return touched;
+    }
+
+    @Override
+    public float getTouchX() {
+        return touchX;
+    }
+
+    @Override
+    public float getTouchY() {
+        return touchY;
+    }
+}
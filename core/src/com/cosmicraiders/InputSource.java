@@ -0,0 +1,25 @@
+package com.cosmicraiders;
+
+/**
+ * The input state the simulation reacts to.
+ * Key and button codes are the ones from libGDX's Input.Keys and Input.Buttons.
+ * Touch coordinates are already converted to game coordinates.
+ */
+public interface InputSource {
+
+    boolean isKeyPressed(int key);
+
+    boolean isButtonPressed(int button);
+
+    boolean isTouched();
+
+    /**
+     * @return the horizontal game coordinate of the touch or mouse pointer
+     */
+    float getTouchX();
+
+    /**
+     * @return the vertical game coordinate of the touch or mouse pointer
+     */
+    float getTouchY();
+}
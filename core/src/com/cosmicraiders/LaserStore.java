@@ -0,0 +1,318 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Holds all lasers of one kind as a structure of arrays in a FIFO ring buffer.
+ * All lasers of a kind have the same size and speed, so only their positions are stored, in parallel float arrays.
+ * Because they all move at the same speed, the oldest laser is normally the first to leave the screen:
+ * new lasers are pushed at the tail and lasers which left the screen are popped from the head in O(1).
+ * A laser which is removed in the middle, e.g. by a hit, is only marked as dead (a tombstone)
+ * and skipped until it reaches the head. Lasers which overtake an older one, because the fighter moved up
+ * between two shots, are also tombstoned when they leave the screen.
+ * Objects without a common velocity, like asteroids and aliens, are entities of the engine instead.
+ * <p>
+ * The lasers are visited by slot: for (n = 0; n < getSpan(); n++) { slot = getSlot(n); if (isAlive(slot)) ... }
+ */
+public class LaserStore implements EntityCounts.Store {
+    private final EntityType type;
+    private final float width;
+    private final float height;
+    /**
+     * vertical speed in pixels per second, negative for lasers which fly downwards
+     */
+    private final float speed;
+
+    /**
+     * the left edges of the lasers
+     */
+    private float[] x;
+    /**
+     * the bottom edges of the lasers
+     */
+    private float[] y;
+    /**
+     * false for empty slots and tombstones
+     */
+    private boolean[] alive;
+    /**
+     * capacity - 1, the capacity is a power of two so that a slot can be wrapped with a bit mask
+     */
+    private int mask;
+    /**
+     * the slot of the oldest laser
+     */
+    private int head;
+    /**
+     * how many slots from the head on are in use, including tombstones
+     */
+    private int span;
+    /**
+     * how many lasers are alive
+     */
+    private int size;
+    /**
+     * the highest number of lasers which were alive at the same time
+     */
+    private int highWaterMark;
+    /**
+     * the serial number of the laser at the head. Every added laser gets the next serial number,
+     * so a laser can be found again by its serial number even after slots were reused or the arrays grew
+     */
+    private int headSerial;
+    /**
+     * how far every laser moved in the last tick, all lasers move the same distance,
+     * so the previous positions for interpolated rendering do not have to be stored
+     */
+    private float lastStep;
+
+    /**
+     * Constructs an empty store.
+     * @param type FIGHTER_LASER or ALIEN_LASER
+     * @param width the width of every laser
+     * @param height the height of every laser
+     * @param speed the vertical speed of every laser in pixels per second
+     * @param initialCapacity how many lasers fit in before the arrays have to grow, is rounded up to a power of two
+     */
+    public LaserStore(EntityType type, float width, float height, float speed, int initialCapacity) {
+        this.type = type;
+        this.width = width;
+        this.height = height;
+        this.speed = speed;
+        int capacity = 1;
+        while (capacity < initialCapacity) capacity <<= 1;
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.alive = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Pushes a new laser at the tail.
+     * @param left the left edge
+     * @param bottom the bottom edge
+     */
+    public void add(float left, float bottom) {
+        if (span == x.length) grow();
+        int slot = (head + span) & mask;
+        x[slot] = left;
+        y[slot] = bottom;
+        alive[slot] = true;
+        span++;
+        size++;
+        if (size > highWaterMark) highWaterMark = size;
+    }
+
+    /**
+     * Doubles the capacity and moves the lasers to the front of the new arrays, oldest first.
+     */
+    private void grow() {
+        int capacity = x.length * 2;
+        float[] newX = new float[capacity];
+        float[] newY = new float[capacity];
+        boolean[] newAlive = new boolean[capacity];
+        for (int n = 0; n < span; n++) {
+            int slot = (head + n) & mask;
+            newX[n] = x[slot];
+            newY[n] = y[slot];
+            newAlive[n] = alive[slot];
+        }
+        x = newX;
+        y = newY;
+        alive = newAlive;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    /**
+     * Removes a laser. It becomes a tombstone which is popped by the next move() once it has reached the head,
+     * so the slots and age ranks of the other lasers stay valid during a loop.
+     * @param slot the slot of the laser
+     */
+    public void remove(int slot) {
+        if (!alive[slot]) return;
+        alive[slot] = false;
+        size--;
+    }
+
+    /**
+     * Pops all dead lasers from the head, stops at the first one which is alive.
+     */
+    private void popDeadHead() {
+        while (span > 0 && !alive[head]) {
+            head = (head + 1) & mask;
+            span--;
+            headSerial++;
+        }
+    }
+
+    /**
+     * Removes all lasers.
+     */
+    public void clear() {
+        for (int n = 0; n < span; n++) {
+            alive[(head + n) & mask] = false;
+        }
+        headSerial += span;
+        head = 0;
+        span = 0;
+        size = 0;
+        lastStep = 0;
+    }
+
+    /**
+     * Moves all lasers by their speed. Lasers which have left the screen are popped from the head,
+     * a laser which left the screen before an older one is tombstoned.
+     * @param delta the time in seconds
+     * @param screenHeight the height of the screen
+     */
+    public void move(float delta, float screenHeight) {
+        float dy = speed * delta;
+        finishMove(dy, moveRange(dy, screenHeight, 0, span));
+    }
+
+    /**
+     * Moves the lasers with the age ranks from first to last, excluding last.
+     * Disjoint ranges can be moved by different threads at the same time,
+     * afterwards finishMove() has to be called once with the sum of the results.
+     * @param dy how far every laser moves
+     * @param screenHeight the height of the screen
+     * @param first the age rank of the first laser
+     * @param last the age rank after the last laser
+     * @return how many lasers left the screen, they are tombstoned but still counted by size()
+     */
+    public int moveRange(float dy, float screenHeight, int first, int last) {
+        int left = 0;
+        for (int n = first; n < last; n++) {
+            int slot = (head + n) & mask;
+            if (!alive[slot]) continue;
+            float bottom = y[slot] + dy;
+            y[slot] = bottom;
+            if (bottom + height <= 0 || bottom >= screenHeight) {
+                alive[slot] = false;
+                left++;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Completes a move after all ranges were moved: updates the size and pops the dead lasers from the head.
+     * @param dy how far every laser moved
+     * @param left how many lasers left the screen in all ranges together
+     */
+    public void finishMove(float dy, int left) {
+        lastStep = dy;
+        size -= left;
+        popDeadHead();
+    }
+
+    /**
+     * Fills a Rectangle with the bounds of one laser, e.g. for Intersector.
+     * @param slot the slot of the laser
+     * @param out the Rectangle to fill
+     * @return out, for chaining
+     */
+    public Rectangle getBounds(int slot, Rectangle out) {
+        return out.set(x[slot], y[slot], width, height);
+    }
+
+    /**
+     * @return how many slots from the head on are in use, including tombstones
+     */
+    public int getSpan() {
+        return span;
+    }
+
+    /**
+     * @param n the age rank of a laser, 0 is the oldest
+     * @return the slot of the laser
+     */
+    public int getSlot(int n) {
+        return (head + n) & mask;
+    }
+
+    /**
+     * @param n the age rank of a laser, 0 is the oldest
+     * @return the serial number of the laser, which does not change while the laser exists
+     */
+    public int getSerial(int n) {
+        return headSerial + n;
+    }
+
+    /**
+     * @return the serial number the next added laser will get
+     */
+    public int getNextSerial() {
+        return headSerial + span;
+    }
+
+    /**
+     * @param serial the serial number of a laser
+     * @return the slot of the laser, -1 if it has already been popped
+     */
+    public int findSlot(int serial) {
+        int n = serial - headSerial;
+        if (n < 0 || n >= span) return -1;
+        return (head + n) & mask;
+    }
+
+    /**
+     * @param slot a slot
+     * @return false if the slot is a tombstone
+     */
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * @return how many lasers are alive
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * @param slot the slot of the laser
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the bottom edge of the laser, interpolated between its previous and its current position
+     */
+    public float getInterpolatedY(int slot, float alpha) {
+        return y[slot] - lastStep * (1 - alpha);
+    }
+
+    @Override
+    public EntityType getType() {
+        return type;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public float getLastStep() {
+        return lastStep;
+    }
+}
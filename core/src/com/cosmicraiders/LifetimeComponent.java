@@ -0,0 +1,24 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Gives an entity a limited lifetime, e.g. a rocket. The LifetimeSystem removes the entity once it has expired, with a timer of the TimerWheel.
+ */
+public class LifetimeComponent implements Component, Pool.Poolable {
+    /**
+     * the game time in milliseconds after which the entity is removed
+     */
+    public long expiryTime;
+    /**
+     * the handle of the timer which removes the entity
+     */
+    public long timer = TimerWheel.NONE;
+
+    @Override
+    public void reset() {
+        expiryTime = 0;
+        timer = TimerWheel.NONE;
+    }
+}
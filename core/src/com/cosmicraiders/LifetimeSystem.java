@@ -0,0 +1,53 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+
+/**
+ * Removes entities whose lifetime has expired, e.g. rockets.
+ * Every entity with a lifetime gets a timer of the TimerWheel when it is added to the engine,
+ * so expired entities are found without looking at the others. The timer fires after the expiry time,
+ * so an entity is shown for at least one frame. An entity which is removed otherwise has its timer cancelled.
+ */
+public class LifetimeSystem extends EntitySystem implements EntityListener, TimerWheel.Listener {
+    public static final int PRIORITY = 6;
+    private static final Family EXPIRING = Family.all(LifetimeComponent.class).get();
+
+    private final GameSimulation simulation;
+
+    public LifetimeSystem(GameSimulation simulation) {
+        super(PRIORITY);
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(EXPIRING, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        LifetimeComponent lifetime = Mappers.lifetime.get(entity);
+        lifetime.timer = simulation.getTimers().schedule(lifetime.expiryTime + 1, this, 0, entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        LifetimeComponent lifetime = Mappers.lifetime.get(entity);
+        simulation.getTimers().cancel(lifetime.timer);
+        lifetime.timer = TimerWheel.NONE;
+    }
+
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        getEngine().removeEntity((Entity) attachment);
+    }
+}
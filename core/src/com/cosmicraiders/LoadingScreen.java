@@ -0,0 +1,103 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * This is the first screen of the game. It shows a progress bar while the assets of the main menu are loaded.
+ * It does not need any assets itself, the bar is drawn with a ShapeRenderer.
+ * Once the menu assets are loaded, CosmicRaiders switches to the main menu.
+ */
+public class LoadingScreen implements Screen {
+
+    /**
+     * how many milliseconds per frame the AssetManager may spend on finishing assets on the render thread
+     */
+    private static final int LOADING_BUDGET_MILLIS = 12;
+
+    private final CosmicRaiders game;
+    private final AssetManager assetManager;
+    private final OrthographicCamera camera;
+    private ShapeRenderer shapeRenderer;
+
+    /**
+     * Constructs the loading screen.
+     * @param game the top layer of the libGDX hierarchy
+     * @param assetManager the AssetManager which loads the menu assets
+     */
+    public LoadingScreen(final CosmicRaiders game, AssetManager assetManager) {
+        this.game = game;
+        this.assetManager = assetManager;
+
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, game.getConfigSet().getResolutionX(), game.getConfigSet().getResolutionY());
+    }
+
+    @Override
+    public void show() {
+        shapeRenderer = new ShapeRenderer();
+    }
+
+    /**
+     * Draws the progress bar and lets the AssetManager continue loading.
+     * @param delta The time in seconds since the last render.
+     */
+    @Override
+    public void render(float delta) {
+        ScreenUtils.clear(Color.BLACK);
+
+        float barWidth = game.getConfigSet().getResolutionX() / 2f;
+        float barHeight = 20;
+        float barX = (game.getConfigSet().getResolutionX() - barWidth) / 2;
+        float barY = (game.getConfigSet().getResolutionY() - barHeight) / 2;
+
+        camera.update();
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.setColor(Color.GREEN);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.end();
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.rect(barX, barY, barWidth * assetManager.getProgress(), barHeight);
+        shapeRenderer.end();
+
+        if (assetManager.update(LOADING_BUDGET_MILLIS)) {
+            game.menuAssetsLoaded();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+
+    }
+
+    @Override
+    public void pause() {
+
+    }
+
+    @Override
+    public void resume() {
+
+    }
+
+    /**
+     * The loading screen is only shown once, so its ShapeRenderer is disposed when it is hidden.
+     */
+    @Override
+    public void hide() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+            shapeRenderer = null;
+        }
+    }
+}
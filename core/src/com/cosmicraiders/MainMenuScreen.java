@@ -19,9 +19,15 @@ public class MainMenuScreen implements Screen {
     private ConfigSet configSet;
 
     private HorizontalCenteredGlyphLayout welcomeText;
+    private HorizontalCenteredGlyphLayout loadingText;
     private HorizontalCenteredGlyphLayout instructionsText;
     private HorizontalCenteredGlyphLayout highscoreText;
     private HorizontalCenteredGlyphLayout lastScoreText;
+    /**
+     * the scores which highscoreText and lastScoreText were built for, -1 forces the first build
+     */
+    private int shownHighscore = -1;
+    private int shownLastScore = -1;
 
     /**
      * Constructs the main menu screen which is the first thing the player sees.
@@ -36,6 +42,7 @@ public class MainMenuScreen implements Screen {
         camera.setToOrtho(false, 1920, 1080);
 
         welcomeText = new HorizontalCenteredGlyphLayout(game.getFont(), "Welcome to Cosmic Raiders", configSet.getResolutionX());
+        loadingText = new HorizontalCenteredGlyphLayout(game.getFont(), "Loading...", configSet.getResolutionX());
         instructionsText = new HorizontalCenteredGlyphLayout(game.getFont(), "CLICK to begin", configSet.getResolutionX());
         highscoreText = new HorizontalCenteredGlyphLayout(game.getFont(), "", configSet.getResolutionX());
         lastScoreText = new HorizontalCenteredGlyphLayout(game.getFont(), "", configSet.getResolutionX());
@@ -53,6 +60,7 @@ public class MainMenuScreen implements Screen {
 
     /**
      * The render() method checks for player input to start game.
+     * A round can only be started once the sound effects have been loaded in the background.
      * It also checks the Scores class for scores to display.
      * @param delta The time in seconds since the last render.
      */
@@ -72,12 +80,23 @@ public class MainMenuScreen implements Screen {
         game.getBatch().draw(AssetSet.cosmicRaidersLogoImage, configSet.getResolutionX() / 2 - logoWidth/2, 600, logoWidth, 300);
 
         //game.font.draw(game.batch, welcomeText, welcomeText.getX(), 600);
-        game.getFont().draw(game.getBatch(), instructionsText, instructionsText.getX(), 500);
+        if (game.isGameAssetsLoaded()) {
+            game.getFont().draw(game.getBatch(), instructionsText, instructionsText.getX(), 500);
+        } else {
+            game.getFont().draw(game.getBatch(), loadingText, loadingText.getX(), 500);
+        }
 
 
         if (Scores.getRoundsPlayed() > 0) {
-            highscoreText.setText("Highscore: " + Scores.getHighscore());
-            lastScoreText.setText("Last Score: " + Scores.getLastScore());
+            // only build new texts when the scores have changed, so rendering the menu does not allocate
+            if (Scores.getHighscore() != shownHighscore) {
+                shownHighscore = Scores.getHighscore();
+                highscoreText.setText("Highscore: " + shownHighscore);
+            }
+            if (Scores.getLastScore() != shownLastScore) {
+                shownLastScore = Scores.getLastScore();
+                lastScoreText.setText("Last Score: " + shownLastScore);
+            }
             game.getFont().draw(game.getBatch(), highscoreText, highscoreText.getX(), 300);
             game.getFont().draw(game.getBatch(), lastScoreText, lastScoreText.getX(), 200);
 //            game.font.draw(game.batch, "Rounds played: " + Scores.getRoundsPlayed(), 450, 100);
@@ -85,8 +104,8 @@ public class MainMenuScreen implements Screen {
 
         game.getBatch().end();
 
-        if (Gdx.input.isButtonPressed(Input.Buttons.LEFT) || Gdx.input.isKeyPressed(Input.Keys.ENTER)) {
-            game.getGameScreen().setGameOver(false);
+        if (game.isGameAssetsLoaded() && (Gdx.input.isButtonPressed(Input.Buttons.LEFT) || Gdx.input.isKeyPressed(Input.Keys.ENTER))) {
+            game.getGameScreen().getSimulation().setGameOver(false);
             game.setScreen(game.getGameScreen());
         }
     }
@@ -0,0 +1,69 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * An InputSource whose state is set by code instead of a player.
+ * Is used to drive the simulation without a window, e.g. for soak tests and benchmarks.
+ */
+public class ManualInputSource implements InputSource {
+    private final IntSet pressedKeys = new IntSet();
+    private final IntSet pressedButtons = new IntSet();
+    private boolean touched;
+    private float touchX;
+    private float touchY;
+
+    public void setKeyPressed(int key, boolean pressed) {
+        if (pressed) {
+            pressedKeys.add(key);
+        } else {
+            pressedKeys.remove(key);
+        }
+    }
+
+    public void setButtonPressed(int button, boolean pressed) {
+        if (pressed) {
+            pressedButtons.add(button);
+        } else {
+            pressedButtons.remove(button);
+        }
+    }
+
+    /**
+     * Touches the screen at the given game coordinates.
+     */
+    public void touch(float x, float y) {
+        touched = true;
+        touchX = x;
+        touchY = y;
+    }
+
+    public void release() {
+        touched = false;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return pressedKeys.contains(key);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return pressedButtons.contains(button);
+    }
+
+    @Override
+    public boolean isTouched() {
+        return touched;
+    }
+
+    @Override
+    public float getTouchX() {
+        return touchX;
+    }
+
+    @Override
+    public float getTouchY() {
+        return touchY;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * Shared ComponentMappers for fast component access from all systems.
+ */
+public final class Mappers {
+    public static final ComponentMapper<PositionComponent> position = ComponentMapper.getFor(PositionComponent.class);
+    public static final ComponentMapper<VelocityComponent> velocity = ComponentMapper.getFor(VelocityComponent.class);
+    public static final ComponentMapper<BoundsComponent> bounds = ComponentMapper.getFor(BoundsComponent.class);
+    public static final ComponentMapper<LifetimeComponent> lifetime = ComponentMapper.getFor(LifetimeComponent.class);
+    public static final ComponentMapper<SpriteComponent> sprite = ComponentMapper.getFor(SpriteComponent.class);
+    public static final ComponentMapper<TypeComponent> type = ComponentMapper.getFor(TypeComponent.class);
+    public static final ComponentMapper<PowerUpComponent> powerUp = ComponentMapper.getFor(PowerUpComponent.class);
+    public static final ComponentMapper<AlienComponent> alien = ComponentMapper.getFor(AlienComponent.class);
+    public static final ComponentMapper<RocketComponent> rocket = ComponentMapper.getFor(RocketComponent.class);
+
+    private Mappers() {
+    }
+}
@@ -0,0 +1,191 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Moves and rotates every entity with a velocity and removes it once it has left the screen.
+ * The lasers in the LaserStores, the bullets and the explosion particles are moved afterwards. Aliens are steered by the AlienFleet.
+ * The ImpactScheduler is told about new lasers before anything moves,
+ * and its time is advanced once everything has moved.
+ * Above the parallel threshold the entities and the lasers are moved in chunks on the ParallelExecutor.
+ * Every chunk only changes its own entities and collects the ones which left the screen,
+ * they are removed afterwards in the same order as in the serial loop.
+ */
+public class MovementSystem extends IteratingSystem {
+    public static final int PRIORITY = 2;
+    private static final Family MOVING = Family.all(PositionComponent.class, VelocityComponent.class).get();
+
+    private final GameSimulation simulation;
+    private final EntityChunks entityChunks = new EntityChunks();
+    private final LaserChunks laserChunks = new LaserChunks();
+
+    /**
+     * This constructor gets a reference to the GameSimulation instance.
+     */
+    public MovementSystem(GameSimulation simulation) {
+        super(MOVING, PRIORITY);
+        this.simulation = simulation;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        simulation.getProfiler().begin(FrameProfiler.Phase.MOVEMENT);
+        simulation.getImpactScheduler().predictNewLasers();
+        ParallelExecutor executor = simulation.getParallelExecutor(getEntities().size());
+        if (executor == null) {
+            super.update(deltaTime);
+        } else {
+            moveEntitiesInParallel(executor);
+        }
+        moveLasers(simulation.getFighterLasers());
+        moveLasers(simulation.getAlienLasers());
+        moveBullets(simulation.getAlienBullets());
+        simulation.getParticles().update(simulation.getClock().getDeltaTime());
+        simulation.getImpactScheduler().advance(simulation.getClock().getDeltaTime());
+        simulation.getProfiler().end();
+    }
+
+    /**
+     * Moves one entity and removes it when it has left the screen, see moveEntity().
+     */
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        if (moveEntity(entity, simulation.getClock().getDeltaTime())) {
+            getEngine().removeEntity(entity);
+        }
+    }
+
+    /**
+     * Moves one entity by its velocity. The position before the move is saved for interpolated rendering.
+     * Only changes the components of this entity, so it can run on any thread.
+     * @param entity the entity
+     * @param delta the time in seconds
+     * @return true if the entity has left the screen at the top or the bottom, or at a side while moving away from it,
+     *         e.g. a fragment of an asteroid
+     */
+    private boolean moveEntity(Entity entity, float delta) {
+        VelocityComponent velocity = Mappers.velocity.get(entity);
+        PositionComponent position = Mappers.position.get(entity);
+        position.savePrevious();
+        position.x += velocity.x * delta;
+        position.y += velocity.y * delta;
+        position.rotation += velocity.angular * delta;
+
+        BoundsComponent bounds = Mappers.bounds.get(entity);
+        if (bounds == null) return false;
+        bounds.setPosition(position.x, position.y);
+        return (velocity.y < 0 && bounds.getMaxY() < 0)
+                || (velocity.y > 0 && bounds.getMinY() >= simulation.getConfigSet().getResolutionY())
+                || (velocity.x < 0 && bounds.getMaxX() < 0)
+                || (velocity.x > 0 && bounds.getMinX() >= simulation.getConfigSet().getResolutionX());
+    }
+
+    /**
+     * Moves all entities in chunks and then removes the ones which left the screen.
+     * @param executor runs the chunks
+     */
+    private void moveEntitiesInParallel(ParallelExecutor executor) {
+        ImmutableArray<Entity> entities = getEntities();
+        entityChunks.prepare(executor.getParallelism());
+        executor.invokeAll(entityChunks.chunkCount, entityChunks);
+        for (int chunk = 0; chunk < entityChunks.chunkCount; chunk++) {
+            IntArray leftScreen = entityChunks.leftScreen[chunk];
+            for (int i = 0; i < leftScreen.size; i++) {
+                getEngine().removeEntity(entities.get(leftScreen.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Moves the lasers of a store, in chunks if there are enough of them.
+     * @param lasers the store
+     */
+    private void moveLasers(LaserStore lasers) {
+        float delta = simulation.getClock().getDeltaTime();
+        ParallelExecutor executor = simulation.getParallelExecutor(lasers.size());
+        if (executor == null) {
+            lasers.move(delta, simulation.getConfigSet().getResolutionY());
+            return;
+        }
+        laserChunks.prepare(lasers, lasers.getSpeed() * delta, executor.getParallelism());
+        executor.invokeAll(laserChunks.chunkCount, laserChunks);
+        int left = 0;
+        for (int chunk = 0; chunk < laserChunks.chunkCount; chunk++) {
+            left += laserChunks.left[chunk];
+        }
+        lasers.finishMove(laserChunks.dy, left);
+    }
+
+    /**
+     * Moves the bullets of a store and removes the ones which left the screen.
+     * Even 10000 bullets are a few microseconds, so they are not split into chunks.
+     * @param bullets the store
+     */
+    private void moveBullets(BulletStore bullets) {
+        bullets.move(simulation.getClock().getDeltaTime());
+        bullets.cull(simulation.getConfigSet().getResolutionX(), simulation.getConfigSet().getResolutionY());
+    }
+
+    /**
+     * Moves one chunk of the entities and remembers the indices of the ones which left the screen.
+     */
+    private class EntityChunks implements ParallelExecutor.ChunkTask {
+        private int chunkCount;
+        private IntArray[] leftScreen = new IntArray[0];
+
+        private void prepare(int chunkCount) {
+            this.chunkCount = chunkCount;
+            if (leftScreen.length < chunkCount) {
+                leftScreen = new IntArray[chunkCount];
+                for (int i = 0; i < chunkCount; i++) {
+                    leftScreen[i] = new IntArray();
+                }
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                leftScreen[i].clear();
+            }
+        }
+
+        @Override
+        public void run(int chunk) {
+            ImmutableArray<Entity> entities = getEntities();
+            float delta = simulation.getClock().getDeltaTime();
+            int last = ParallelExecutor.chunkStart(entities.size(), chunk + 1, chunkCount);
+            for (int i = ParallelExecutor.chunkStart(entities.size(), chunk, chunkCount); i < last; i++) {
+                if (moveEntity(entities.get(i), delta)) {
+                    leftScreen[chunk].add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves one chunk of the lasers of a store, see LaserStore.moveRange().
+     */
+    private class LaserChunks implements ParallelExecutor.ChunkTask {
+        private LaserStore lasers;
+        private float dy;
+        private int chunkCount;
+        private int[] left = new int[0];
+
+        private void prepare(LaserStore lasers, float dy, int chunkCount) {
+            this.lasers = lasers;
+            this.dy = dy;
+            this.chunkCount = chunkCount;
+            if (left.length < chunkCount) {
+                left = new int[chunkCount];
+            }
+        }
+
+        @Override
+        public void run(int chunk) {
+            int span = lasers.getSpan();
+            left[chunk] = lasers.moveRange(dy, simulation.getConfigSet().getResolutionY(),
+                    ParallelExecutor.chunkStart(span, chunk, chunkCount), ParallelExecutor.chunkStart(span, chunk + 1, chunkCount));
+        }
+    }
+}
@@ -1,165 +1,281 @@
 package com.cosmicraiders;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.NumberUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
-import com.badlogic.gdx.utils.TimeUtils;
-
-import java.util.Date;
 
 /**
  * A Painter draws all the assets in the batch.
+ * It either reads the simulation directly, or, when the simulation runs on a SimulationThread,
+ * a RenderSnapshot of it.
  */
 public class Painter {
-    private GameScreen gameScreen;
-    private Batch batch;
-    private String scoreText;
-    private Rectangle[][] backgroundStarLayerImages = new Rectangle[4][3];
-    private Rectangle[][] middlegroundStarLayerImages = new Rectangle[4][3];
-
-    private int backgroundStarLayerImageSize = 512;
-    private int middlegroundStarLayerImageSize = 700;
-
-    public Painter(GameScreen gameScreen) {
-        this.gameScreen = gameScreen;
-        this.batch = gameScreen.getGame().getBatch();
-
-        // Initialize positions of the backgroundStarLayerImages
-        for (int i = 0; i < backgroundStarLayerImages.length; i++) {
-            for (int j = 0; j < backgroundStarLayerImages[i].length; j++) {
-                backgroundStarLayerImages[i][j] = new Rectangle();
-                backgroundStarLayerImages[i][j].x = i * backgroundStarLayerImageSize;
-                backgroundStarLayerImages[i][j].y = j * backgroundStarLayerImageSize;
-            }
-        }
-        // Initialize positions of the middlegroundStarLayerImages
-        for (int i = 0; i < middlegroundStarLayerImages.length; i++) {
-            for (int j = 0; j < middlegroundStarLayerImages[i].length; j++) {
-                middlegroundStarLayerImages[i][j] = new Rectangle();
-                middlegroundStarLayerImages[i][j].x = i * middlegroundStarLayerImageSize;
-                middlegroundStarLayerImages[i][j].y = j * middlegroundStarLayerImageSize;
-            }
-        }
-    }
+    private static final String SCORE_PREFIX = "Score: ";
 
+    private final GameSimulation simulation;
+    private final Batch batch;
+    private final BitmapFont font;
     /**
-     * Draws the two star layers as a background for the game.
+     * the text "Score: " followed by the score, it is reused so that a changing score does not allocate
      */
-    public void renderStarLayers(double speedMultiplier) {
+    private final StringBuilder scoreText = new StringBuilder(SCORE_PREFIX);
+    /**
+     * the score which scoreText was built for, -1 forces the first build
+     */
+    private int shownScore = -1;
+    private final Starfield starfield;
+    /**
+     * draws all entities of the simulation
+     */
+    private final RenderSystem renderSystem;
+    /**
+     * the blending of the batch before the particles switched it to additive blending
+     */
+    private int blendSrcFunc;
+    private int blendDstFunc;
 
-        for (int i = 0; i < backgroundStarLayerImages.length; i++) {
-            for (int j = 0; j < backgroundStarLayerImages[i].length; j++) {
-                batch.draw(AssetSet.starBackgroundImage, backgroundStarLayerImages[i][j].x, backgroundStarLayerImages[i][j].y, backgroundStarLayerImageSize, backgroundStarLayerImageSize);
+    /**
+     * Constructs a Painter which draws the state of a simulation.
+     * @param batch the batch everything is drawn into
+     * @param font the font for the score and godmode text
+     * @param simulation the game logic whose objects are drawn
+     */
+    public Painter(Batch batch, BitmapFont font, GameSimulation simulation) {
+        this.simulation = simulation;
+        this.batch = batch;
+        this.font = font;
 
-                // set movement speed of the backgroundStarLayerImages
-                // using Math.min() to prevent stuttering due to delta time
-                backgroundStarLayerImages[i][j].y -= gameScreen.getConfigSet().getAsteroidSpeed() * Math.min(Gdx.graphics.getDeltaTime(), 1.0 / 30.0 ) * 0.4d * speedMultiplier; // asteroid speed
+        this.starfield = new Starfield(AssetSet.starBackgroundImage, simulation.getConfigSet());
+        this.renderSystem = new RenderSystem(batch);
+        simulation.getEngine().addSystem(renderSystem);
+    }
 
+    /**
+     * Scrolls the star layers and draws them as a background for the game.
+     * Each layer is a single full-screen quad, see Starfield.
+     * @param speedMultiplier how fast the layers scroll compared to the game, the main menu uses a slower speed
+     */
+    public void renderStarLayers(double speedMultiplier) {
+        // using Math.min() to prevent stuttering due to delta time
+        starfield.scroll((float) (simulation.getConfigSet().getAsteroidSpeed() * Math.min(Gdx.graphics.getDeltaTime(), 1.0 / 30.0) * speedMultiplier));
+        starfield.render(batch, simulation.getConfigSet().getResolutionX(), simulation.getConfigSet().getResolutionY());
+    }
 
-                if (backgroundStarLayerImages[i][j].y <= (j-1) * backgroundStarLayerImageSize) {
-                    backgroundStarLayerImages[i][j].y = j * backgroundStarLayerImageSize;
-                }
+    /**
+     * Draws the fighter, the fighter lasers, all entities of the simulation with the RenderSystem,
+     * the alien lasers, the alien bullets and the explosion particles.
+     * Everything is drawn between its position at the previous and at the current simulation tick.
+     * @param alpha how far the frame is between the previous and the current tick, from 0 to 1
+     */
+    public void renderObjects(float alpha) {
+        if (simulation.getFighter() != null) { // fighter
+            float x = simulation.getInterpolatedFighterX(alpha);
+            float y = simulation.getInterpolatedFighterY(alpha);
+            if (simulation.getActivePowerUp() == null) {
+                batch.draw(AssetSet.fighterImage, x, y, simulation.getFighter().width, simulation.getFighter().height);
+            }
+            else {
+                batch.draw(simulation.getActivePowerUp().fighterImage, x, y, simulation.getFighter().width, simulation.getFighter().height);
             }
-        }
-        for (int i = 0; i < middlegroundStarLayerImages.length; i++) {
-            for (int j = 0; j < middlegroundStarLayerImages[i].length; j++) {
-                batch.draw(AssetSet.starBackgroundImage, middlegroundStarLayerImages[i][j].x, middlegroundStarLayerImages[i][j].y, middlegroundStarLayerImageSize, middlegroundStarLayerImageSize);
-
-                // set movement speed of the middlegroundStarLayer
-                middlegroundStarLayerImages[i][j].y -= gameScreen.getConfigSet().getAsteroidSpeed() * Math.min(Gdx.graphics.getDeltaTime(), 1.0 / 30.0 ) * 0.5f * speedMultiplier;
 
+        }
+        renderLasers(simulation.getFighterLasers(), AssetSet.laserRedImage, alpha);
+        renderSystem.setAlpha(alpha);
+        renderSystem.update(0);
+        renderLasers(simulation.getAlienLasers(), AssetSet.laserGreenImage, alpha);
+        renderBullets(simulation.getAlienBullets(), AssetSet.laserGreenImage, alpha);
+        renderParticles(simulation.getParticles(), alpha);
+    }
 
-                if (middlegroundStarLayerImages[i][j].y <= (j-1) * middlegroundStarLayerImageSize) {
-                    middlegroundStarLayerImages[i][j].y = j * middlegroundStarLayerImageSize;
-                }
+    /**
+     * Draws a snapshot of the simulation in the same order as renderObjects(float).
+     * @param snapshot the snapshot, see BackgroundSimulation
+     * @param alpha how far the frame is between the previous and the current tick, from 0 to 1
+     */
+    public void renderObjects(RenderSnapshot snapshot, float alpha) {
+        if (snapshot.isFighterVisible()) {
+            batch.draw(snapshot.getFighterImage(), snapshot.getFighterX(alpha), snapshot.getFighterY(alpha),
+                    snapshot.getFighterWidth(), snapshot.getFighterHeight());
+        }
+        renderLasers(snapshot.getFighterLasers(), AssetSet.laserRedImage, alpha);
+        for (int i = 0; i < snapshot.getSpriteCount(); i++) {
+            float x = snapshot.getX(i, alpha);
+            float y = snapshot.getY(i, alpha);
+            float width = snapshot.getWidth(i);
+            float height = snapshot.getHeight(i);
+            if (snapshot.isCentered(i)) {
+                batch.draw(snapshot.getRegion(i), x - width / 2, y - height / 2, width / 2, height / 2,
+                        width, height, 1, 1, snapshot.getRotation(i, alpha));
+            } else {
+                batch.draw(snapshot.getRegion(i), x, y, width, height);
             }
         }
+        renderLasers(snapshot.getAlienLasers(), AssetSet.laserGreenImage, alpha);
+        renderBullets(snapshot.getAlienBullets(), AssetSet.laserGreenImage, alpha);
+        renderParticles(snapshot.getParticles(), alpha);
+    }
 
-
-
-
-
-
-//        // first star layer rendering
-//        for (int i = 0; i < 4; i++) {
-//            for (int j = 0; j < 4; j++) {
-//                batch.draw(AssetSet.starBackgroundImage, i * 512,
-//                        j * 512 - (((gameScreen.getConfigSet().getAsteroidSpeed() * TimeUtils.millis() / 2000)) % 512 ),
-//                        512, 512);
-//            }
-//        }
-//        // second star layer rendering
-//        for (int i = 0; i < 2; i++) {
-//            for (int j = 0; j < 3; j++) {
-//                batch.draw(AssetSet.starBackgroundImage, i * 1024,
-//                        j * 1024  - (((gameScreen.getConfigSet().getAsteroidSpeed() * TimeUtils.millis() / 1600)) % 1024),
-//                        1024, 1024);
-//            }
-//        }
+    /**
+     * Draws the lasers of a snapshot with the same image.
+     * @param lasers the lasers of one store
+     * @param image the image of the lasers
+     * @param alpha how far the frame is between the previous and the current tick
+     */
+    private void renderLasers(RenderSnapshot.Lasers lasers, TextureRegion image, float alpha) {
+        float width = lasers.getWidth();
+        float height = lasers.getHeight();
+        for (int i = 0; i < lasers.getCount(); i++) {
+            batch.draw(image, lasers.getX(i), lasers.getY(i, alpha), width, height);
+        }
     }
 
     /**
-     * Draws all objects which are used in the game:
-     * fighter
-     * fighter lasers
-     * asteroids
-     * explosions
-     * aliens
-     * alien lasers
+     * Draws all lasers of a store with the same image.
+     * @param lasers the store
+     * @param image the image of the lasers
+     * @param alpha how far the frame is between the previous and the current tick
      */
-    public void renderObjects() {
-        // render all objects from Arrays into batch
-        if (gameScreen.getFighter() != null) { // fighter
-            if (gameScreen.getActivePowerUp() == null) {
-                batch.draw(AssetSet.fighterImage, gameScreen.getFighter().x, gameScreen.getFighter().y, gameScreen.getFighter().width, gameScreen.getFighter().height);
+    private void renderLasers(LaserStore lasers, TextureRegion image, float alpha) {
+        float width = lasers.getWidth();
+        float height = lasers.getHeight();
+        for (int n = 0; n < lasers.getSpan(); n++) {
+            int slot = lasers.getSlot(n);
+            if (lasers.isAlive(slot)) {
+                batch.draw(image, lasers.getX(slot), lasers.getInterpolatedY(slot, alpha), width, height);
             }
-            else {
-                batch.draw(AssetSet.fighterRedImage, gameScreen.getFighter().x, gameScreen.getFighter().y, gameScreen.getFighter().width, gameScreen.getFighter().height);
-            }
-
         }
-        for(Rectangle laser: gameScreen.getFighterLasers()) { // fighter lasers
-            batch.draw(AssetSet.laserRedImage, laser.x, laser.y, laser.width, laser.height);
-        }
-        for(Asteroid asteroid: gameScreen.getAsteroids()) { // asteroids
-            // batch.draw(Assets.asteroidImage, asteroid.x - asteroid.radius, asteroid.y - asteroid.radius, asteroid.radius * 2, asteroid.radius * 2);
-            batch.draw(AssetSet.asteroidImage, asteroid.x - asteroid.radius,
-                    asteroid.y - asteroid.radius, asteroid.radius, asteroid.radius,
-                    asteroid.radius * 2, asteroid.radius * 2,
-                    1, 1, asteroid.getRotation(),
-                    0, 0, 59, 59, false, false);
-        }
-        for(Explosion explosion: gameScreen.getExplosions()) { // explosions
-            batch.draw(AssetSet.asteroidExplosionImage, explosion.getX() - explosion.getWidth() / 2, explosion.getY() - explosion.getHeight() / 2, explosion.getWidth(), explosion.getHeight());
-            if(explosion.getCreationTime() + 500 < TimeUtils.millis()) {
-                gameScreen.getExplosions().removeValue(explosion, true);
-            }
+    }
+
+    /**
+     * Draws the bullets of a snapshot with the same image, see renderBullets(BulletStore, TextureRegion, float).
+     * @param bullets the bullets of one store
+     * @param image the image of the bullets
+     * @param alpha how far the frame is between the previous and the current tick
+     */
+    private void renderBullets(RenderSnapshot.Bullets bullets, TextureRegion image, float alpha) {
+        float width = bullets.getRadius() * 2;
+        float height = width * 2;
+        for (int i = 0; i < bullets.getCount(); i++) {
+            batch.draw(image, bullets.getX(i, alpha) - width / 2, bullets.getY(i, alpha) - height / 2, width / 2, height / 2,
+                    width, height, 1, 1, bullets.getAngle(i) - 90);
         }
-        for(Rectangle alien: gameScreen.getAliens()) { // alien ships
-            batch.draw(AssetSet.alienImage, alien.x, alien.y, alien.width, alien.height);
+    }
+
+    /**
+     * Draws all bullets of a store with the same image, stretched along their direction of flight.
+     * @param bullets the store
+     * @param image the image of the bullets, pointing up
+     * @param alpha how far the frame is between the previous and the current tick
+     */
+    private void renderBullets(BulletStore bullets, TextureRegion image, float alpha) {
+        float width = bullets.getRadius() * 2;
+        float height = width * 2;
+        for (int i = 0; i < bullets.size(); i++) {
+            batch.draw(image, bullets.getInterpolatedX(i, alpha) - width / 2, bullets.getInterpolatedY(i, alpha) - height / 2,
+                    width / 2, height / 2, width, height, 1, 1, bullets.getAngle(i) - 90);
         }
-        for(Rectangle alienLaser: gameScreen.getAlienLasers()) { // alien lasers
-            batch.draw(AssetSet.laserGreenImage, alienLaser.x, alienLaser.y, alienLaser.width, alienLaser.height);
+    }
+
+    /**
+     * Draws the particles of a snapshot, see renderParticles(ParticleStore, float).
+     * @param particles the particles
+     * @param alpha how far the frame is between the previous and the current tick
+     */
+    private void renderParticles(RenderSnapshot.Particles particles, float alpha) {
+        if (particles.getCount() == 0) return;
+        beginParticles();
+        for (int i = 0; i < particles.getCount(); i++) {
+            renderParticle(particles.getX(i, alpha), particles.getY(i, alpha), particles.getSize(i),
+                    particles.getProgress(i), particles.getColor(i));
         }
-        for (PowerUp powerUp : gameScreen.getPowerUps()) {
-            batch.draw(AssetSet.powerUpImage,  powerUp.x - powerUp.radius, powerUp.y - powerUp.radius, powerUp.radius * 2, powerUp.radius * 2);
+        endParticles();
+    }
+
+    /**
+     * Draws all particles of a store with the explosion image, which is in the same atlas as all other sprites.
+     * They are blended additively, so overlapping particles glow instead of covering each other,
+     * and since neither the texture nor the blending changes in between, all particles of all explosions
+     * go into the batch together instead of one draw call per explosion.
+     * @param particles the store
+     * @param alpha how far the frame is between the previous and the current tick
+     */
+    private void renderParticles(ParticleStore particles, float alpha) {
+        if (particles.size() == 0) return;
+        beginParticles();
+        for (int i = 0; i < particles.size(); i++) {
+            renderParticle(particles.getInterpolatedX(i, alpha), particles.getInterpolatedY(i, alpha), particles.getSize(i),
+                    particles.getProgress(i), particles.getColor(i));
         }
+        endParticles();
+    }
 
+    /**
+     * Auxiliary method, switches the batch to additive blending.
+     */
+    private void beginParticles() {
+        blendSrcFunc = batch.getBlendSrcFunc();
+        blendDstFunc = batch.getBlendDstFunc();
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+    }
+
+    /**
+     * Auxiliary method, switches the batch back to the previous blending and the color back to white.
+     */
+    private void endParticles() {
+        batch.setBlendFunction(blendSrcFunc, blendDstFunc);
+        batch.setPackedColor(Color.WHITE_FLOAT_BITS);
+    }
+
+    /**
+     * Auxiliary method, draws one particle which grows and fades out over its lifetime.
+     * @param centerX the horizontal center
+     * @param centerY the vertical center
+     * @param size the size at the start of the lifetime
+     * @param progress how much of its lifetime the particle has lived, from 0 to 1
+     * @param color the color as 0x00BBGGRR
+     */
+    private void renderParticle(float centerX, float centerY, float size, float progress, int color) {
+        float fade = Math.max(0, 1 - progress);
+        batch.setPackedColor(NumberUtils.intToFloatColor((int) (fade * 255) << 24 | color));
+        float scaled = size * (0.6f + 0.6f * progress);
+        batch.draw(AssetSet.asteroidExplosionImage, centerX - scaled / 2, centerY - scaled / 2, scaled, scaled);
     }
 
     /**
      * Draws the score and Godmode text on the screen.
      */
     public void renderText() {
-        gameScreen.getGame().getFont().draw(gameScreen.getGame().getBatch(), scoreText, 60, 80);
-        if (gameScreen.getConfigSet().isGodMode() == true) {
-            gameScreen.getGame().getFont().draw(gameScreen.getGame().getBatch(), "Godmode activated!!!", 60, gameScreen.getConfigSet().getResolutionY() - 60);
+        renderText(simulation.getScore(), simulation.getConfigSet().isGodMode());
+    }
+
+    /**
+     * Draws the score and Godmode text on the screen.
+     * @param score the score to show
+     * @param godMode true if godmode is activated
+     */
+    public void renderText(int score, boolean godMode) {
+        if (score != shownScore) {
+            shownScore = score;
+            scoreText.setLength(SCORE_PREFIX.length());
+            scoreText.append(shownScore);
+        }
+        font.draw(batch, scoreText, 60, 80);
+        if (godMode == true) {
+            font.draw(batch, "Godmode activated!!!", 60, simulation.getConfigSet().getResolutionY() - 60);
         }
     }
 
-    public void setScoreText(String scoreText) {
-        this.scoreText = scoreText;
+    public Starfield getStarfield() {
+        return starfield;
+    }
+
+    public RenderSystem getRenderSystem() {
+        return renderSystem;
     }
 
     /**
@@ -167,6 +283,16 @@ public class Painter {
      * @param color
      */
     public void renderBackground(CRColor color) {
-        ScreenUtils.clear(color.getRedFloat(), color.getGreenFloat(), color.getBlueFloat(), 1);
+        renderBackground(color.getRedFloat(), color.getGreenFloat(), color.getBlueFloat());
+    }
+
+    /**
+     * Draws a background with a given color.
+     * @param red the red component from 0 to 1
+     * @param green the green component from 0 to 1
+     * @param blue the blue component from 0 to 1
+     */
+    public void renderBackground(float red, float green, float blue) {
+        ScreenUtils.clear(red, green, blue, 1);
     }
 }
@@ -0,0 +1,47 @@
+package com.cosmicraiders;
+
+/**
+ * Runs the chunks of a loop over many entities or lasers at the same time.
+ * The systems split a loop into chunks only when it is longer than the parallel threshold of the ConfigSet,
+ * see GameSimulation.getParallelExecutor(int). Chunks may only write to their own entities and buffers,
+ * everything which touches shared state (the engine, sounds, score) is done afterwards on the calling thread.
+ * The only implementation is ForkJoinExecutor. It is not part of the HTML build, which has no threads,
+ * so the launchers which support it pass it to CosmicRaiders.
+ */
+public interface ParallelExecutor {
+
+    /**
+     * @return how many chunks can run at the same time, the most chunks invokeAll() accepts
+     */
+    int getParallelism();
+
+    /**
+     * Runs task.run(chunk) for every chunk from 0 to chunkCount and returns once all chunks are done.
+     * Everything the chunks wrote is visible to the calling thread afterwards.
+     * @param chunkCount how many chunks there are, at most getParallelism()
+     * @param task the work of one chunk
+     */
+    void invokeAll(int chunkCount, ChunkTask task);
+
+    /**
+     * Splits a loop into chunks of nearly the same length.
+     * @param size the length of the loop
+     * @param chunk the number of the chunk, chunkCount for the end of the last chunk
+     * @param chunkCount how many chunks there are
+     * @return the first index of the chunk
+     */
+    static int chunkStart(int size, int chunk, int chunkCount) {
+        return (int) ((long) size * chunk / chunkCount);
+    }
+
+    /**
+     * The work of one chunk of a loop.
+     */
+    interface ChunkTask {
+
+        /**
+         * @param chunk the number of the chunk, from 0 to the chunk count
+         */
+        void run(int chunk);
+    }
+}
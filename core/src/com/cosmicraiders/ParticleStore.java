@@ -0,0 +1,233 @@
+package com.cosmicraiders;
+
+/**
+ * Holds the particles of all explosions as a structure of arrays, like the BulletStore holds the bullets.
+ * The capacity is fixed and is the hard budget of live particles: the arrays never grow,
+ * so a screen full of explosions costs the same memory and the same drawing time as one with a few.
+ * Whoever emits particles asks getRoom() first and emits fewer when there is not enough room, see Explosions.
+ * <p>
+ * Every particle flies with its own velocity, slows down and dies after its lifetime.
+ * Dead particles are replaced by the last one, so every index below size() is a live particle.
+ * The colors are packed as 0x00BBGGRR, the Painter adds the alpha which fades over the lifetime.
+ */
+public class ParticleStore implements EntityCounts.Store {
+    /**
+     * how much of its velocity a particle loses per second
+     */
+    private static final float DRAG = 1.5f;
+
+    private final EntityType type;
+
+    private final float[] x;
+    private final float[] y;
+    /**
+     * the velocities in pixels per second
+     */
+    private final float[] velocityX;
+    private final float[] velocityY;
+    /**
+     * the time since the particle was emitted and the time it lives, in seconds
+     */
+    private final float[] ages;
+    private final float[] lifetimes;
+    /**
+     * the width and height of the particle when it is emitted
+     */
+    private final float[] sizes;
+    private final int[] colors;
+    private int size;
+    /**
+     * the highest number of particles which were alive at the same time
+     */
+    private int highWaterMark;
+    /**
+     * the time of the last update in seconds, the previous positions for interpolated rendering follow from it
+     */
+    private float lastDelta;
+
+    /**
+     * Constructs an empty store.
+     * @param type the type the particles are counted as
+     * @param capacity the highest number of particles which can be alive at the same time
+     */
+    public ParticleStore(EntityType type, int capacity) {
+        this.type = type;
+        capacity = Math.max(1, capacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        ages = new float[capacity];
+        lifetimes = new float[capacity];
+        sizes = new float[capacity];
+        colors = new int[capacity];
+    }
+
+    /**
+     * Makes room for the particles of one effect, which then have to be written with set().
+     * @param count how many particles are added, at most getRoom()
+     * @return the index of the first new particle
+     */
+    public int reserve(int count) {
+        int first = size;
+        size += Math.min(count, getRoom());
+        if (size > highWaterMark) highWaterMark = size;
+        return first;
+    }
+
+    /**
+     * Writes a particle which was reserved.
+     * @param index the index returned by reserve() plus the number of the particle in the effect
+     * @param centerX the horizontal center
+     * @param centerY the vertical center
+     * @param vx the horizontal velocity in pixels per second
+     * @param vy the vertical velocity in pixels per second
+     * @param lifetime how long the particle lives in seconds
+     * @param particleSize the width and height of the particle
+     * @param color the color as 0x00BBGGRR
+     */
+    public void set(int index, float centerX, float centerY, float vx, float vy, float lifetime, float particleSize, int color) {
+        x[index] = centerX;
+        y[index] = centerY;
+        velocityX[index] = vx;
+        velocityY[index] = vy;
+        ages[index] = 0;
+        lifetimes[index] = lifetime;
+        sizes[index] = particleSize;
+        colors[index] = color;
+    }
+
+    /**
+     * Removes all particles, e.g. for a new round.
+     */
+    public void clear() {
+        size = 0;
+        lastDelta = 0;
+    }
+
+    /**
+     * Moves, slows down and ages all particles and removes the ones whose lifetime is over.
+     * The move is a single loop without branches over plain float arrays, the removal a separate pass.
+     * @param delta the time in seconds
+     */
+    public void update(float delta) {
+        int n = size;
+        float[] x = this.x;
+        float[] y = this.y;
+        float[] velocityX = this.velocityX;
+        float[] velocityY = this.velocityY;
+        float[] ages = this.ages;
+        float drag = Math.max(0, 1 - DRAG * delta);
+        for (int i = 0; i < n; i++) {
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+            velocityX[i] *= drag;
+            velocityY[i] *= drag;
+            ages[i] += delta;
+        }
+        lastDelta = delta;
+
+        int i = 0;
+        while (i < size) {
+            if (ages[i] >= lifetimes[i]) {
+                // the last particle takes the place, it has not been looked at yet
+                remove(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Removes a particle. The last particle takes its index.
+     * @param index the index of the particle
+     */
+    private void remove(int index) {
+        int last = --size;
+        x[index] = x[last];
+        y[index] = y[last];
+        velocityX[index] = velocityX[last];
+        velocityY[index] = velocityY[last];
+        ages[index] = ages[last];
+        lifetimes[index] = lifetimes[last];
+        sizes[index] = sizes[last];
+        colors[index] = colors[last];
+    }
+
+    @Override
+    public EntityType getType() {
+        return type;
+    }
+
+    /**
+     * @return how many particles are alive, their indices are 0 to size() - 1
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest number of particles which can be alive at the same time
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * @return how many more particles can be emitted
+     */
+    public int getRoom() {
+        return x.length - size;
+    }
+
+    /**
+     * @return the highest number of particles which were alive at the same time
+     */
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * @param index the index of the particle
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated horizontal center of the particle
+     */
+    public float getInterpolatedX(int index, float alpha) {
+        return x[index] - velocityX[index] * lastDelta * (1 - alpha);
+    }
+
+    /**
+     * @param index the index of the particle
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated vertical center of the particle
+     */
+    public float getInterpolatedY(int index, float alpha) {
+        return y[index] - velocityY[index] * lastDelta * (1 - alpha);
+    }
+
+    /**
+     * @param index the index of the particle
+     * @return how much of its lifetime the particle has lived, from 0 to 1
+     */
+    public float getProgress(int index) {
+        return ages[index] / lifetimes[index];
+    }
+
+    /**
+     * @param index the index of the particle
+     * @return the width and height of the particle when it was emitted
+     */
+    public float getSize(int index) {
+        return sizes[index];
+    }
+
+    /**
+     * @param index the index of the particle
+     * @return the color as 0x00BBGGRR
+     */
+    public int getColor(int index) {
+        return colors[index];
+    }
+}
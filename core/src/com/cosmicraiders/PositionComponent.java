@@ -0,0 +1,64 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Where an entity is and which way it faces.
+ * For rectangular entities the position is the lower left corner, for round entities and explosions it is the center.
+ * The position before the last simulation tick is kept as well, so that rendering can interpolate between both.
+ */
+public class PositionComponent implements Component, Pool.Poolable {
+    public float x;
+    public float y;
+    /**
+     * rotation in degrees, counter-clockwise
+     */
+    public float rotation;
+    public float previousX;
+    public float previousY;
+    public float previousRotation;
+
+    /**
+     * Remembers the current position as the previous one. Is called before the position is changed in a tick.
+     */
+    public void savePrevious() {
+        previousX = x;
+        previousY = y;
+        previousRotation = rotation;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated horizontal coordinate
+     */
+    public float getInterpolatedX(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated vertical coordinate
+     */
+    public float getInterpolatedY(float alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated rotation
+     */
+    public float getInterpolatedRotation(float alpha) {
+        return previousRotation + (rotation - previousRotation) * alpha;
+    }
+
+    @Override
+    public void reset() {
+        x = 0;
+        y = 0;
+        rotation = 0;
+        previousX = 0;
+        previousY = 0;
+        previousRotation = 0;
+    }
+}
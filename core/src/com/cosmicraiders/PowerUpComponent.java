@@ -0,0 +1,40 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * The effect of a power up. There is currently one only power up, it increases the fighter's shooting speed.
+ */
+public class PowerUpComponent implements Component, Pool.Poolable {
+    /**
+     * how long the effect lasts in milliseconds
+     */
+    public long duration;
+    public CRColor backgroundColor;
+    public TextureRegion fighterImage;
+    /**
+     * the game time in milliseconds at which the power up was collected
+     */
+    public long pickupTime;
+
+    /**
+     * Copies the effect of another power up, i.e. everything but the pickup time.
+     * Is used when a collected power up becomes the active one.
+     * @param powerUp the power up which was collected
+     */
+    public void setEffect(PowerUpComponent powerUp) {
+        this.duration = powerUp.duration;
+        this.backgroundColor = powerUp.backgroundColor;
+        this.fighterImage = powerUp.fighterImage;
+    }
+
+    @Override
+    public void reset() {
+        duration = 0;
+        backgroundColor = null;
+        fighterImage = null;
+        pickupTime = 0;
+    }
+}
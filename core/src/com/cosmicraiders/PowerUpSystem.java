@@ -0,0 +1,80 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+
+/**
+ * This system handles all power ups in the game.
+ * It activates and deactivates them and sets the background color accordingly.
+ * The end of the active power up is a timer of the TimerWheel.
+ * There is currently one only power up, it increases the fighter's shooting speed.
+ */
+public class PowerUpSystem extends EntitySystem implements TimerWheel.Listener {
+    public static final int PRIORITY = 4;
+    /**
+     * the background color without an active power up, shared so that expiring power ups do not allocate
+     */
+    private static final CRColor BLACK = new CRColor(0, 0, 0);
+
+    private final GameSimulation simulation;
+    /**
+     * the effect of the collected power up, it is copied so that the power up entity can be removed
+     */
+    private final PowerUpComponent activePowerUp = new PowerUpComponent();
+    private boolean powerUpActive;
+    /**
+     * the handle of the timer which ends the active power up
+     */
+    private long expiryTimer = TimerWheel.NONE;
+
+    public PowerUpSystem(GameSimulation simulation) {
+        super(PRIORITY);
+        this.simulation = simulation;
+    }
+
+    /**
+     * Ends an active power up without changing the settings, is used when a new round starts.
+     */
+    public void reset() {
+        simulation.getTimers().cancel(expiryTimer);
+        expiryTimer = TimerWheel.NONE;
+        powerUpActive = false;
+        activePowerUp.reset();
+    }
+
+    /**
+     * Deactivates the power up when it has run out.
+     * Then it resets the fighter's shooting speed and the background color accordingly.
+     */
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        expiryTimer = TimerWheel.NONE;
+        reset();
+        simulation.getConfigSet().setFighterShotsPerSecond(1.5);
+        simulation.getConfigSet().setBackgroundColor(BLACK);
+    }
+
+    /**
+     * Activates the power up and sets the background color and the fighter's shooting speed accordingly.
+     * The collected power up is removed, its effect replaces the one of a power up which is still active.
+     * @param powerUp The power up entity to be activated.
+     */
+    public void activatePowerUp(Entity powerUp) {
+        if (powerUp.isScheduledForRemoval()) return;
+        getEngine().removeEntity(powerUp);
+        activePowerUp.setEffect(Mappers.powerUp.get(powerUp));
+        activePowerUp.pickupTime = simulation.getClock().millis();
+        powerUpActive = true;
+        simulation.getTimers().cancel(expiryTimer);
+        expiryTimer = simulation.getTimers().schedule(activePowerUp.pickupTime + activePowerUp.duration + 1, this, 0);
+        simulation.getConfigSet().setFighterShotsPerSecond(7);
+        simulation.getConfigSet().setBackgroundColor(activePowerUp.backgroundColor);
+    }
+
+    /**
+     * @return the effect of the active power up, null if no power up is active
+     */
+    public PowerUpComponent getActivePowerUp() {
+        return powerUpActive ? activePowerUp : null;
+    }
+}
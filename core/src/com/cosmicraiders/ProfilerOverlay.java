@@ -0,0 +1,193 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * An overlay for the GameScreen which shows where the frame time goes.
+ * It shows min / avg / p99 of every FrameProfiler phase, the number of entities in each Array,
+ * the draw calls, texture bindings and shader switches of the last frame, heap usage and garbage collections per second.
+ * When it is hidden, the FrameProfiler and the GLProfiler are disabled, so the game is not slowed down.
+ * When a SimulationThread runs the simulation, the overlay never touches it: the toggle is handed over with the input
+ * and the stats are read from the ProfilerStats of the latest RenderSnapshot.
+ */
+public class ProfilerOverlay {
+    /**
+     * how often the text is rebuilt, in milliseconds, so that it stays readable and cheap
+     */
+    private static final long TEXT_INTERVAL = 250;
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private final GameScreen gameScreen;
+    private final GLProfiler glProfiler;
+    /**
+     * may be null if the platform cannot count garbage collections
+     */
+    private final GcCounter gcCounter;
+    private boolean enabled = false;
+
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+
+    private long lastGcCount = -1;
+    private long lastGcSampleTime;
+    private float gcPerSecond;
+
+    /**
+     * the stats captured on the render thread, when the simulation runs there
+     */
+    private final ProfilerStats ownStats = new ProfilerStats();
+    private final StringBuilder textBuilder = new StringBuilder();
+    private String text = "";
+    private long lastTextUpdate;
+
+    /**
+     * Constructs a hidden overlay.
+     * @param gameScreen the screen whose simulation is profiled
+     * @param gcCounter counts garbage collections, may be null
+     */
+    public ProfilerOverlay(GameScreen gameScreen, GcCounter gcCounter) {
+        this.gameScreen = gameScreen;
+        this.gcCounter = gcCounter;
+        this.glProfiler = new GLProfiler(Gdx.graphics);
+    }
+
+    /**
+     * Shows or hides the overlay and turns the profilers on or off with it.
+     * A SimulationThread turns its FrameProfiler on and off itself, see BackgroundSimulation.submitInput().
+     */
+    public void toggle() {
+        enabled = !enabled;
+        if (gameScreen.getBackgroundSimulation() == null) {
+            gameScreen.getSimulation().getProfiler().setEnabled(enabled);
+        }
+        if (enabled) {
+            glProfiler.enable();
+            lastGcCount = -1;
+            lastTextUpdate = 0;
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Is called before the game is drawn, resets the GL counters.
+     */
+    public void beginFrame() {
+        if (!enabled) return;
+        glProfiler.reset();
+    }
+
+    /**
+     * Is called after the game is drawn, remembers the GL counters of the game so that the overlay itself is not counted.
+     */
+    public void endGameRendering() {
+        if (!enabled) return;
+        drawCalls = glProfiler.getDrawCalls();
+        textureBindings = glProfiler.getTextureBindings();
+        shaderSwitches = glProfiler.getShaderSwitches();
+    }
+
+    /**
+     * Draws the overlay in the upper left corner.
+     * @param batch the batch to draw into, it must not be drawing yet
+     * @param font the font for the text, it is drawn at scale 1
+     * @param stats the stats of the latest RenderSnapshot, null to capture them from the simulation on this thread
+     */
+    public void render(Batch batch, BitmapFont font, ProfilerStats stats) {
+        if (!enabled) return;
+        long now = TimeUtils.millis();
+        sampleGarbageCollections(now);
+        if (now - lastTextUpdate >= TEXT_INTERVAL) {
+            lastTextUpdate = now;
+            if (stats == null) {
+                ownStats.capture(gameScreen.getSimulation());
+                stats = ownStats;
+            }
+            text = buildText(stats);
+        }
+
+        float scale = font.getData().scaleX;
+        font.getData().setScale(1);
+        batch.begin();
+        font.draw(batch, text, 20, gameScreen.getConfigSet().getResolutionY() - 100);
+        batch.end();
+        font.getData().setScale(scale);
+    }
+
+    /**
+     * Updates the garbage collections per second once a second.
+     * @param now the current time in milliseconds
+     */
+    private void sampleGarbageCollections(long now) {
+        if (gcCounter == null) return;
+        if (lastGcCount < 0) {
+            lastGcCount = gcCounter.getCollectionCount();
+            lastGcSampleTime = now;
+        } else if (now - lastGcSampleTime >= 1000) {
+            long count = gcCounter.getCollectionCount();
+            gcPerSecond = (count - lastGcCount) * 1000f / (now - lastGcSampleTime);
+            lastGcCount = count;
+            lastGcSampleTime = now;
+        }
+    }
+
+    private String buildText(ProfilerStats stats) {
+        StringBuilder sb = textBuilder;
+        sb.setLength(0);
+
+        sb.append("phase: min / avg / p99 ms (last ").append(FrameProfiler.WINDOW).append(" frames)\n");
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            sb.append(phase.getLabel()).append(": ");
+            appendMillis(sb, stats.getMin(phase));
+            sb.append(" / ");
+            appendMillis(sb, stats.getAverage(phase));
+            sb.append(" / ");
+            appendMillis(sb, stats.getPercentile99(phase));
+            sb.append('\n');
+        }
+
+        sb.append('\n');
+        for (int i = 0; i < ENTITY_TYPES.length; i++) {
+            sb.append(ENTITY_TYPES[i].getLabel()).append(": ").append(stats.getLive(ENTITY_TYPES[i]));
+            sb.append(i % 3 == 2 ? "\n" : "  ");
+        }
+
+        sb.append("\ndraw calls: ").append(drawCalls)
+                .append("  texture bindings: ").append(textureBindings)
+                .append("  shader switches: ").append(shaderSwitches).append('\n');
+
+        sb.append("heap: ").append(Gdx.app.getJavaHeap() / (1024 * 1024)).append(" MB  GC/s: ");
+        if (gcCounter == null) {
+            sb.append("n/a");
+        } else {
+            sb.append(Math.round(gcPerSecond * 10) / 10f);
+        }
+        sb.append('\n');
+
+        sb.append("pointer: ").append((int) stats.getTouchX())
+                .append(", ").append((int) stats.getTouchY());
+        return sb.toString();
+    }
+
+    /**
+     * Appends a duration in milliseconds with two decimals.
+     * @param sb the text
+     * @param nanos the duration in nanoseconds
+     */
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        long hundredths = nanos / 10000;
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cosmicraiders;
+
+/**
+ * A copy of what the ProfilerOverlay shows about a simulation: min / avg / p99 of every FrameProfiler phase,
+ * the live count of every EntityType and the pointer position of the input.
+ * The FrameProfiler and the EntityCounts are plain fields which only the thread that updates the simulation may read,
+ * so with a SimulationThread the stats are captured into every RenderSnapshot and the overlay reads that copy.
+ * Capturing does not allocate, it is skipped while the profiler is disabled.
+ */
+public class ProfilerStats {
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+    private static final EntityType[] TYPES = EntityType.values();
+
+    /**
+     * false if the profiler was disabled at the capture, the stats are then all 0
+     */
+    private boolean captured;
+    private final long[] min = new long[PHASES.length];
+    private final long[] average = new long[PHASES.length];
+    private final long[] percentile99 = new long[PHASES.length];
+    private final int[] live = new int[TYPES.length];
+    private float touchX;
+    private float touchY;
+
+    /**
+     * Copies the stats of a simulation. Has to run on the thread which updates the simulation.
+     * @param simulation the simulation
+     */
+    public void capture(GameSimulation simulation) {
+        FrameProfiler profiler = simulation.getProfiler();
+        captured = profiler.isEnabled();
+        if (!captured) return;
+        for (int i = 0; i < PHASES.length; i++) {
+            min[i] = profiler.getMin(PHASES[i]);
+            average[i] = profiler.getAverage(PHASES[i]);
+            percentile99[i] = profiler.getPercentile99(PHASES[i]);
+        }
+        EntityCounts entityCounts = simulation.getEntityCounts();
+        for (int i = 0; i < TYPES.length; i++) {
+            live[i] = entityCounts.getLive(TYPES[i]);
+        }
+        touchX = simulation.getInput().getTouchX();
+        touchY = simulation.getInput().getTouchY();
+    }
+
+    public boolean isCaptured() {
+        return captured;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the shortest duration in nanoseconds, see FrameProfiler.getMin()
+     */
+    public long getMin(FrameProfiler.Phase phase) {
+        return captured ? min[phase.ordinal()] : 0;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the average duration in nanoseconds, see FrameProfiler.getAverage()
+     */
+    public long getAverage(FrameProfiler.Phase phase) {
+        return captured ? average[phase.ordinal()] : 0;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the 99th percentile of the durations in nanoseconds, see FrameProfiler.getPercentile99()
+     */
+    public long getPercentile99(FrameProfiler.Phase phase) {
+        return captured ? percentile99[phase.ordinal()] : 0;
+    }
+
+    /**
+     * @param type the type of entity
+     * @return how many entities of this type were alive, see EntityCounts.getLive()
+     */
+    public int getLive(EntityType type) {
+        return captured ? live[type.ordinal()] : 0;
+    }
+
+    public float getTouchX() {
+        return touchX;
+    }
+
+    public float getTouchY() {
+        return touchY;
+    }
+}
@@ -0,0 +1,475 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Arrays;
+
+/**
+ * A copy of everything the Painter needs to draw one simulation tick.
+ * When the simulation runs on a SimulationThread, the thread captures a snapshot after its ticks
+ * and the render thread draws the latest one, so the render thread never reads the engine while it changes.
+ * Like the live state, the snapshot keeps the positions before and after the tick, so it can be interpolated.
+ * Snapshots are reused: the arrays only grow, capturing does not allocate otherwise.
+ */
+public class RenderSnapshot {
+
+    /**
+     * when the snapshot was captured, in nanoseconds of TimeUtils.nanoTime()
+     */
+    private long captureTime;
+
+    private boolean fighterVisible;
+    private TextureRegion fighterImage;
+    private float fighterX;
+    private float fighterY;
+    private float previousFighterX;
+    private float previousFighterY;
+    private float fighterWidth;
+    private float fighterHeight;
+
+    /**
+     * the sprites of all entities, sorted by layer like the RenderSystem draws them
+     */
+    private int spriteCount;
+    private TextureRegion[] regions = new TextureRegion[64];
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] rotation = new float[64];
+    private float[] previousRotation = new float[64];
+    private float[] width = new float[64];
+    private float[] height = new float[64];
+    private boolean[] centered = new boolean[64];
+
+    private final Lasers fighterLasers = new Lasers();
+    private final Lasers alienLasers = new Lasers();
+    private final Bullets alienBullets = new Bullets();
+    private final Particles particles = new Particles();
+    private final ProfilerStats profilerStats = new ProfilerStats();
+
+    private float backgroundRed;
+    private float backgroundGreen;
+    private float backgroundBlue;
+    private int score;
+    private boolean godMode;
+    private boolean gameOver;
+    private boolean roundOver;
+
+    /**
+     * Copies the drawable state of a simulation. Has to run on the thread which updates the simulation.
+     * The sprites are taken from the RenderSystem of the engine, which keeps them sorted by layer.
+     * @param simulation the simulation
+     * @param captureTime the current time in nanoseconds
+     */
+    public void capture(GameSimulation simulation, long captureTime) {
+        this.captureTime = captureTime;
+
+        fighterVisible = simulation.getFighter() != null;
+        if (fighterVisible) {
+            PowerUpComponent powerUp = simulation.getActivePowerUp();
+            fighterImage = powerUp == null ? AssetSet.fighterImage : powerUp.fighterImage;
+            fighterX = simulation.getFighter().x;
+            fighterY = simulation.getFighter().y;
+            previousFighterX = simulation.getInterpolatedFighterX(0);
+            previousFighterY = simulation.getInterpolatedFighterY(0);
+            fighterWidth = simulation.getFighter().width;
+            fighterHeight = simulation.getFighter().height;
+        }
+
+        spriteCount = 0;
+        RenderSystem renderSystem = simulation.getEngine().getSystem(RenderSystem.class);
+        if (renderSystem != null) {
+            ImmutableArray<Entity> entities = renderSystem.getEntities();
+            ensureSpriteCapacity(entities.size());
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                PositionComponent position = Mappers.position.get(entity);
+                SpriteComponent sprite = Mappers.sprite.get(entity);
+                regions[i] = sprite.region;
+                x[i] = position.x;
+                y[i] = position.y;
+                previousX[i] = position.previousX;
+                previousY[i] = position.previousY;
+                rotation[i] = position.rotation;
+                previousRotation[i] = position.previousRotation;
+                width[i] = sprite.width;
+                height[i] = sprite.height;
+                centered[i] = sprite.centered;
+            }
+            spriteCount = entities.size();
+        }
+
+        fighterLasers.capture(simulation.getFighterLasers());
+        alienLasers.capture(simulation.getAlienLasers());
+        alienBullets.capture(simulation.getAlienBullets());
+        particles.capture(simulation.getParticles());
+
+        CRColor background = simulation.getConfigSet().getBackgroundColor();
+        backgroundRed = background.getRedFloat();
+        backgroundGreen = background.getGreenFloat();
+        backgroundBlue = background.getBlueFloat();
+        score = simulation.getScore();
+        godMode = simulation.getConfigSet().isGodMode();
+        gameOver = simulation.isGameOver();
+        roundOver = simulation.isRoundOver();
+        profilerStats.capture(simulation);
+    }
+
+    private void ensureSpriteCapacity(int capacity) {
+        if (capacity <= regions.length) return;
+        int newCapacity = Math.max(capacity, regions.length * 2);
+        regions = Arrays.copyOf(regions, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        previousX = Arrays.copyOf(previousX, newCapacity);
+        previousY = Arrays.copyOf(previousY, newCapacity);
+        rotation = Arrays.copyOf(rotation, newCapacity);
+        previousRotation = Arrays.copyOf(previousRotation, newCapacity);
+        width = Arrays.copyOf(width, newCapacity);
+        height = Arrays.copyOf(height, newCapacity);
+        centered = Arrays.copyOf(centered, newCapacity);
+    }
+
+    public long getCaptureTime() {
+        return captureTime;
+    }
+
+    public boolean isFighterVisible() {
+        return fighterVisible;
+    }
+
+    public TextureRegion getFighterImage() {
+        return fighterImage;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated left edge of the fighter
+     */
+    public float getFighterX(float alpha) {
+        return previousFighterX + (fighterX - previousFighterX) * alpha;
+    }
+
+    /**
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated bottom edge of the fighter
+     */
+    public float getFighterY(float alpha) {
+        return previousFighterY + (fighterY - previousFighterY) * alpha;
+    }
+
+    public float getFighterWidth() {
+        return fighterWidth;
+    }
+
+    public float getFighterHeight() {
+        return fighterHeight;
+    }
+
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    public TextureRegion getRegion(int sprite) {
+        return regions[sprite];
+    }
+
+    /**
+     * @param sprite the index of the sprite, from 0 to getSpriteCount()
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated horizontal coordinate of the sprite
+     */
+    public float getX(int sprite, float alpha) {
+        return previousX[sprite] + (x[sprite] - previousX[sprite]) * alpha;
+    }
+
+    /**
+     * @param sprite the index of the sprite, from 0 to getSpriteCount()
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated vertical coordinate of the sprite
+     */
+    public float getY(int sprite, float alpha) {
+        return previousY[sprite] + (y[sprite] - previousY[sprite]) * alpha;
+    }
+
+    /**
+     * @param sprite the index of the sprite, from 0 to getSpriteCount()
+     * @param alpha how far between the previous and the current tick, from 0 to 1
+     * @return the interpolated rotation of the sprite
+     */
+    public float getRotation(int sprite, float alpha) {
+        return previousRotation[sprite] + (rotation[sprite] - previousRotation[sprite]) * alpha;
+    }
+
+    public float getWidth(int sprite) {
+        return width[sprite];
+    }
+
+    public float getHeight(int sprite) {
+        return height[sprite];
+    }
+
+    public boolean isCentered(int sprite) {
+        return centered[sprite];
+    }
+
+    public Lasers getFighterLasers() {
+        return fighterLasers;
+    }
+
+    public Lasers getAlienLasers() {
+        return alienLasers;
+    }
+
+    public Bullets getAlienBullets() {
+        return alienBullets;
+    }
+
+    public Particles getParticles() {
+        return particles;
+    }
+
+    public float getBackgroundRed() {
+        return backgroundRed;
+    }
+
+    public float getBackgroundGreen() {
+        return backgroundGreen;
+    }
+
+    public float getBackgroundBlue() {
+        return backgroundBlue;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isGodMode() {
+        return godMode;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return true if the round was over when the snapshot was captured, see GameSimulation.isRoundOver()
+     */
+    public boolean isRoundOver() {
+        return roundOver;
+    }
+
+    /**
+     * @return the stats for the ProfilerOverlay, only captured while the profiler of the simulation is enabled
+     */
+    public ProfilerStats getProfilerStats() {
+        return profilerStats;
+    }
+
+    /**
+     * The alive lasers of one LaserStore, packed without tombstones.
+     */
+    public static class Lasers {
+        private int count;
+        private float[] x = new float[64];
+        private float[] y = new float[64];
+        private float lastStep;
+        private float width;
+        private float height;
+
+        private void capture(LaserStore store) {
+            if (store.size() > x.length) {
+                x = Arrays.copyOf(x, Math.max(store.size(), x.length * 2));
+                y = Arrays.copyOf(y, x.length);
+            }
+            count = 0;
+            for (int n = 0; n < store.getSpan(); n++) {
+                int slot = store.getSlot(n);
+                if (store.isAlive(slot)) {
+                    x[count] = store.getX(slot);
+                    y[count] = store.getY(slot);
+                    count++;
+                }
+            }
+            lastStep = store.getLastStep();
+            width = store.getWidth();
+            height = store.getHeight();
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public float getX(int laser) {
+            return x[laser];
+        }
+
+        /**
+         * @param laser the index of the laser, from 0 to getCount()
+         * @param alpha how far between the previous and the current tick, from 0 to 1
+         * @return the interpolated vertical coordinate of the laser
+         */
+        public float getY(int laser, float alpha) {
+            return y[laser] - lastStep * (1 - alpha);
+        }
+
+        public float getWidth() {
+            return width;
+        }
+
+        public float getHeight() {
+            return height;
+        }
+    }
+
+    /**
+     * The bullets of one BulletStore, with how far each moved in the last tick.
+     */
+    public static class Bullets {
+        private int count;
+        private float[] x = new float[256];
+        private float[] y = new float[256];
+        private float[] stepX = new float[256];
+        private float[] stepY = new float[256];
+        private float[] angles = new float[256];
+        private float radius;
+
+        private void capture(BulletStore store) {
+            count = store.size();
+            if (count > x.length) {
+                int capacity = Math.max(count, x.length * 2);
+                x = new float[capacity];
+                y = new float[capacity];
+                stepX = new float[capacity];
+                stepY = new float[capacity];
+                angles = new float[capacity];
+            }
+            float delta = store.getLastDelta();
+            for (int i = 0; i < count; i++) {
+                x[i] = store.getX(i);
+                y[i] = store.getY(i);
+                stepX[i] = store.getVelocityX(i) * delta;
+                stepY[i] = store.getVelocityY(i) * delta;
+                angles[i] = store.getAngle(i);
+            }
+            radius = store.getRadius();
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @param bullet the index of the bullet, from 0 to getCount()
+         * @param alpha how far between the previous and the current tick, from 0 to 1
+         * @return the interpolated horizontal center of the bullet
+         */
+        public float getX(int bullet, float alpha) {
+            return x[bullet] - stepX[bullet] * (1 - alpha);
+        }
+
+        /**
+         * @param bullet the index of the bullet, from 0 to getCount()
+         * @param alpha how far between the previous and the current tick, from 0 to 1
+         * @return the interpolated vertical center of the bullet
+         */
+        public float getY(int bullet, float alpha) {
+            return y[bullet] - stepY[bullet] * (1 - alpha);
+        }
+
+        /**
+         * @param bullet the index of the bullet, from 0 to getCount()
+         * @return the direction of flight in degrees
+         */
+        public float getAngle(int bullet) {
+            return angles[bullet];
+        }
+
+        public float getRadius() {
+            return radius;
+        }
+    }
+
+    /**
+     * The particles of the ParticleStore, with their positions before and after the last tick.
+     */
+    public static class Particles {
+        private int count;
+        private float[] x = new float[256];
+        private float[] y = new float[256];
+        private float[] previousX = new float[256];
+        private float[] previousY = new float[256];
+        private float[] sizes = new float[256];
+        private float[] progress = new float[256];
+        private int[] colors = new int[256];
+
+        private void capture(ParticleStore store) {
+            count = store.size();
+            if (count > x.length) {
+                int capacity = Math.max(count, x.length * 2);
+                x = new float[capacity];
+                y = new float[capacity];
+                previousX = new float[capacity];
+                previousY = new float[capacity];
+                sizes = new float[capacity];
+                progress = new float[capacity];
+                colors = new int[capacity];
+            }
+            for (int i = 0; i < count; i++) {
+                x[i] = store.getInterpolatedX(i, 1);
+                y[i] = store.getInterpolatedY(i, 1);
+                previousX[i] = store.getInterpolatedX(i, 0);
+                previousY[i] = store.getInterpolatedY(i, 0);
+                sizes[i] = store.getSize(i);
+                progress[i] = store.getProgress(i);
+                colors[i] = store.getColor(i);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @param particle the index of the particle, from 0 to getCount()
+         * @param alpha how far between the previous and the current tick, from 0 to 1
+         * @return the interpolated horizontal center of the particle
+         */
+        public float getX(int particle, float alpha) {
+            return previousX[particle] + (x[particle] - previousX[particle]) * alpha;
+        }
+
+        /**
+         * @param particle the index of the particle, from 0 to getCount()
+         * @param alpha how far between the previous and the current tick, from 0 to 1
+         * @return the interpolated vertical center of the particle
+         */
+        public float getY(int particle, float alpha) {
+            return previousY[particle] + (y[particle] - previousY[particle]) * alpha;
+        }
+
+        public float getSize(int particle) {
+            return sizes[particle];
+        }
+
+        /**
+         * @param particle the index of the particle, from 0 to getCount()
+         * @return how much of its lifetime the particle had lived at the capture, from 0 to 1
+         */
+        public float getProgress(int particle) {
+            return progress[particle];
+        }
+
+        /**
+         * @param particle the index of the particle, from 0 to getCount()
+         * @return the color as 0x00BBGGRR
+         */
+        public int getColor(int particle) {
+            return colors[particle];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.SortedIteratingSystem;
+import com.badlogic.gdx.graphics.g2d.Batch;
+
+import java.util.Comparator;
+
+/**
+ * Draws every entity with a sprite into a batch, sorted by layer.
+ * Entities on the same layer are drawn in the order in which they were added.
+ * The system does not run in Engine.update(), the Painter calls update() between batch.begin() and batch.end(),
+ * so the simulation can also run without rendering.
+ * Positions are interpolated between the previous and the current simulation tick with the alpha of the frame.
+ */
+public class RenderSystem extends SortedIteratingSystem {
+    private static final Family SPRITES = Family.all(PositionComponent.class, SpriteComponent.class).get();
+
+    private final Batch batch;
+    /**
+     * how far the frame is between the previous and the current tick, from 0 to 1
+     */
+    private float alpha = 1;
+
+    /**
+     * @param batch the batch the sprites are drawn into
+     */
+    public RenderSystem(Batch batch) {
+        super(SPRITES, new LayerComparator());
+        this.batch = batch;
+        setProcessing(false);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.position.get(entity);
+        SpriteComponent sprite = Mappers.sprite.get(entity);
+        float x = position.getInterpolatedX(alpha);
+        float y = position.getInterpolatedY(alpha);
+        if (sprite.centered) {
+            float halfWidth = sprite.width / 2;
+            float halfHeight = sprite.height / 2;
+            batch.draw(sprite.region, x - halfWidth, y - halfHeight, halfWidth, halfHeight,
+                    sprite.width, sprite.height, 1, 1, position.getInterpolatedRotation(alpha));
+        } else {
+            batch.draw(sprite.region, x, y, sprite.width, sprite.height);
+        }
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Sorts sprites by their layer. The sort is stable, so the order within a layer is kept.
+     */
+    private static class LayerComparator implements Comparator<Entity> {
+        @Override
+        public int compare(Entity a, Entity b) {
+            return Mappers.sprite.get(a).layer - Mappers.sprite.get(b).layer;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Marks an entity as a homing rocket of the fighter. The HomingSystem turns it towards the nearest target in every tick.
+ */
+public class RocketComponent implements Component, Pool.Poolable {
+    /**
+     * the speed in pixels per second, the rocket only changes its direction
+     */
+    public float speed;
+    /**
+     * how many degrees per second the rocket can turn
+     */
+    public float turnRate;
+
+    @Override
+    public void reset() {
+        speed = 0;
+        turnRate = 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Runs the GameSimulation on its own thread, so that spawning, movement, power ups and collisions
+ * use a second core instead of shrinking the frame budget of the render thread.
+ * The thread runs fixed ticks with its own FixedTimestep and sleeps until the next tick is due.
+ * After its ticks it captures a RenderSnapshot and publishes it through a SnapshotExchange.
+ * Input arrives through an InputQueue and sound effects leave through a SoundQueue,
+ * so the simulation never touches Gdx.input or the audio backend.
+ * Neither thread waits for the other while a round runs; the lock is only contended by pause() and resume().
+ * Not part of the HTML build, see CosmicRaiders.gwt.xml.
+ */
+public class SimulationThread implements BackgroundSimulation, Runnable {
+    private final InputSnapshot input = new InputSnapshot();
+    private final InputQueue inputQueue = new InputQueue(8);
+    private final SoundQueue soundQueue = new SoundQueue(64);
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+
+    /**
+     * held while ticks run, so pause() returns only once the current tick is done
+     */
+    private final Object lock = new Object();
+    private boolean running;
+    private boolean resumed;
+    private boolean disposed;
+    /**
+     * what made the thread stop, it is rethrown on the render thread
+     */
+    private volatile Throwable failure;
+
+    private GameSimulation simulation;
+    private SteppedClock clock;
+    private FixedTimestep timestep;
+    private long lastTime;
+
+    @Override
+    public InputSource getInput() {
+        return input;
+    }
+
+    @Override
+    public void attach(GameSimulation simulation, SteppedClock clock) {
+        this.simulation = simulation;
+        this.clock = clock;
+        ConfigSet configSet = simulation.getConfigSet();
+        timestep = new FixedTimestep(configSet.getSimulationTickRate(), configSet.getMaxTicksPerFrame());
+        simulation.setSoundOutput(soundQueue);
+
+        Thread thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void resume() {
+        synchronized (lock) {
+            // the simulation does not run, so the snapshot can be captured on this thread
+            snapshots.getBackBuffer().capture(simulation, TimeUtils.nanoTime());
+            snapshots.publish();
+            running = true;
+            resumed = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void pause() {
+        synchronized (lock) {
+            running = false;
+        }
+    }
+
+    @Override
+    public void submitInput(InputSource source, boolean profiling) {
+        inputQueue.offer(source, profiling);
+    }
+
+    @Override
+    public void playQueuedSounds() {
+        soundQueue.playAll();
+    }
+
+    @Override
+    public RenderSnapshot getLatestSnapshot() {
+        if (failure != null) {
+            throw new GdxRuntimeException("The simulation thread failed", failure);
+        }
+        return snapshots.getLatest();
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (lock) {
+            disposed = true;
+            running = false;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                long sleepNanos;
+                synchronized (lock) {
+                    while (!running && !disposed) {
+                        lock.wait();
+                    }
+                    if (disposed) return;
+                    runDueTicks();
+                    sleepNanos = (long) ((1 - timestep.getAlpha()) * timestep.getTickLength() * 1e9);
+                }
+                Thread.sleep(sleepNanos / 1000000, (int) (sleepNanos % 1000000));
+            }
+        } catch (InterruptedException e) {
+            // the application is shutting down
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    /**
+     * Runs the ticks which are due since the last call and publishes a snapshot if there were any.
+     * Before each tick the input which arrived in the meantime is taken over.
+     */
+    private void runDueTicks() {
+        long now = TimeUtils.nanoTime();
+        if (resumed) {
+            timestep.reset();
+            lastTime = now;
+            resumed = false;
+        }
+        int ticks = timestep.advance((now - lastTime) / 1e9f);
+        lastTime = now;
+        for (int tick = 0; tick < ticks; tick++) {
+            if (inputQueue.drainInto(input)) {
+                simulation.getProfiler().setEnabled(input.isProfiling());
+            }
+            clock.step(timestep.getTickLength());
+            simulation.update();
+        }
+        if (ticks > 0) {
+            snapshots.getBackBuffer().capture(simulation, TimeUtils.nanoTime());
+            snapshots.publish();
+        }
+    }
+}
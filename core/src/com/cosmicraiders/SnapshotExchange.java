@@ -0,0 +1,50 @@
+package com.cosmicraiders;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands RenderSnapshots from the simulation thread to the render thread without locks (a triple buffer).
+ * The writer owns the back buffer, the reader owns the front buffer, and the third one is in between.
+ * Publishing swaps the back buffer with the one in between, reading swaps the front buffer with it
+ * if a newer snapshot was published. Neither side ever waits, and the reader always gets a complete snapshot.
+ * There must be only one writer and one reader thread.
+ */
+public class SnapshotExchange {
+    private static final int INDEX_MASK = 3;
+    /**
+     * set in the state while the buffer in between holds a snapshot the reader has not taken yet
+     */
+    private static final int FRESH = 4;
+
+    private final RenderSnapshot[] buffers = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+    /**
+     * the index of the buffer in between, plus the FRESH flag
+     */
+    private final AtomicInteger state = new AtomicInteger(1);
+    private int back = 2;
+    private int front = 0;
+
+    /**
+     * @return the snapshot the writer may capture into
+     */
+    public RenderSnapshot getBackBuffer() {
+        return buffers[back];
+    }
+
+    /**
+     * Makes the back buffer the latest snapshot. Is called by the writer after capturing.
+     */
+    public void publish() {
+        back = state.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * @return the latest published snapshot. Is called by the reader, the snapshot is not changed until the next call
+     */
+    public RenderSnapshot getLatest() {
+        if ((state.get() & FRESH) != 0) {
+            front = state.getAndSet(front) & INDEX_MASK;
+        }
+        return buffers[front];
+    }
+}
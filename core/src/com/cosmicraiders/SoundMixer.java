@@ -0,0 +1,211 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Collects the sound effects the systems request during a tick and plays them through the SoundOutput at its end.
+ * Requests for the same sound within a tick are coalesced into one play, which is louder the more requests there were,
+ * so ten fragments exploding at once are one loud explosion instead of ten voices.
+ * <p>
+ * Only a limited number of voices can play at the same time. Every play takes a voice for the duration of its Category,
+ * counted in game time. When all voices are taken, a sound of a higher category takes the voice of a lower one,
+ * otherwise it is dropped. The fighter explosion is the highest category, so it is always played.
+ * The voice limit stays below what the audio backends can mix, e.g. the streams of the Android SoundPool,
+ * so they never have to cut voices themselves.
+ * Requesting and playing do not allocate.
+ */
+public class SoundMixer {
+
+    /**
+     * The categories of sound effects, from the lowest priority to the highest.
+     */
+    public enum Category {
+        LASER(250),
+        SPAWN(600),
+        EXPLOSION(800),
+        FIGHTER_EXPLOSION(3000);
+
+        /**
+         * how long a play of this category is counted as taking a voice, in milliseconds
+         */
+        private final int duration;
+
+        Category(int duration) {
+            this.duration = duration;
+        }
+    }
+
+    private final GameClock clock;
+
+    /**
+     * the game time at which each voice becomes free, and the category of the sound it plays
+     */
+    private final long[] voiceEnds;
+    private final Category[] voiceCategories;
+
+    /**
+     * the requests of the current tick, one per sound
+     */
+    private int requestCount;
+    private final Sound[] sounds = new Sound[16];
+    private final Category[] categories = new Category[16];
+    private final float[] loudestVolumes = new float[16];
+    private final float[] squaredVolumes = new float[16];
+
+    private long played;
+    private long coalesced;
+    private long dropped;
+    private long stolen;
+
+    /**
+     * Constructs a mixer with all voices free.
+     * @param clock the source of game time
+     * @param voiceLimit how many sounds can play at the same time
+     */
+    public SoundMixer(GameClock clock, int voiceLimit) {
+        this.clock = clock;
+        voiceEnds = new long[Math.max(1, voiceLimit)];
+        voiceCategories = new Category[voiceEnds.length];
+        reset();
+    }
+
+    /**
+     * Frees all voices and forgets the requests of the current tick, e.g. for a new round. The counts are kept.
+     */
+    public void reset() {
+        for (int i = 0; i < voiceEnds.length; i++) {
+            voiceEnds[i] = Long.MIN_VALUE;
+            voiceCategories[i] = null;
+        }
+        for (int i = 0; i < requestCount; i++) {
+            sounds[i] = null;
+        }
+        requestCount = 0;
+    }
+
+    /**
+     * Requests a sound effect, it is played at the end of the tick, see flush().
+     * @param sound the sound effect
+     * @param category the category, which decides who gets a voice
+     * @param volume the volume from 0 to 1
+     */
+    public void request(Sound sound, Category category, float volume) {
+        for (int i = 0; i < requestCount; i++) {
+            if (sounds[i] == sound) {
+                if (category.ordinal() > categories[i].ordinal()) categories[i] = category;
+                loudestVolumes[i] = Math.max(loudestVolumes[i], volume);
+                squaredVolumes[i] += volume * volume;
+                coalesced++;
+                return;
+            }
+        }
+        if (requestCount == sounds.length) {
+            dropped++;
+            return;
+        }
+        sounds[requestCount] = sound;
+        categories[requestCount] = category;
+        loudestVolumes[requestCount] = volume;
+        squaredVolumes[requestCount] = volume * volume;
+        requestCount++;
+    }
+
+    /**
+     * Plays the requests of the current tick, the highest category first, as long as there are voices for them.
+     * A coalesced sound gets the volume of the sum of its requests, which adds up like uncorrelated signals
+     * (the root of the sum of the squares), but not above the loudest request or 1, whichever is higher.
+     * @param output plays the sounds
+     */
+    public void flush(SoundOutput output) {
+        long now = clock.millis();
+        while (requestCount > 0) {
+            int next = 0;
+            for (int i = 1; i < requestCount; i++) {
+                if (categories[i].ordinal() > categories[next].ordinal()) next = i;
+            }
+            Sound sound = sounds[next];
+            Category category = categories[next];
+            float volume = Math.min(Math.max(1, loudestVolumes[next]), (float) Math.sqrt(squaredVolumes[next]));
+            removeRequest(next);
+
+            int voice = findVoice(now, category);
+            if (voice < 0) {
+                dropped++;
+                continue;
+            }
+            if (voiceEnds[voice] > now) stolen++;
+            voiceEnds[voice] = now + category.duration;
+            voiceCategories[voice] = category;
+            played++;
+            output.play(sound, volume);
+        }
+    }
+
+    /**
+     * Auxiliary method, the last request takes the place of the removed one.
+     */
+    private void removeRequest(int index) {
+        int last = --requestCount;
+        sounds[index] = sounds[last];
+        categories[index] = categories[last];
+        loudestVolumes[index] = loudestVolumes[last];
+        squaredVolumes[index] = squaredVolumes[last];
+        sounds[last] = null;
+    }
+
+    /**
+     * Auxiliary method, finds a free voice, or else the voice of the lowest category below the given one
+     * which ends first.
+     * @return the index of the voice, -1 if all voices play sounds of the same or a higher category
+     */
+    private int findVoice(long now, Category category) {
+        int best = -1;
+        for (int i = 0; i < voiceEnds.length; i++) {
+            if (voiceEnds[i] <= now) return i;
+            Category playing = voiceCategories[i];
+            if (playing.ordinal() >= category.ordinal()) continue;
+            if (best < 0 || playing.ordinal() < voiceCategories[best].ordinal()
+                    || (playing == voiceCategories[best] && voiceEnds[i] < voiceEnds[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return how many sounds were played
+     */
+    public long getPlayed() {
+        return played;
+    }
+
+    /**
+     * @return how many requests were merged into another request of the same sound in the same tick
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return how many sounds were not played because no voice was free
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return how many sounds took the voice of a sound of a lower category
+     */
+    public long getStolen() {
+        return stolen;
+    }
+
+    /**
+     * Writes the counts to the application log.
+     */
+    public void logReport() {
+        Gdx.app.log("SoundMixer", "played " + played + ", coalesced " + coalesced + ", dropped " + dropped
+                + ", stolen " + stolen);
+    }
+}
@@ -0,0 +1,17 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Plays the sound effects of the simulation.
+ * By default they are played right away. A SimulationThread queues them instead,
+ * so that they are played on the render thread.
+ */
+public interface SoundOutput {
+
+    /**
+     * @param sound the sound effect
+     * @param volume the volume from 0 to 1
+     */
+    void play(Sound sound, float volume);
+}
@@ -0,0 +1,54 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.audio.Sound;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A SoundOutput which carries the sound effects of the simulation thread to the render thread without locks,
+ * because the audio backends expect to be called from the render thread.
+ * It is a ring buffer for exactly one producer and one consumer, like the InputQueue.
+ * If the render thread falls so far behind that the queue is full, further sounds are dropped.
+ */
+public class SoundQueue implements SoundOutput {
+    private final Sound[] sounds;
+    private final float[] volumes;
+    private final int mask;
+    private final AtomicInteger head = new AtomicInteger();
+    private final AtomicInteger tail = new AtomicInteger();
+
+    /**
+     * @param capacity how many sounds can wait, rounded up to a power of two
+     */
+    public SoundQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        sounds = new Sound[size];
+        volumes = new float[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Queues a sound effect. Is called by the producer.
+     */
+    @Override
+    public void play(Sound sound, float volume) {
+        int t = tail.get();
+        if (t - head.get() == sounds.length) return;
+        sounds[t & mask] = sound;
+        volumes[t & mask] = volume;
+        tail.lazySet(t + 1);
+    }
+
+    /**
+     * Plays all waiting sound effects. Is called by the consumer.
+     */
+    public void playAll() {
+        int h = head.get();
+        int t = tail.get();
+        for (; h != t; h++) {
+            sounds[h & mask].play(volumes[h & mask]);
+            sounds[h & mask] = null;
+        }
+        head.lazySet(h);
+    }
+}
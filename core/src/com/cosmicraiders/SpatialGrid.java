@@ -0,0 +1,189 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the playfield which is used as a collision broad phase.
+ * Every frame the grid is cleared and all objects of one type are inserted with their bounding boxes.
+ * A query then only returns the objects in the cells a bounding box touches,
+ * so that the exact Intersector test only has to run for nearby pairs.
+ * Objects outside the playfield are clamped into the border cells.
+ * The grid keeps its arrays between frames, it only allocates when it has to grow.
+ * Queries do not change the grid, so several threads can query it at the same time if each has its own Cursor.
+ * @param <T> the type of object which is stored
+ */
+public class SpatialGrid<T> {
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * index of the first entry in each cell, -1 if the cell is empty
+     */
+    private final int[] cellHeads;
+    /**
+     * index of the next entry in the same cell, -1 at the end of the cell
+     */
+    private int[] entryNext = new int[64];
+    /**
+     * the handle of the object an entry belongs to
+     */
+    private int[] entryHandles = new int[64];
+    private int entryCount;
+
+    /**
+     * the inserted objects, indexed by handle
+     */
+    private final Array<T> items = new Array<T>();
+    /**
+     * the cursor of the queries without an own one
+     */
+    private final Cursor cursor = new Cursor();
+
+    /**
+     * Constructs a grid which covers the given playfield.
+     * @param width the width of the playfield
+     * @param height the height of the playfield
+     * @param cellSize the width and height of one cell
+     */
+    public SpatialGrid(int width, int height, float cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellHeads = new int[columns * rows];
+        clear();
+    }
+
+    /**
+     * Removes all objects from the grid.
+     */
+    public void clear() {
+        for (int i = 0; i < cellHeads.length; i++) {
+            cellHeads[i] = -1;
+        }
+        entryCount = 0;
+        items.clear();
+    }
+
+    /**
+     * Inserts an object into all cells its bounding box touches.
+     * @param item the object
+     * @param minX left edge of the bounding box
+     * @param minY bottom edge of the bounding box
+     * @param maxX right edge of the bounding box
+     * @param maxY top edge of the bounding box
+     * @return the handle of the object, which stays valid until the next clear()
+     */
+    public int insert(T item, float minX, float minY, float maxX, float maxY) {
+        int handle = items.size;
+        items.add(item);
+
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                if (entryCount == entryNext.length) {
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                    entryHandles = Arrays.copyOf(entryHandles, entryCount * 2);
+                }
+                int cell = r * columns + c;
+                entryHandles[entryCount] = handle;
+                entryNext[entryCount] = cellHeads[cell];
+                cellHeads[cell] = entryCount;
+                entryCount++;
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Collects the handles of all objects which share a cell with the given bounding box.
+     * Each object is reported once.
+     * @param minX left edge of the bounding box
+     * @param minY bottom edge of the bounding box
+     * @param maxX right edge of the bounding box
+     * @param maxY top edge of the bounding box
+     * @param out the handles are added to this array, it is cleared first
+     */
+    public void query(float minX, float minY, float maxX, float maxY, IntArray out) {
+        query(minX, minY, maxX, maxY, out, cursor);
+    }
+
+    /**
+     * Collects the handles of all objects which share a cell with the given bounding box.
+     * Each object is reported once.
+     * @param minX left edge of the bounding box
+     * @param minY bottom edge of the bounding box
+     * @param maxX right edge of the bounding box
+     * @param maxY top edge of the bounding box
+     * @param out the handles are added to this array, it is cleared first
+     * @param cursor remembers which objects were reported, each thread needs its own
+     */
+    public void query(float minX, float minY, float maxX, float maxY, IntArray out, Cursor cursor) {
+        out.clear();
+        if (cursor.stamps.length < items.size) {
+            cursor.stamps = Arrays.copyOf(cursor.stamps, Math.max(items.size, cursor.stamps.length * 2));
+        }
+        int[] queryStamps = cursor.stamps;
+        int queryStamp = ++cursor.stamp;
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                for (int entry = cellHeads[r * columns + c]; entry != -1; entry = entryNext[entry]) {
+                    int handle = entryHandles[entry];
+                    if (queryStamps[handle] != queryStamp) {
+                        queryStamps[handle] = queryStamp;
+                        out.add(handle);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param handle the handle returned by insert()
+     * @return the object with this handle
+     */
+    public T get(int handle) {
+        return items.get(handle);
+    }
+
+    /**
+     * @return how many objects were inserted since the last clear()
+     */
+    public int size() {
+        return items.size;
+    }
+
+    private int column(float x) {
+        int c = (int) (x / cellSize);
+        if (x < 0 || c < 0) return 0;
+        return c >= columns ? columns - 1 : c;
+    }
+
+    private int row(float y) {
+        int r = (int) (y / cellSize);
+        if (y < 0 || r < 0) return 0;
+        return r >= rows ? rows - 1 : r;
+    }
+
+    /**
+     * Remembers which objects a query already reported, so each is reported only once.
+     * The stamp grows with every query, so stamps of earlier queries and earlier frames never match.
+     */
+    public static class Cursor {
+        /**
+         * the number of the last query that returned each handle
+         */
+        private int[] stamps = new int[32];
+        private int stamp;
+    }
+}
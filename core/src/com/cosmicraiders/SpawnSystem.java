@@ -0,0 +1,261 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The SpawnSystem creates objects in the game: asteroids, alien lasers and bullets, fighter lasers and rockets and power ups.
+ * The asteroids and the reloading of the fighter are timed by timers of the TimerWheel,
+ * the waves of aliens and their shots by the AlienFleet.
+ * The entities themselves are built by the EntityFactory.
+ * All asteroids in flight fall at the asteroid speed of the ConfigSet: when it changes, e.g. with the difficulty,
+ * their velocities change with it.
+ */
+public class SpawnSystem extends EntitySystem implements TimerWheel.Listener {
+    public static final int PRIORITY = 0;
+    /**
+     * how many spawn intervals the timers may fall behind before the missed spawns are dropped
+     */
+    private static final int MAX_MISSED_SPAWNS = 4;
+    /**
+     * the ids of the timers
+     */
+    private static final int ASTEROID = 0;
+    private static final int FIGHTER_RELOADED = 1;
+    private static final int ROCKET_RELOADED = 2;
+    private static final Family MOVING = Family.all(TypeComponent.class, VelocityComponent.class).get();
+
+    private final GameSimulation simulation;
+    private ImmutableArray<Entity> movingEntities;
+    /**
+     * the asteroid speed the asteroids in flight fall at
+     */
+    private int asteroidSpeed;
+    /**
+     * can the fighter shoot, or is the interval since its last shot not over yet?
+     */
+    private boolean fighterReloaded;
+    /**
+     * can the fighter launch a rocket?
+     */
+    private boolean rocketReloaded;
+
+    /**
+     * The constructor gets a reference to the GameSimulation in order to refer back to it.
+     *
+     * @param simulation the main game environment
+     */
+    public SpawnSystem(GameSimulation simulation) {
+        super(PRIORITY);
+        this.simulation = simulation;
+    }
+
+    /**
+     * Prepares the timers for a new round. The timers of the last round have to be dropped already.
+     */
+    public void reset() {
+        asteroidSpeed = simulation.getConfigSet().getAsteroidSpeed();
+        fighterReloaded = true;
+        rocketReloaded = true;
+        // the first asteroid is due right away
+        simulation.getTimers().schedule(simulation.getClock().millis(), this, ASTEROID);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        super.addedToEngine(engine);
+        movingEntities = engine.getEntitiesFor(MOVING);
+    }
+
+    /**
+     * Applies a change of the asteroid speed to the asteroids in flight. The spawning is done by the timers.
+     */
+    @Override
+    public void update(float deltaTime) {
+        int speed = simulation.getConfigSet().getAsteroidSpeed();
+        if (speed != asteroidSpeed) {
+            changeAsteroidSpeed(speed - asteroidSpeed);
+            asteroidSpeed = speed;
+        }
+    }
+
+    /**
+     * Auxiliary method, makes every asteroid in flight fall faster or slower.
+     * Fragments keep the directions they fly apart in, only their falling speed changes.
+     * The impacts predicted with the old velocities become invalid, see ImpactScheduler.velocityChanged().
+     * @param change how many pixels per second faster the asteroids fall
+     */
+    private void changeAsteroidSpeed(int change) {
+        for (int i = 0; i < movingEntities.size(); i++) {
+            Entity entity = movingEntities.get(i);
+            if (Mappers.type.get(entity).type != EntityType.ASTEROID) continue;
+            Mappers.velocity.get(entity).y -= change;
+            simulation.getImpactScheduler().velocityChanged(entity);
+        }
+    }
+
+    /**
+     * Spawns an asteroid and sets the timer for the next one, or lets the fighter shoot or launch a rocket again.
+     * The asteroid timer advances by whole intervals instead of jumping to now,
+     * so the spawn rate does not depend on the tick length. If a tick covers several intervals,
+     * every missed asteroid is spawned, moved as far as it would have fallen since it was due.
+     */
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        if (id == FIGHTER_RELOADED) {
+            fighterReloaded = true;
+            return;
+        }
+        if (id == ROCKET_RELOADED) {
+            rocketReloaded = true;
+            return;
+        }
+        long now = simulation.getClock().millis();
+        long asteroidDelay = Math.max(1, simulation.getConfigSet().getAsteroidSpawnDelay());
+        spawnAsteroid((now - time) / 1000f);
+        simulation.getTimers().schedule(Math.max(time + asteroidDelay, now - asteroidDelay * MAX_MISSED_SPAWNS), this, ASTEROID);
+    }
+
+    /**
+     * Spawns an asteroid at a random horizontal position above the top of the screen.
+     * This method ensures a steady stream of asteroids falling from the top of the screen towards the bottom.
+     * Does not set a timer, timerFired() keeps the timing. No asteroid is spawned while the asteroid budget is used up.
+     *
+     * @param lateness how many seconds ago the asteroid was due, it starts as far down as it would have fallen since
+     */
+    public void spawnAsteroid(float lateness) {
+        if (simulation.getEntityCounts().getRoom(EntityType.ASTEROID) == 0) return;
+        float randomSizeMultiplier = MathUtils.random(1.0f, 2.0f);
+        float radius = (simulation.getConfigSet().getAsteroidDiameter() / 2) * randomSizeMultiplier;
+        float x = MathUtils.random(simulation.getConfigSet().getFighterSize(), simulation.getConfigSet().getResolutionX() - simulation.getConfigSet().getFighterSize());
+        float y = simulation.getConfigSet().getResolutionY() + radius - simulation.getConfigSet().getAsteroidSpeed() * lateness;
+        simulation.getEntityFactory().createAsteroid(x, y, radius);
+    }
+
+    /**
+     * Splits a destroyed asteroid into fragments which fly apart from its center, on top of its own velocity.
+     * Together the fragments have the area of the asteroid. Fragments are asteroids themselves,
+     * so they split again when they are hit, until they would be smaller than the minimum fragment diameter.
+     * When the asteroid budget has no room for all fragments, fewer and larger fragments are spawned instead,
+     * and none if there is room for less than two, so a chain reaction never exceeds the budget.
+     * The asteroid has to be spawned by the EntityFactory, it is not removed here.
+     *
+     * @param asteroid the asteroid which was destroyed
+     */
+    public void spawnFragments(Entity asteroid) {
+        ConfigSet configSet = simulation.getConfigSet();
+        int count = Math.min(configSet.getAsteroidFragmentCount(), simulation.getEntityCounts().getRoom(EntityType.ASTEROID));
+        if (count < 2) return;
+        Circle circle = Mappers.bounds.get(asteroid).circle;
+        float radius = circle.radius / (float) Math.sqrt(count);
+        if (radius * 2 < configSet.getAsteroidFragmentMinimumDiameter()) {
+            // merging did not help, a full split would be even smaller
+            return;
+        }
+        VelocityComponent velocity = Mappers.velocity.get(asteroid);
+        float speed = configSet.getAsteroidFragmentSpeed();
+        float start = MathUtils.random(360f);
+        for (int i = 0; i < count; i++) {
+            float angle = start + i * 360f / count;
+            float cos = MathUtils.cosDeg(angle);
+            float sin = MathUtils.sinDeg(angle);
+            simulation.getEntityFactory().createAsteroid(circle.x + cos * radius, circle.y + sin * radius, radius,
+                    velocity.x + cos * speed, velocity.y + sin * speed);
+        }
+    }
+
+    /**
+     * Spawns an alien laser starting from the bottom middle of the alien ship sprite.
+     * The AlienFleet decides when an alien shoots.
+     *
+     * @param x the horizontal coordinate of the alien ship that shoots
+     * @param y the vertical coordinate of the alien ship that shoots
+     */
+    public void spawnAlienLaser(float x, float y) {
+        simulation.playSound(AssetSet.alienLaser, SoundMixer.Category.LASER, simulation.getConfigSet().getVolume());
+        ConfigSet configSet = simulation.getConfigSet();
+        LaserStore alienLasers = simulation.getAlienLasers();
+        alienLasers.add(x + configSet.getAlienSize() / 2 - alienLasers.getWidth() / 2, y - configSet.getAlienSize());
+    }
+
+    /**
+     * Spawns a burst of alien bullets from the bottom middle of the alien ship sprite.
+     * The AlienFleet decides when an alien shoots and which pattern it uses.
+     *
+     * @param pattern the pattern of the wave of the alien
+     * @param x the horizontal coordinate of the alien ship that shoots
+     * @param y the vertical coordinate of the alien ship that shoots
+     * @param burst how many bursts this alien has shot before
+     */
+    public void spawnAlienBullets(BulletPattern pattern, float x, float y, int burst) {
+        simulation.playSound(AssetSet.alienLaser, SoundMixer.Category.LASER, simulation.getConfigSet().getVolume());
+        ConfigSet configSet = simulation.getConfigSet();
+        Rectangle fighter = simulation.getFighter();
+        // without a fighter, aimed bursts go straight down
+        float centerX = x + configSet.getAlienSize() / 2f;
+        float targetX = fighter != null ? fighter.x + fighter.width / 2 : centerX;
+        float targetY = fighter != null ? fighter.y + fighter.height / 2 : 0;
+        pattern.emit(simulation.getAlienBullets(), centerX, y, configSet.getAlienBulletSpeed(), targetX, targetY, burst);
+    }
+
+    /**
+     * Spawns a fighter laser starting from the top middle of the fighter ship sprite
+     * while the fire button is held down.
+     * Sets a timer for the end of the interval between shots.
+     */
+    public void spawnFighterLaser() {
+        if (simulation.getInput().isKeyPressed(Input.Keys.SPACE) || simulation.getInput().isButtonPressed(Input.Buttons.LEFT)) {
+            if (fighterReloaded) {
+                simulation.playSound(AssetSet.fighterLaser, SoundMixer.Category.LASER, simulation.getConfigSet().getVolume());
+                ConfigSet configSet = simulation.getConfigSet();
+                LaserStore fighterLasers = simulation.getFighterLasers();
+                fighterLasers.add(simulation.getFighter().x + configSet.getFighterSize() / 2 - fighterLasers.getWidth() / 2,
+                        simulation.getFighter().y + configSet.getFighterSize());
+                fighterReloaded = false;
+                long interval = (long) (1000 / simulation.getConfigSet().getFighterShotsPerSecond());
+                simulation.getTimers().schedule(simulation.getClock().millis() + interval + 1, this, FIGHTER_RELOADED);
+            }
+        }
+    }
+
+    /**
+     * Launches a homing rocket from the top middle of the fighter ship sprite
+     * while the rocket button is held down.
+     * Sets a timer for the end of the interval between launches.
+     */
+    public void spawnFighterRocket() {
+        if (simulation.getInput().isKeyPressed(Input.Keys.R) || simulation.getInput().isButtonPressed(Input.Buttons.RIGHT)) {
+            if (rocketReloaded && simulation.getConfigSet().getFighterRocketsPerSecond() > 0) {
+                simulation.playSound(AssetSet.fighterLaser, SoundMixer.Category.LASER, simulation.getConfigSet().getVolume());
+                Rectangle fighter = simulation.getFighter();
+                simulation.getEntityFactory().createRocket(fighter.x + fighter.width / 2, fighter.y + fighter.height);
+                rocketReloaded = false;
+                long interval = (long) (1000 / simulation.getConfigSet().getFighterRocketsPerSecond());
+                simulation.getTimers().schedule(simulation.getClock().millis() + interval + 1, this, ROCKET_RELOADED);
+            }
+        }
+    }
+
+    /**
+     * Attempt  to spawn a powerUp with a predetermined chance.
+     * @param x x-Position of the destroyed asteroid
+     * @param y y-Position of the destroyed asteroid
+     */
+    public void attemptPowerUpSpawn(float x, float y) {
+        float randomFloat = MathUtils.random(0.0f, 1.0f);
+        if (randomFloat <= 0.2) {
+            simulation.getEntityFactory().createPowerUp(x, y);
+        }
+    }
+
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+}
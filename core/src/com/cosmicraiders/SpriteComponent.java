@@ -0,0 +1,32 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * What an entity looks like. Entities with a sprite are drawn by the RenderSystem.
+ */
+public class SpriteComponent implements Component, Pool.Poolable {
+    public TextureRegion region;
+    public float width;
+    public float height;
+    /**
+     * if true, the sprite is centered on the position and rotated with it,
+     * otherwise the position is its lower left corner
+     */
+    public boolean centered;
+    /**
+     * sprites with a lower layer are drawn first
+     */
+    public int layer;
+
+    @Override
+    public void reset() {
+        region = null;
+        width = 0;
+        height = 0;
+        centered = false;
+        layer = 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+
+/**
+ * A scrolling parallax background made of several star layers.
+ * Each layer is drawn as one quad which covers the whole screen.
+ * The star texture uses the Repeat wrap mode, so the quad tiles it by itself,
+ * and scrolling only moves the texture coordinates instead of the quad.
+ * The number of layers, their tile sizes and their speeds come from the ConfigSet.
+ */
+public class Starfield {
+    private final Texture texture;
+    private final int[] tileSizes;
+    private final float[] speedFactors;
+    /**
+     * the vertical texture offset of each layer, always between 0 and 1
+     */
+    private final float[] offsets;
+
+    /**
+     * Constructs a starfield with the layers which are configured in the ConfigSet.
+     * @param texture the star texture, it has to use the Repeat wrap mode
+     * @param configSet the game settings
+     */
+    public Starfield(Texture texture, ConfigSet configSet) {
+        this.texture = texture;
+        this.tileSizes = configSet.getStarLayerTileSizes();
+        this.speedFactors = configSet.getStarLayerSpeedFactors();
+        this.offsets = new float[tileSizes.length];
+    }
+
+    /**
+     * Scrolls all layers downwards.
+     * @param distance how many pixels a layer with speed factor 1 moves
+     */
+    public void scroll(float distance) {
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] -= distance * speedFactors[i] / tileSizes[i];
+            offsets[i] -= (float) Math.floor(offsets[i]);
+        }
+    }
+
+    /**
+     * Draws every layer as a single quad.
+     * @param batch the batch to draw into, begin() has to be called already
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public void render(Batch batch, float width, float height) {
+        for (int i = 0; i < offsets.length; i++) {
+            float u2 = width / tileSizes[i];
+            float v2 = offsets[i];
+            float v = v2 + height / tileSizes[i];
+            batch.draw(texture, 0, 0, width, height, 0, v, u2, v2);
+        }
+    }
+
+    /**
+     * @return how many quads are drawn per frame
+     */
+    public int getLayerCount() {
+        return offsets.length;
+    }
+}
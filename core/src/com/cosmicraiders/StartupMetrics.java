@@ -0,0 +1,67 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Measures how long the game takes to start, counted from CosmicRaiders.create():
+ * time to first frame (the loading screen is drawn),
+ * time to menu (the main menu is shown)
+ * and time to interactive (all assets are loaded and a round can be started).
+ * Each value is written to the application log once. A value of -1 means the point was not reached yet.
+ */
+public class StartupMetrics {
+    private final long startTime;
+    private long timeToFirstFrame = -1;
+    private long timeToMenu = -1;
+    private long timeToInteractive = -1;
+
+    /**
+     * Starts measuring.
+     */
+    public StartupMetrics() {
+        startTime = TimeUtils.millis();
+    }
+
+    /**
+     * Is called after every rendered frame, only the first call is recorded.
+     */
+    public void frameRendered() {
+        if (timeToFirstFrame < 0) {
+            timeToFirstFrame = TimeUtils.timeSinceMillis(startTime);
+            Gdx.app.log("Startup", "time to first frame: " + timeToFirstFrame + " ms");
+        }
+    }
+
+    /**
+     * Is called when the main menu is shown.
+     */
+    public void menuShown() {
+        if (timeToMenu < 0) {
+            timeToMenu = TimeUtils.timeSinceMillis(startTime);
+            Gdx.app.log("Startup", "time to menu: " + timeToMenu + " ms");
+        }
+    }
+
+    /**
+     * Is called when all assets are loaded and the player can start a round.
+     */
+    public void interactive() {
+        if (timeToInteractive < 0) {
+            timeToInteractive = TimeUtils.timeSinceMillis(startTime);
+            Gdx.app.log("Startup", "time to interactive: " + timeToInteractive + " ms");
+        }
+    }
+
+    public long getTimeToFirstFrame() {
+        return timeToFirstFrame;
+    }
+
+    public long getTimeToMenu() {
+        return timeToMenu;
+    }
+
+    public long getTimeToInteractive() {
+        return timeToInteractive;
+    }
+}
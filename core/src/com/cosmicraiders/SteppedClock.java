@@ -0,0 +1,40 @@
+package com.cosmicraiders;
+
+/**
+ * A GameClock which only moves forward when step() is called.
+ * GameScreen steps it with the render delta, a headless runner can step it as fast as it likes.
+ */
+public class SteppedClock implements GameClock {
+    /**
+     * game time in milliseconds, kept as double so that small steps do not get lost to rounding
+     */
+    private double time;
+    private float deltaTime;
+
+    /**
+     * Constructs a clock which starts at the given time.
+     * @param startMillis the time in milliseconds the clock starts at
+     */
+    public SteppedClock(long startMillis) {
+        this.time = startMillis;
+    }
+
+    /**
+     * Advances the clock.
+     * @param delta the time in seconds which passed since the last step
+     */
+    public void step(float delta) {
+        this.deltaTime = delta;
+        this.time += delta * 1000.0;
+    }
+
+    @Override
+    public long millis() {
+        return (long) time;
+    }
+
+    @Override
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+}
@@ -0,0 +1,292 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Answers "what is near this point" for the entities which can be aimed at: the nearest one, the k nearest ones
+ * and all within a radius, optionally only of some EntityTypes. The HomingSystem rebuilds it once per tick,
+ * so every system which runs later in the tick (rockets, aim assist, alien targeting) can query it
+ * instead of scanning all entities, which would be O(seekers * targets).
+ * <p>
+ * It is a uniform grid over the playfield like the SpatialGrid, but it stores points (the centers of the bounds)
+ * instead of boxes, sorted by cell in one pass of a counting sort, so every cell is a contiguous range of the arrays.
+ * Nearest queries visit the cells ring by ring around the query point and stop as soon as no cell of the next ring
+ * can be nearer than what was found. Points outside the playfield are clamped into the border cells.
+ * Building and querying do not allocate once the arrays are large enough.
+ * Queries do not change the index, so several threads can query it at the same time.
+ */
+public class TargetIndex {
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    /**
+     * the index of the first point of each cell, cellStarts[cell + 1] is the end of the cell
+     */
+    private final int[] cellStarts;
+
+    /**
+     * the points in the order they were added, until build() sorts them by cell
+     */
+    private int count;
+    private float[] addedX = new float[64];
+    private float[] addedY = new float[64];
+    private int[] addedBits = new int[64];
+    private Entity[] addedEntities = new Entity[64];
+    private int[] addedCells = new int[64];
+
+    /**
+     * the points sorted by cell, valid after build()
+     */
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private int[] bits = new int[64];
+    private Entity[] entities = new Entity[64];
+
+    /**
+     * Constructs an empty index which covers the given playfield.
+     * @param width the width of the playfield
+     * @param height the height of the playfield
+     * @param cellSize the width and height of one cell
+     */
+    public TargetIndex(int width, int height, float cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellStarts = new int[columns * rows + 1];
+    }
+
+    /**
+     * Removes all points. The entities are only dropped by the next build().
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds a point. It can be found once build() has been called.
+     * @param entity the entity the point belongs to
+     * @param type the type of the entity, queries can be restricted to types
+     * @param centerX the horizontal coordinate
+     * @param centerY the vertical coordinate
+     */
+    public void add(Entity entity, EntityType type, float centerX, float centerY) {
+        if (count == addedX.length) grow();
+        addedX[count] = centerX;
+        addedY[count] = centerY;
+        addedBits[count] = type.getBit();
+        addedEntities[count] = entity;
+        addedCells[count] = row(centerY) * columns + column(centerX);
+        count++;
+    }
+
+    /**
+     * Sorts the added points by cell, after that the index can be queried until the next clear().
+     */
+    public void build() {
+        Arrays.fill(cellStarts, 0);
+        for (int i = 0; i < count; i++) {
+            cellStarts[addedCells[i] + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        // the starts are used as write positions and moved back by one cell afterwards
+        for (int i = 0; i < count; i++) {
+            int to = cellStarts[addedCells[i]]++;
+            x[to] = addedX[i];
+            y[to] = addedY[i];
+            bits[to] = addedBits[i];
+            entities[to] = addedEntities[i];
+        }
+        for (int cell = columns * rows; cell > 0; cell--) {
+            cellStarts[cell] = cellStarts[cell - 1];
+        }
+        cellStarts[0] = 0;
+        Arrays.fill(addedEntities, 0, count, null);
+        Arrays.fill(entities, count, entities.length, null);
+    }
+
+    private void grow() {
+        int capacity = addedX.length * 2;
+        addedX = Arrays.copyOf(addedX, capacity);
+        addedY = Arrays.copyOf(addedY, capacity);
+        addedBits = Arrays.copyOf(addedBits, capacity);
+        addedEntities = Arrays.copyOf(addedEntities, capacity);
+        addedCells = Arrays.copyOf(addedCells, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        bits = Arrays.copyOf(bits, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+    }
+
+    /**
+     * Finds the nearest point.
+     * @param queryX the horizontal coordinate of the query point
+     * @param queryY the vertical coordinate of the query point
+     * @param maxDistance points farther away are not found
+     * @param typeBits the bits of the EntityTypes to look for
+     * @return the index of the nearest point, -1 if there is none
+     */
+    public int nearest(float queryX, float queryY, float maxDistance, int typeBits) {
+        int best = -1;
+        float bestDistance2 = maxDistance * maxDistance;
+        int queryColumn = column(queryX);
+        int queryRow = row(queryY);
+        float outside = getOutsideDistance(queryX, queryY);
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ring > 0) {
+                float bound = (ring - 1) * cellSize - outside;
+                if (bound > 0 && bound * bound > bestDistance2) break;
+            }
+            int firstRow = Math.max(0, queryRow - ring);
+            int lastRow = Math.min(rows - 1, queryRow + ring);
+            for (int r = firstRow; r <= lastRow; r++) {
+                boolean edgeRow = r == queryRow - ring || r == queryRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int c = queryColumn - ring; c <= queryColumn + ring; c += Math.max(1, step)) {
+                    if (c < 0 || c >= columns) continue;
+                    int cell = r * columns + c;
+                    for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                        if ((bits[i] & typeBits) == 0) continue;
+                        float dx = x[i] - queryX;
+                        float dy = y[i] - queryY;
+                        float distance2 = dx * dx + dy * dy;
+                        if (distance2 <= bestDistance2) {
+                            bestDistance2 = distance2;
+                            best = i;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the k nearest points, nearest first.
+     * @param queryX the horizontal coordinate of the query point
+     * @param queryY the vertical coordinate of the query point
+     * @param k how many points are wanted at most
+     * @param maxDistance points farther away are not found
+     * @param typeBits the bits of the EntityTypes to look for
+     * @param out is cleared and receives the indices of the points
+     * @param distances2 receives the squared distances of the points, it must have room for k values
+     */
+    public void nearest(float queryX, float queryY, int k, float maxDistance, int typeBits, IntArray out, float[] distances2) {
+        out.clear();
+        if (k <= 0) return;
+        out.ensureCapacity(k);
+        float limit2 = maxDistance * maxDistance;
+        int queryColumn = column(queryX);
+        int queryRow = row(queryY);
+        float outside = getOutsideDistance(queryX, queryY);
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ring > 0) {
+                float bound = (ring - 1) * cellSize - outside;
+                float worst2 = out.size == k ? distances2[k - 1] : limit2;
+                if (bound > 0 && bound * bound > worst2) break;
+            }
+            int firstRow = Math.max(0, queryRow - ring);
+            int lastRow = Math.min(rows - 1, queryRow + ring);
+            for (int r = firstRow; r <= lastRow; r++) {
+                boolean edgeRow = r == queryRow - ring || r == queryRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int c = queryColumn - ring; c <= queryColumn + ring; c += Math.max(1, step)) {
+                    if (c < 0 || c >= columns) continue;
+                    int cell = r * columns + c;
+                    for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                        if ((bits[i] & typeBits) == 0) continue;
+                        float dx = x[i] - queryX;
+                        float dy = y[i] - queryY;
+                        float distance2 = dx * dx + dy * dy;
+                        if (distance2 > limit2 || (out.size == k && distance2 >= distances2[k - 1])) continue;
+                        // insertion into the sorted result, the farthest one drops out when it is full
+                        int position = out.size < k ? out.size++ : k - 1;
+                        while (position > 0 && distances2[position - 1] > distance2) {
+                            out.items[position] = out.items[position - 1];
+                            distances2[position] = distances2[position - 1];
+                            position--;
+                        }
+                        out.items[position] = i;
+                        distances2[position] = distance2;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds all points within a radius, in no particular order.
+     * @param queryX the horizontal coordinate of the query point
+     * @param queryY the vertical coordinate of the query point
+     * @param radius the radius
+     * @param typeBits the bits of the EntityTypes to look for
+     * @param out is cleared and receives the indices of the points
+     */
+    public void within(float queryX, float queryY, float radius, int typeBits, IntArray out) {
+        out.clear();
+        float radius2 = radius * radius;
+        int firstColumn = column(queryX - radius);
+        int lastColumn = column(queryX + radius);
+        int firstRow = row(queryY - radius);
+        int lastRow = row(queryY + radius);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int i = cellStarts[r * columns + firstColumn]; i < cellStarts[r * columns + lastColumn + 1]; i++) {
+                if ((bits[i] & typeBits) == 0) continue;
+                float dx = x[i] - queryX;
+                float dy = y[i] - queryY;
+                if (dx * dx + dy * dy <= radius2) out.add(i);
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, how far a point is outside of the grid, 0 if it is inside.
+     * The rings around a point outside start at the clamped cell, so they are that much less far away from the point.
+     */
+    private float getOutsideDistance(float queryX, float queryY) {
+        float dx = Math.max(0, Math.max(-queryX, queryX - columns * cellSize));
+        float dy = Math.max(0, Math.max(-queryY, queryY - rows * cellSize));
+        return dx + dy;
+    }
+
+    private int column(float x) {
+        int c = (int) (x / cellSize);
+        if (x < 0 || c < 0) return 0;
+        return c >= columns ? columns - 1 : c;
+    }
+
+    private int row(float y) {
+        int r = (int) (y / cellSize);
+        if (y < 0 || r < 0) return 0;
+        return r >= rows ? rows - 1 : r;
+    }
+
+    /**
+     * @return how many points the index holds
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param index the index of a point returned by a query
+     * @return the entity of the point
+     */
+    public Entity getEntity(int index) {
+        return entities[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+}
@@ -0,0 +1,293 @@
+package com.cosmicraiders;
+
+import java.util.Arrays;
+
+/**
+ * The game-time scheduler: everything which happens at a certain game time (spawns, shots, turns of the aliens,
+ * the end of a power up or of an explosion, the end of a round) is a timer here instead of a time stamp which is polled in every tick.
+ * GameSimulation advances it once per tick with the time of the simulation clock, and the listeners of the due timers are called
+ * in the order of their times. Timers which are due in the same millisecond are called in no particular order.
+ * <p>
+ * It is a hierarchical timer wheel with a resolution of one millisecond: the first level has one bucket per millisecond
+ * for the next 256 ms, every further level has 64 buckets which each cover a whole revolution of the level below.
+ * A timer is put into the bucket for its time on the lowest level which reaches that far, and it moves down a level
+ * each time the level below wraps around. Buckets are doubly linked lists in primitive arrays, so scheduling and cancelling
+ * are O(1) and nothing is allocated once the arrays are large enough. A tick costs one step per millisecond plus the timers
+ * which fire or move down, however many timers are pending.
+ * <p>
+ * A timer is identified by a handle, which includes a generation, so cancelling a timer which has already fired does nothing.
+ * Listeners may schedule and cancel timers while they are called, a timer which is already due then fires in the same advance().
+ */
+public class TimerWheel {
+    /**
+     * Is called when a timer is due.
+     */
+    public interface Listener {
+        /**
+         * @param time the game time in milliseconds the timer was scheduled for, it may be a little in the past
+         * @param id what the timer is for, as given to schedule()
+         * @param attachment the object given to schedule(), may be null
+         */
+        void timerFired(long time, int id, Object attachment);
+    }
+
+    /**
+     * a handle which never belongs to a timer, e.g. for a timer which is not set
+     */
+    public static final long NONE = 0;
+
+    private static final int LOW_BITS = 8;
+    private static final int HIGH_BITS = 6;
+    private static final int LOW_BUCKETS = 1 << LOW_BITS;
+    private static final int HIGH_BUCKETS = 1 << HIGH_BITS;
+    private static final int HIGH_LEVELS = 3;
+    /**
+     * how far ahead a timer can be placed, later ones are placed at the end and moved down again until they are due
+     */
+    private static final long SPAN = 1L << (LOW_BITS + HIGH_LEVELS * HIGH_BITS);
+    private static final int NIL = -1;
+
+    /**
+     * the heads and tails of the buckets, the first LOW_BUCKETS are the first level, then HIGH_BUCKETS per further level
+     */
+    private final int[] heads = new int[LOW_BUCKETS + HIGH_LEVELS * HIGH_BUCKETS];
+    private final int[] tails = new int[heads.length];
+    /**
+     * the last millisecond whose timers have all fired
+     */
+    private long drained;
+    private int size;
+
+    /**
+     * per timer, unused timers are linked by next
+     */
+    private long[] times;
+    private Listener[] listeners;
+    private int[] ids;
+    private Object[] attachments;
+    private int[] generations;
+    private int[] buckets;
+    private int[] next;
+    private int[] previous;
+    private int free;
+
+    /**
+     * @param now the current game time in milliseconds
+     * @param capacity how many timers fit before the arrays grow
+     */
+    public TimerWheel(long now, int capacity) {
+        times = new long[capacity];
+        listeners = new Listener[capacity];
+        ids = new int[capacity];
+        attachments = new Object[capacity];
+        generations = new int[capacity];
+        buckets = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        reset(now);
+    }
+
+    /**
+     * Drops all timers, e.g. for a new round, and starts over at the given time.
+     * Handles of dropped timers stay invalid.
+     * @param now the current game time in milliseconds
+     */
+    public void reset(long now) {
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        Arrays.fill(listeners, null);
+        Arrays.fill(attachments, null);
+        for (int i = 0; i < times.length; i++) {
+            generations[i]++;
+            next[i] = i + 1 < times.length ? i + 1 : NIL;
+        }
+        free = times.length > 0 ? 0 : NIL;
+        size = 0;
+        drained = now;
+    }
+
+    /**
+     * Sets a timer.
+     * @param time the game time in milliseconds, a time which has already passed fires with the next advance()
+     * @param listener is called when the timer is due
+     * @param id what the timer is for, it is passed to the listener
+     * @return the handle of the timer, for cancel()
+     */
+    public long schedule(long time, Listener listener, int id) {
+        return schedule(time, listener, id, null);
+    }
+
+    /**
+     * Sets a timer.
+     * @param time the game time in milliseconds, a time which has already passed fires with the next advance()
+     * @param listener is called when the timer is due
+     * @param id what the timer is for, it is passed to the listener
+     * @param attachment an object which is passed to the listener, e.g. the entity the timer belongs to
+     * @return the handle of the timer, for cancel()
+     */
+    public long schedule(long time, Listener listener, int id, Object attachment) {
+        if (free == NIL) grow();
+        int timer = free;
+        free = next[timer];
+        times[timer] = time;
+        listeners[timer] = listener;
+        ids[timer] = id;
+        attachments[timer] = attachment;
+        size++;
+        place(timer);
+        return ((long) generations[timer] << 32) | timer;
+    }
+
+    /**
+     * Removes a timer before it fires.
+     * @param handle the handle returned by schedule(), NONE or the handle of a timer which has fired or was cancelled does nothing
+     * @return true if the timer was removed
+     */
+    public boolean cancel(long handle) {
+        int timer = (int) handle;
+        if (handle == NONE || timer < 0 || timer >= times.length || generations[timer] != (int) (handle >>> 32)) return false;
+        unlink(timer);
+        release(timer);
+        return true;
+    }
+
+    /**
+     * Fires all timers which are due up to the given time, earliest first.
+     * @param now the current game time in milliseconds
+     */
+    public void advance(long now) {
+        while (drained < now) {
+            if (size == 0) {
+                drained = now;
+                return;
+            }
+            long millisecond = drained + 1;
+            if ((millisecond & (LOW_BUCKETS - 1)) == 0) cascade(millisecond);
+            int bucket = (int) (millisecond & (LOW_BUCKETS - 1));
+            int timer;
+            while ((timer = heads[bucket]) != NIL) {
+                unlink(timer);
+                long time = times[timer];
+                Listener listener = listeners[timer];
+                int id = ids[timer];
+                Object attachment = attachments[timer];
+                release(timer);
+                listener.timerFired(time, id, attachment);
+            }
+            drained = millisecond;
+        }
+    }
+
+    /**
+     * Moves the timers of the buckets of the higher levels which start at the given millisecond down,
+     * highest level first, so they arrive in the first level in time.
+     */
+    private void cascade(long millisecond) {
+        int level = 1;
+        while (level < HIGH_LEVELS && ((millisecond >>> (LOW_BITS + level * HIGH_BITS - HIGH_BITS)) & (HIGH_BUCKETS - 1)) == 0) {
+            level++;
+        }
+        for (; level >= 1; level--) {
+            int index = (int) ((millisecond >>> (LOW_BITS + (level - 1) * HIGH_BITS)) & (HIGH_BUCKETS - 1));
+            int bucket = LOW_BUCKETS + (level - 1) * HIGH_BUCKETS + index;
+            int timer = heads[bucket];
+            heads[bucket] = NIL;
+            tails[bucket] = NIL;
+            while (timer != NIL) {
+                int following = next[timer];
+                place(timer);
+                timer = following;
+            }
+        }
+    }
+
+    /**
+     * Auxiliary method, appends a timer to the bucket for its time.
+     */
+    private void place(int timer) {
+        long pending = drained + 1;
+        long time = Math.max(times[timer], pending);
+        long delta = time - pending;
+        int bucket;
+        if (delta < LOW_BUCKETS) {
+            bucket = (int) (time & (LOW_BUCKETS - 1));
+        } else {
+            if (delta >= SPAN) time = pending + SPAN - 1;
+            int level = 1;
+            while (level < HIGH_LEVELS && delta >= 1L << (LOW_BITS + level * HIGH_BITS)) {
+                level++;
+            }
+            int index = (int) ((time >>> (LOW_BITS + (level - 1) * HIGH_BITS)) & (HIGH_BUCKETS - 1));
+            bucket = LOW_BUCKETS + (level - 1) * HIGH_BUCKETS + index;
+        }
+        buckets[timer] = bucket;
+        next[timer] = NIL;
+        previous[timer] = tails[bucket];
+        if (tails[bucket] == NIL) {
+            heads[bucket] = timer;
+        } else {
+            next[tails[bucket]] = timer;
+        }
+        tails[bucket] = timer;
+    }
+
+    private void unlink(int timer) {
+        int bucket = buckets[timer];
+        if (previous[timer] == NIL) {
+            heads[bucket] = next[timer];
+        } else {
+            next[previous[timer]] = next[timer];
+        }
+        if (next[timer] == NIL) {
+            tails[bucket] = previous[timer];
+        } else {
+            previous[next[timer]] = previous[timer];
+        }
+    }
+
+    /**
+     * Auxiliary method, returns a timer which is not in a bucket anymore to the free list and invalidates its handle.
+     */
+    private void release(int timer) {
+        generations[timer]++;
+        // generation 0 with slot 0 would be the handle NONE
+        if (generations[timer] == 0) generations[timer] = 1;
+        listeners[timer] = null;
+        attachments[timer] = null;
+        next[timer] = free;
+        free = timer;
+        size--;
+    }
+
+    private void grow() {
+        int old = times.length;
+        int capacity = Math.max(16, old * 2);
+        times = Arrays.copyOf(times, capacity);
+        listeners = Arrays.copyOf(listeners, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        attachments = Arrays.copyOf(attachments, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        buckets = Arrays.copyOf(buckets, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        for (int i = old; i < capacity; i++) {
+            generations[i] = 1;
+            next[i] = i + 1 < capacity ? i + 1 : free;
+        }
+        free = old;
+    }
+
+    /**
+     * @return the last game time up to which all timers have fired
+     */
+    public long getTime() {
+        return drained;
+    }
+
+    /**
+     * @return how many timers are pending
+     */
+    public int size() {
+        return size;
+    }
+}
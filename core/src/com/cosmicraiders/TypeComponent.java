@@ -0,0 +1,16 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Tells what kind of object an entity is. The CollisionSystem uses it to decide what happens on a hit.
+ */
+public class TypeComponent implements Component, Pool.Poolable {
+    public EntityType type;
+
+    @Override
+    public void reset() {
+        type = null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cosmicraiders;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * How fast an entity moves and turns. Entities with a velocity are moved by the MovementSystem.
+ * After changing the velocity of an entity which is already in the engine, call ImpactScheduler.velocityChanged().
+ */
+public class VelocityComponent implements Component, Pool.Poolable {
+    /**
+     * horizontal speed in pixels per second
+     */
+    public float x;
+    /**
+     * vertical speed in pixels per second
+     */
+    public float y;
+    /**
+     * rotation speed in degrees per second
+     */
+    public float angular;
+    /**
+     * identifies the velocity the ImpactScheduler predicted the impacts with, 0 if the entity has not been predicted
+     */
+    public int impactStamp;
+
+    @Override
+    public void reset() {
+        x = 0;
+        y = 0;
+        angular = 0;
+        impactStamp = 0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Describes one wave of aliens: how many there are, how they are arranged and how tough, fast and trigger-happy they are.
+ * The waves of a game are read from waves.json, see load(), and the AlienFleet sends them in order, starting over after the last.
+ * Speed and rate of fire are factors of the values of the ConfigSet, so the difficulty still rises with the score.
+ * A wave with a BulletPattern shoots bursts of bullets instead of single lasers.
+ */
+public class WaveDefinition {
+    /**
+     * How the aliens of a wave are arranged.
+     */
+    public enum Formation {
+        /**
+         * every alien flies on its own and turns on its own, like the single alien of the first waves
+         */
+        LOOSE,
+        /**
+         * rows and columns which move from side to side as one block
+         */
+        GRID,
+        /**
+         * like GRID, but the middle columns fly lower than the outer ones
+         */
+        VEE
+    }
+
+    /**
+     * the wave which is sent when no waves were loaded: a single alien, like the game had before there were waves
+     */
+    public static final WaveDefinition SINGLE = new WaveDefinition(Formation.LOOSE, 1, 1, 0, 1, 1, 1);
+
+    private final Formation formation;
+    private final int columns;
+    private final int rows;
+    private final float spacing;
+    private final int health;
+    private final float speedFactor;
+    private final float fireRateFactor;
+    private final BulletPattern pattern;
+
+    /**
+     * @param formation how the aliens are arranged
+     * @param columns how many aliens there are side by side
+     * @param rows how many aliens there are one above the other
+     * @param spacing the gap between two aliens in pixels, negative values let them overlap
+     * @param health how many hits an alien takes before it is destroyed
+     * @param speedFactor the speed relative to ConfigSet.getAlienSpeed()
+     * @param fireRateFactor the rate of fire of each alien relative to ConfigSet.getAlienShotsPerSecond()
+     */
+    public WaveDefinition(Formation formation, int columns, int rows, float spacing, int health, float speedFactor, float fireRateFactor) {
+        this(formation, columns, rows, spacing, health, speedFactor, fireRateFactor, null);
+    }
+
+    /**
+     * @param formation how the aliens are arranged
+     * @param columns how many aliens there are side by side
+     * @param rows how many aliens there are one above the other
+     * @param spacing the gap between two aliens in pixels, negative values let them overlap
+     * @param health how many hits an alien takes before it is destroyed
+     * @param speedFactor the speed relative to ConfigSet.getAlienSpeed()
+     * @param fireRateFactor the rate of fire of each alien relative to ConfigSet.getAlienShotsPerSecond()
+     * @param pattern the bursts the aliens shoot, null for single lasers
+     */
+    public WaveDefinition(Formation formation, int columns, int rows, float spacing, int health, float speedFactor, float fireRateFactor,
+                          BulletPattern pattern) {
+        this.formation = formation;
+        this.columns = Math.max(1, columns);
+        this.rows = Math.max(1, rows);
+        this.spacing = spacing;
+        this.health = Math.max(1, health);
+        this.speedFactor = speedFactor;
+        this.fireRateFactor = fireRateFactor;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Reads one wave. Missing values fall back to those of SINGLE.
+     * @param json an object like {"formation": "GRID", "columns": 6, "rows": 2, "spacing": 20, "health": 1, "speed": 0.8, "fireRate": 0.3},
+     *             optionally with a "pattern", see BulletPattern.fromJson()
+     * @return the wave
+     */
+    public static WaveDefinition fromJson(JsonValue json) {
+        return new WaveDefinition(
+                Formation.valueOf(json.getString("formation", SINGLE.formation.name()).toUpperCase()),
+                json.getInt("columns", SINGLE.columns),
+                json.getInt("rows", SINGLE.rows),
+                json.getFloat("spacing", SINGLE.spacing),
+                json.getInt("health", SINGLE.health),
+                json.getFloat("speed", SINGLE.speedFactor),
+                json.getFloat("fireRate", SINGLE.fireRateFactor),
+                BulletPattern.fromJson(json.get("pattern")));
+    }
+
+    /**
+     * Reads the waves of a game. The JsonReader is used instead of Json, so no reflection is needed on any platform.
+     * @param file a JSON array of waves, see fromJson()
+     * @return the waves in the order they are sent, only SINGLE if the file does not exist or has none
+     */
+    public static WaveDefinition[] load(FileHandle file) {
+        if (!file.exists()) return new WaveDefinition[] {SINGLE};
+        JsonValue json = new JsonReader().parse(file);
+        if (json.size == 0) return new WaveDefinition[] {SINGLE};
+        WaveDefinition[] waves = new WaveDefinition[json.size];
+        int i = 0;
+        for (JsonValue wave = json.child; wave != null; wave = wave.next) {
+            waves[i++] = fromJson(wave);
+        }
+        return waves;
+    }
+
+    /**
+     * @return how many aliens the wave has
+     */
+    public int getCount() {
+        return columns * rows;
+    }
+
+    public Formation getFormation() {
+        return formation;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public float getSpacing() {
+        return spacing;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public float getSpeedFactor() {
+        return speedFactor;
+    }
+
+    public float getFireRateFactor() {
+        return fireRateFactor;
+    }
+
+    /**
+     * @return the bursts the aliens shoot, null if they shoot single lasers
+     */
+    public BulletPattern getPattern() {
+        return pattern;
+    }
+}
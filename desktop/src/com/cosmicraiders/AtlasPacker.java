@@ -0,0 +1,14 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+// Packs all images of the "textures" folder into the texture atlas which AssetSet loads.
+// Run it with the packTextures task, the settings are read from textures/pack.json.
+// The atlas is always packed again: after a checkout the file times say nothing about which is newer.
+public class AtlasPacker {
+	public static void main (String[] arg) {
+		String inputDir = arg.length > 0 ? arg[0] : "../textures";
+		String outputDir = arg.length > 1 ? arg[1] : "../assets";
+		TexturePacker.process(inputDir, outputDir, "sprites");
+	}
+}
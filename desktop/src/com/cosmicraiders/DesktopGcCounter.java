@@ -0,0 +1,16 @@
+package com.cosmicraiders;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+// Counts the garbage collections of all collectors of the JVM for the profiler overlay.
+public class DesktopGcCounter implements GcCounter {
+	@Override
+	public long getCollectionCount () {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+}
@@ -19,6 +19,7 @@ import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
+// Start with --simulation-thread to run the game logic on its own thread
 public class DesktopLauncher {
 	public static void main (String[] arg) {
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
@@ -26,6 +27,14 @@ public class DesktopLauncher {
 		config.setTitle("CosmicRaiders");
 		config.setWindowedMode(1920, 1080);
 		config.useVsync(true);
-		new Lwjgl3Application(new CosmicRaiders(), config);
+		BackgroundSimulation backgroundSimulation = null;
+		for (String argument : arg) {
+			if (argument.equals("--simulation-thread")) {
+				backgroundSimulation = new SimulationThread();
+			}
+		}
+		CosmicRaiders game = new CosmicRaiders(new DesktopGcCounter(), backgroundSimulation);
+		game.setParallelExecutor(new ForkJoinExecutor());
+		new Lwjgl3Application(game, config);
 	}
 }
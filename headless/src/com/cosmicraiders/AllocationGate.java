@@ -0,0 +1,168 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.MathUtils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the real game, main menu and gameplay, on the headless backend and measures
+ * how many bytes the render thread allocates per frame once the game has warmed up.
+ * OpenGL is replaced by NoOpGL and the keyboard by ScriptedInput.
+ * If a phase allocates more than the budget per frame in any round, the process exits with code 1,
+ * so the gate can be used in a build.
+ * The C2 compiler keeps recompiling methods long after the warm up, and the objects it had removed by escape analysis
+ * are created after all when such a method is deoptimized. The gate is therefore run with only the C1 compiler,
+ * -XX:TieredStopAtLevel=1, which neither removes nor recreates allocations, see the allocationGate task.
+ * With a BackgroundSimulation only the render thread is measured, the simulation thread runs in real time.
+ */
+public class AllocationGate extends ApplicationAdapter {
+    /**
+     * simulated time per frame in seconds
+     */
+    private static final float TICK = 1 / 60f;
+    /**
+     * how long to wait for the assets to load, in milliseconds
+     */
+    private static final long LOADING_TIMEOUT = 60000;
+    /**
+     * how many times the measured frames of each phase are run
+     */
+    private static final int ROUNDS = 3;
+
+    private final int warmupFrames;
+    private final int measuredFrames;
+    private final long budgetBytesPerFrame;
+    private final BackgroundSimulation backgroundSimulation;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ScriptedInput input = new ScriptedInput();
+    private CosmicRaiders game;
+
+    /**
+     * @param warmupFrames how many frames of each phase are run before measuring
+     * @param measuredFrames how many frames of each phase are measured per round
+     * @param budgetBytesPerFrame the highest allowed average allocation per frame
+     * @param backgroundSimulation runs the simulation on its own thread, null to run it on the render thread
+     */
+    public AllocationGate(int warmupFrames, int measuredFrames, long budgetBytesPerFrame, BackgroundSimulation backgroundSimulation) {
+        this.warmupFrames = warmupFrames;
+        this.measuredFrames = measuredFrames;
+        this.budgetBytesPerFrame = budgetBytesPerFrame;
+        this.backgroundSimulation = backgroundSimulation;
+    }
+
+    @Override
+    public void create() {
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            Gdx.app.error("AllocationGate", "this JVM cannot measure thread allocations");
+            System.exit(1);
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Gdx.gl = Gdx.gl20 = new NoOpGL();
+        Gdx.input = input;
+        MathUtils.random.setSeed(42);
+
+        game = new CosmicRaiders(null, backgroundSimulation);
+        game.create();
+        loadAssets();
+
+        // a round was played before, so the menu also shows the scores
+        Scores.setLastScore(1234);
+        Scores.increaseRoundsPlayed();
+        long menuBytes = measure("menu");
+
+        // godmode keeps the fighter alive, it keeps shooting lasers and rockets and sweeps from side to side
+        game.getConfigSet().setGodMode(true);
+        game.setScreen(game.getGameScreen());
+        input.setKeyPressed(Input.Keys.SPACE, true);
+        input.setKeyPressed(Input.Keys.R, true);
+        long gameplayBytes = measure("gameplay");
+
+        // stops the simulation thread, if there is one, before its counts are read
+        game.getGameScreen().pause();
+        game.getGameScreen().getSimulation().getEntityCounts().logReport();
+        if (menuBytes > budgetBytesPerFrame || gameplayBytes > budgetBytesPerFrame) {
+            Gdx.app.error("AllocationGate", "FAILED: more than " + budgetBytesPerFrame + " bytes per frame were allocated");
+            System.exit(1);
+        }
+        Gdx.app.log("AllocationGate", "passed, budget " + budgetBytesPerFrame + " bytes per frame");
+        Gdx.app.exit();
+    }
+
+    /**
+     * Renders the loading screen until all assets, including the sound effects, are loaded.
+     */
+    private void loadAssets() {
+        long start = System.currentTimeMillis();
+        while (!game.isGameAssetsLoaded()) {
+            if (System.currentTimeMillis() - start > LOADING_TIMEOUT) {
+                Gdx.app.error("AllocationGate", "assets did not load within " + LOADING_TIMEOUT + " ms");
+                System.exit(1);
+            }
+            game.render();
+        }
+    }
+
+    /**
+     * Runs the warm up frames and then ROUNDS rounds of measured frames of the current screen.
+     * An allocation every few thousand frames shows up in some rounds only, so a phase is judged by its worst round.
+     * @param phase the name of the phase for the log
+     * @return the average number of bytes allocated per frame in the worst round, rounded up
+     */
+    private long measure(String phase) {
+        for (int frame = 0; frame < warmupFrames; frame++) {
+            renderFrame(frame);
+        }
+        long worst = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            worst = Math.max(worst, measureRound(phase + " round " + (round + 1), warmupFrames + round * measuredFrames));
+        }
+        return worst;
+    }
+
+    /**
+     * Measures the allocations of each frame of one round.
+     * @param name the name of the round for the log
+     * @param firstFrame the number of the first frame of the round
+     * @return the average number of bytes allocated per frame, rounded up so that any allocation counts
+     */
+    private long measureRound(String name, int firstFrame) {
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        int allocatingFrames = 0;
+        long worstFrameBytes = 0;
+        int worstFrame = -1;
+        for (int frame = 0; frame < measuredFrames; frame++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            renderFrame(firstFrame + frame);
+            long frameBytes = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            allocated += frameBytes;
+            if (frameBytes > 0) allocatingFrames++;
+            if (frameBytes > worstFrameBytes) {
+                worstFrameBytes = frameBytes;
+                worstFrame = firstFrame + frame;
+            }
+        }
+        long perFrame = (allocated + measuredFrames - 1) / measuredFrames;
+        Gdx.app.log("AllocationGate", name + ": " + allocated + " bytes in " + measuredFrames + " frames = "
+                + perFrame + " bytes per frame, " + allocatingFrames + " frames allocated"
+                + (worstFrame < 0 ? "" : ", worst frame " + worstFrame + " with " + worstFrameBytes + " bytes"));
+        return perFrame;
+    }
+
+    /**
+     * Renders one frame of the current screen with a fixed delta.
+     * @param frame the number of the frame, the fighter changes direction every two seconds
+     */
+    private void renderFrame(int frame) {
+        boolean moveLeft = (frame / 120) % 2 == 0;
+        input.setKeyPressed(Input.Keys.A, moveLeft);
+        input.setKeyPressed(Input.Keys.D, !moveLeft);
+        game.getScreen().render(TICK);
+    }
+}
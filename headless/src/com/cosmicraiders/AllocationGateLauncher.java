@@ -0,0 +1,22 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Starts the allocation gate, see AllocationGate.
+ * Arguments: measured frames per phase (default 5000), the budget in bytes per frame (default 0)
+ * and optionally --simulation-thread to run the simulation on a SimulationThread,
+ * e.g. "gradlew headless:allocationGate -Pframes=10000 -PbudgetBytes=0 -PsimulationThread".
+ * When started directly, the JVM needs -XX:TieredStopAtLevel=1 like in the allocationGate task.
+ */
+public class AllocationGateLauncher {
+	public static void main (String[] arg) {
+		int frames = arg.length > 0 ? Integer.parseInt(arg[0]) : 5000;
+		long budgetBytes = arg.length > 1 ? Long.parseLong(arg[1]) : 0;
+		BackgroundSimulation backgroundSimulation = arg.length > 2 && arg[2].equals("--simulation-thread") ? new SimulationThread() : null;
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.updatesPerSecond = -1; // no render loop, the gate renders the frames itself
+		new HeadlessApplication(new AllocationGate(2 * frames, frames, budgetBytes, backgroundSimulation), config);
+	}
+}
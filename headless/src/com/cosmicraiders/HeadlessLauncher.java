@@ -0,0 +1,18 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Starts the game simulation without a window or GPU using the libGDX headless backend.
+ * The simulation is stepped as fast as possible, which makes it useful for soak tests and benchmarks.
+ * The number of ticks can be given as the first argument, e.g. "gradlew headless:run -Pticks=500000".
+ */
+public class HeadlessLauncher {
+	public static void main (String[] arg) {
+		int ticks = arg.length > 0 ? Integer.parseInt(arg[0]) : 100000;
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.updatesPerSecond = -1; // no render loop, the soak test steps the simulation itself
+		new HeadlessApplication(new SimulationSoakTest(ticks), config);
+	}
+}
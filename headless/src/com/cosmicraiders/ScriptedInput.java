@@ -0,0 +1,39 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * An Input for the headless backend whose keys and buttons are pressed by code.
+ * It replaces Gdx.input, so the real game screens can be driven without a keyboard.
+ */
+public class ScriptedInput extends MockInput {
+    private final IntSet pressedKeys = new IntSet();
+    private final IntSet pressedButtons = new IntSet();
+
+    public void setKeyPressed(int key, boolean pressed) {
+        if (pressed) {
+            pressedKeys.add(key);
+        } else {
+            pressedKeys.remove(key);
+        }
+    }
+
+    public void setButtonPressed(int button, boolean pressed) {
+        if (pressed) {
+            pressedButtons.add(button);
+        } else {
+            pressedButtons.remove(button);
+        }
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return pressedKeys.contains(key);
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return pressedButtons.contains(button);
+    }
+}
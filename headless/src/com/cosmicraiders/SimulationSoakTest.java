@@ -0,0 +1,63 @@
+package com.cosmicraiders;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+/**
+ * Runs the GameSimulation for a fixed number of ticks without rendering and reports how fast it ran.
+ * The aliens come in the waves of waves.json, like in the game.
+ * The fighter keeps shooting lasers and rockets and sweeps from side to side, godmode keeps it alive.
+ * If the round ends anyway, a new one is started.
+ */
+public class SimulationSoakTest extends ApplicationAdapter {
+    /**
+     * simulated time per tick in seconds
+     */
+    private static final float TICK = 1 / 60f;
+
+    private final int ticks;
+
+    public SimulationSoakTest(int ticks) {
+        this.ticks = ticks;
+    }
+
+    @Override
+    public void create() {
+        AssetSet.loadSounds();
+
+        ConfigSet configSet = new ConfigSet();
+        configSet.setGodMode(true);
+        // the same waves as the game, so the bullet patterns of the aliens run too
+        configSet.setWaves(WaveDefinition.load(Gdx.files.internal(AssetSet.WAVES)));
+        SteppedClock clock = new SteppedClock(0);
+        ManualInputSource input = new ManualInputSource();
+        input.setKeyPressed(Input.Keys.SPACE, true);
+        input.setKeyPressed(Input.Keys.R, true);
+        GameSimulation simulation = new GameSimulation(configSet, clock, input);
+
+        int rounds = 1;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            // change direction every two simulated seconds
+            boolean moveLeft = (tick / 120) % 2 == 0;
+            input.setKeyPressed(Input.Keys.A, moveLeft);
+            input.setKeyPressed(Input.Keys.D, !moveLeft);
+
+            clock.step(TICK);
+            simulation.update();
+
+            if (simulation.isRoundOver()) {
+                simulation.reset();
+                rounds++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Gdx.app.log("SoakTest", ticks + " ticks (" + (int) (ticks * TICK) + " s game time, " + rounds + " rounds) in "
+                + seconds + " s = " + (int) (ticks / seconds) + " ticks per second");
+        simulation.getEntityCounts().logReport();
+        simulation.getSoundMixer().logReport();
+        Gdx.app.exit();
+    }
+}
@@ -0,0 +1,259 @@
+package com.cosmicraiders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Runs a TimerWheel through random schedules, cancels, advances and resets over more than 2^28 ms of game time
+ * and compares it with a plain list of the pending timers. The delays reach beyond the span of the wheel,
+ * so timers cascade through all levels and are placed at the end again. Listeners schedule and cancel timers
+ * while they are called, also timers which are due in the same millisecond. The handles of fired, cancelled
+ * and reset timers are cancelled again and must do nothing.
+ * If the wheel fires a timer too early, too late, twice or after it was cancelled, or misses one,
+ * the process exits with code 1, so the check can be used in a build.
+ * Arguments: the number of operations (default 200000) and the seed (default 42),
+ * e.g. "gradlew headless:timerWheelCheck -Poperations=1000000 -Pseed=7".
+ */
+public class TimerWheelCheck implements TimerWheel.Listener {
+    /**
+     * how much game time the check covers at least, in milliseconds
+     */
+    private static final long DURATION = 1L << 28;
+    /**
+     * longer than the span of the wheel, so some timers are placed at the end and cascade more than once
+     */
+    private static final int LONGEST_DELAY = 1 << 27;
+    /**
+     * how many handles of timers which are gone are kept to cancel them again
+     */
+    private static final int DEAD_HANDLES = 1024;
+
+    /**
+     * A timer the wheel should have.
+     */
+    private static class Expected {
+        long handle;
+        /**
+         * the time given to schedule()
+         */
+        long time;
+        /**
+         * the millisecond it has to fire in, a time which has already passed fires in the next one
+         */
+        long due;
+        /**
+         * the time of the wheel when it was scheduled
+         */
+        long scheduled;
+        int id;
+        /**
+         * the position in pending
+         */
+        int index;
+    }
+
+    private final Random random;
+    private final TimerWheel wheel = new TimerWheel(0, 4);
+    private final ArrayList<Expected> pending = new ArrayList<>();
+    private final HashMap<Long, Expected> byHandle = new HashMap<>();
+    private final long[] deadHandles = new long[DEAD_HANDLES];
+    private int deadHandleCount;
+    private int nextId;
+    private long now;
+    private long fired;
+    private long cancelled;
+    private long cascaded;
+
+    public TimerWheelCheck(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] arg) {
+        int operations = arg.length > 0 ? Integer.parseInt(arg[0]) : 200000;
+        long seed = arg.length > 1 ? Long.parseLong(arg[1]) : 42;
+        new TimerWheelCheck(seed).run(operations);
+    }
+
+    /**
+     * Runs the given number of random operations, and keeps advancing afterwards until DURATION is covered
+     * and every timer has fired.
+     */
+    private void run(int operations) {
+        long start = System.nanoTime();
+        for (int operation = 0; operation < operations; operation++) {
+            int choice = random.nextInt(100);
+            if (choice < 45) {
+                schedule(randomTime());
+            } else if (choice < 60) {
+                cancelPending();
+            } else if (choice < 65) {
+                cancelDead();
+            } else if (choice < 99) {
+                advance(now + randomAdvance(operations));
+            } else if (random.nextInt(20) == 0) {
+                reset();
+            }
+        }
+        advance(Math.max(now, DURATION));
+        while (!pending.isEmpty()) {
+            advance(now + LONGEST_DELAY);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("TimerWheelCheck: passed, " + operations + " operations over " + now + " ms, "
+                + fired + " timers fired (" + cascaded + " of them after more than 256 ms), "
+                + cancelled + " cancelled, in " + seconds + " s");
+    }
+
+    @Override
+    public void timerFired(long time, int id, Object attachment) {
+        Expected expected = (Expected) attachment;
+        long millisecond = wheel.getTime() + 1;
+        check(byHandle.get(expected.handle) == expected, "timer " + id + " fired although it had fired or was cancelled");
+        check(id == expected.id && time == expected.time, "timer " + expected.id + " fired with id " + id + " and time " + time);
+        check(millisecond == expected.due, "timer " + id + " due at " + expected.due + " fired at " + millisecond);
+        check(millisecond <= now, "timer " + id + " fired at " + millisecond + " in an advance to " + now);
+        remove(expected);
+        fired++;
+        if (expected.due - expected.scheduled > 256) cascaded++;
+
+        // the listener changes the wheel while it is advancing
+        int choice = random.nextInt(10);
+        if (choice == 0) {
+            // due in this millisecond, so it fires in the same advance
+            schedule(millisecond - random.nextInt(3));
+        } else if (choice == 1) {
+            schedule(randomTime());
+        } else if (choice == 2) {
+            cancelPending();
+        }
+        check(!wheel.cancel(expected.handle), "timer " + id + " could be cancelled while it was firing");
+    }
+
+    /**
+     * Schedules a timer and adds it to the pending ones.
+     */
+    private void schedule(long time) {
+        Expected expected = new Expected();
+        expected.time = time;
+        // the wheel has fired everything up to getTime(), also while a listener is called
+        expected.due = Math.max(time, wheel.getTime() + 1);
+        expected.scheduled = wheel.getTime();
+        expected.id = nextId++;
+        expected.handle = wheel.schedule(time, this, expected.id, expected);
+        check(expected.handle != TimerWheel.NONE, "schedule() returned NONE");
+        check(!byHandle.containsKey(expected.handle), "schedule() returned the handle of a pending timer");
+        expected.index = pending.size();
+        pending.add(expected);
+        byHandle.put(expected.handle, expected);
+        checkSize();
+    }
+
+    /**
+     * Cancels a random pending timer, which may be due in the millisecond which is firing.
+     */
+    private void cancelPending() {
+        if (pending.isEmpty()) return;
+        Expected expected = pending.get(random.nextInt(pending.size()));
+        check(wheel.cancel(expected.handle), "pending timer " + expected.id + " could not be cancelled");
+        remove(expected);
+        cancelled++;
+        checkSize();
+    }
+
+    /**
+     * Cancels the handle of a timer which has fired, was cancelled or was dropped by reset(), which must do nothing.
+     */
+    private void cancelDead() {
+        check(!wheel.cancel(TimerWheel.NONE), "NONE could be cancelled");
+        if (deadHandleCount == 0) return;
+        long handle = deadHandles[random.nextInt(Math.min(deadHandleCount, DEAD_HANDLES))];
+        check(!wheel.cancel(handle), "the handle " + handle + " of a timer which is gone could be cancelled");
+        checkSize();
+    }
+
+    /**
+     * Advances the wheel and checks that every timer which is due has fired.
+     */
+    private void advance(long time) {
+        now = time;
+        wheel.advance(time);
+        check(wheel.getTime() == time, "advance(" + time + ") stopped at " + wheel.getTime());
+        for (int i = 0; i < pending.size(); i++) {
+            check(pending.get(i).due > time, "timer " + pending.get(i).id + " due at " + pending.get(i).due
+                    + " has not fired in an advance to " + time);
+        }
+        checkSize();
+    }
+
+    /**
+     * Resets the wheel, sometimes to a later time, the handles of the dropped timers must stay invalid.
+     */
+    private void reset() {
+        if (random.nextBoolean()) now += random.nextInt(LONGEST_DELAY);
+        wheel.reset(now);
+        while (!pending.isEmpty()) {
+            remove(pending.get(pending.size() - 1));
+        }
+        checkSize();
+    }
+
+    private void remove(Expected expected) {
+        Expected last = pending.remove(pending.size() - 1);
+        if (last != expected) {
+            pending.set(expected.index, last);
+            last.index = expected.index;
+        }
+        byHandle.remove(expected.handle);
+        deadHandles[deadHandleCount++ % DEAD_HANDLES] = expected.handle;
+    }
+
+    /**
+     * @return a time around the current one, mostly soon, sometimes on a higher level, beyond the span of the wheel or in the past
+     */
+    private long randomTime() {
+        long base = wheel.getTime();
+        switch (random.nextInt(8)) {
+            case 0:
+                return base - random.nextInt(1000);
+            case 1:
+            case 2:
+            case 3:
+                return base + random.nextInt(256);
+            case 4:
+                return base + random.nextInt(1 << 14);
+            case 5:
+                return base + random.nextInt(1 << 20);
+            case 6:
+                return base + random.nextInt(1 << 26);
+            default:
+                return base + random.nextInt(LONGEST_DELAY);
+        }
+    }
+
+    /**
+     * @return how far to advance, mostly a few ticks, sometimes far enough that the operations cover DURATION
+     */
+    private long randomAdvance(int operations) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return 0;
+            case 1:
+            case 2:
+                return 1 + random.nextInt(34);
+            default:
+                return random.nextInt((int) Math.min(Integer.MAX_VALUE, 8 * DURATION / operations) + 1);
+        }
+    }
+
+    private void checkSize() {
+        check(wheel.size() == pending.size(), "the wheel has " + wheel.size() + " timers instead of " + pending.size());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.err.println("TimerWheelCheck: FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}